@@ -0,0 +1,59 @@
+#!/bin/sh
+# Time-to-first-request benchmark.
+# Starts the application with the given command, polls a URL until it answers 2xx and prints
+# the elapsed wall-clock time and the process's resident set size at that point, then stops
+# the application. Repeats RUNS times. Works for the JVM JAR and the native executable alike.
+#
+# Usage: scripts/startup-benchmark.sh <command...>
+#   RUNS=5 URL=http://localhost:8080/ scripts/startup-benchmark.sh java -jar target/smart-clinic-management-1.0.0.jar
+#   scripts/startup-benchmark.sh target/smart-clinic-management
+#
+# The default URL is the login page, which needs neither MySQL nor MongoDB.
+
+RUNS=${RUNS:-5}
+URL=${URL:-http://localhost:8080/}
+TIMEOUT_SECONDS=${TIMEOUT_SECONDS:-120}
+
+if [ $# -eq 0 ]; then
+    echo "Usage: $0 <command...>" >&2
+    exit 1
+fi
+
+now_ms() {
+    date +%s%3N
+}
+
+total=0
+run=1
+while [ "$run" -le "$RUNS" ]; do
+    start=$(now_ms)
+    "$@" > /tmp/startup-benchmark.log 2>&1 &
+    pid=$!
+
+    elapsed=""
+    rss=""
+    while kill -0 "$pid" 2>/dev/null; do
+        if curl -fs -o /dev/null "$URL"; then
+            elapsed=$(( $(now_ms) - start ))
+            rss=$(awk '/VmRSS/ {print $2}' "/proc/$pid/status" 2>/dev/null)
+            break
+        fi
+        if [ $(( $(now_ms) - start )) -gt $(( TIMEOUT_SECONDS * 1000 )) ]; then
+            break
+        fi
+        sleep 0.05
+    done
+
+    kill "$pid" 2>/dev/null
+    wait "$pid" 2>/dev/null
+
+    if [ -z "$elapsed" ]; then
+        echo "run $run: no response from $URL (see /tmp/startup-benchmark.log)" >&2
+        exit 1
+    fi
+    echo "run $run: ${elapsed} ms, RSS ${rss:-?} kB"
+    total=$(( total + elapsed ))
+    run=$(( run + 1 ))
+done
+
+echo "mean: $(( total / RUNS )) ms over $RUNS runs"
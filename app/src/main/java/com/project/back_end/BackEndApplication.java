@@ -2,12 +2,14 @@ package com.project.back_end;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Main application class for Smart Clinic Management System.
- * This class bootstraps the Spring Boot application.
+ * This class bootstraps the Spring Boot application and enables scheduled background jobs.
  */
 @SpringBootApplication
+@EnableScheduling
 public class BackEndApplication {
 
     public static void main(String[] args) {
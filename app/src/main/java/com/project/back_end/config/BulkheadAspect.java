@@ -0,0 +1,55 @@
+package com.project.back_end.config;
+
+import com.project.back_end.service.Bulkhead;
+import com.project.back_end.service.BulkheadRegistry;
+import com.project.back_end.service.WorkloadClass;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Aspect admitting {@link Bulkhead}-annotated service calls through their workload class's bulkhead.
+ * Runs outside the transaction advice (and inside CoalescingAspect), so a queued call holds no
+ * database connection.
+ * Nested calls on the same thread are admitted by the outermost bulkhead only.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class BulkheadAspect {
+
+    private static final ThreadLocal<WorkloadClass> ADMITTED = new ThreadLocal<>();
+
+    @Autowired
+    private BulkheadRegistry bulkheadRegistry;
+
+    @Around("@within(com.project.back_end.service.Bulkhead) || @annotation(com.project.back_end.service.Bulkhead)")
+    public Object admit(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (ADMITTED.get() != null) {
+            return joinPoint.proceed();
+        }
+
+        WorkloadClass workload = resolveWorkload(joinPoint);
+        try (BulkheadRegistry.Permit permit = bulkheadRegistry.acquire(workload)) {
+            ADMITTED.set(workload);
+            return joinPoint.proceed();
+        } finally {
+            ADMITTED.remove();
+        }
+    }
+
+    private WorkloadClass resolveWorkload(ProceedingJoinPoint joinPoint) {
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        Bulkhead bulkhead = AnnotationUtils.findAnnotation(signature.getMethod(), Bulkhead.class);
+        if (bulkhead == null) {
+            bulkhead = AnnotationUtils.findAnnotation(joinPoint.getTarget().getClass(), Bulkhead.class);
+        }
+        return bulkhead.value();
+    }
+}
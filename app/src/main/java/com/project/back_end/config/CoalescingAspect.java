@@ -0,0 +1,41 @@
+package com.project.back_end.config;
+
+import com.project.back_end.service.Coalesce;
+import com.project.back_end.service.RequestCoalescer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.Method;
+
+/**
+ * Aspect coalescing concurrent identical calls to {@link Coalesce}-annotated service methods.
+ * Runs outside the bulkhead and transaction advice, so calls that join a running one take no
+ * bulkhead permit and no database connection. Calls made inside a transaction are not coalesced,
+ * since they must see that transaction's own writes.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class CoalescingAspect {
+
+    @Autowired
+    private RequestCoalescer requestCoalescer;
+
+    @Around("@annotation(com.project.back_end.service.Coalesce)")
+    public Object coalesce(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return joinPoint.proceed();
+        }
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Coalesce coalesce = AnnotationUtils.findAnnotation(method, Coalesce.class);
+        return requestCoalescer.execute(coalesce.value(), method, joinPoint.getArgs(), joinPoint::proceed);
+    }
+}
@@ -0,0 +1,62 @@
+package com.project.back_end.config;
+
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.http.converter.json.MappingJacksonValue;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Support for the {@code fields=} query parameter on list endpoints.
+ * Read models annotated with {@code @JsonFilter(FieldSelection.FILTER)} serialize only the
+ * requested attributes; without a selection (or for other endpoints) every attribute is written.
+ */
+public final class FieldSelection {
+
+    public static final String FILTER = "fieldSelection";
+
+    /**
+     * Filters used when no selection applies: every attribute is serialized.
+     */
+    public static final FilterProvider SERIALIZE_ALL = new SimpleFilterProvider()
+            .setDefaultFilter(SimpleBeanPropertyFilter.serializeAll())
+            .setFailOnUnknownId(false);
+
+    private FieldSelection() {
+    }
+
+    /**
+     * Parse a comma-separated field list.
+     *
+     * @param fields the fields parameter, may be null or blank
+     * @return selected attribute names, or null when every attribute is wanted
+     */
+    public static Set<String> parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+        return Arrays.stream(fields.split(","))
+                .map(String::trim)
+                .filter(field -> !field.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    /**
+     * Wrap a response body so that only the selected attributes are serialized.
+     *
+     * @param body the response body
+     * @param fields the selected attribute names, or null for all
+     * @return body with serialization filters attached
+     */
+    public static MappingJacksonValue apply(Object body, Set<String> fields) {
+        MappingJacksonValue value = new MappingJacksonValue(body);
+        value.setFilters(fields == null ? SERIALIZE_ALL : new SimpleFilterProvider()
+                .setDefaultFilter(SimpleBeanPropertyFilter.serializeAll())
+                .setFailOnUnknownId(false)
+                .addFilter(FILTER, SimpleBeanPropertyFilter.filterOutAllExcept(fields)));
+        return value;
+    }
+}
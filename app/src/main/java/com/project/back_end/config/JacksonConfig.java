@@ -0,0 +1,19 @@
+package com.project.back_end.config;
+
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Jackson configuration.
+ * Registers a default filter provider so read models carrying a field-selection
+ * {@code @JsonFilter} serialize normally when no {@code fields=} parameter is given.
+ */
+@Configuration
+public class JacksonConfig {
+
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer fieldSelectionFilters() {
+        return builder -> builder.filters(FieldSelection.SERIALIZE_ALL);
+    }
+}
@@ -0,0 +1,80 @@
+package com.project.back_end.config;
+
+import com.project.back_end.dto.AppointmentDetailsDto;
+import com.project.back_end.dto.AppointmentDto;
+import com.project.back_end.dto.AppointmentEvent;
+import com.project.back_end.dto.AppointmentHistoryPage;
+import com.project.back_end.dto.AppointmentSeriesDto;
+import com.project.back_end.dto.AppointmentSlot;
+import com.project.back_end.dto.BulkAppointmentRequest;
+import com.project.back_end.dto.BulkAppointmentResult;
+import com.project.back_end.dto.DoctorAvailabilityDto;
+import com.project.back_end.dto.DoctorCardDto;
+import com.project.back_end.dto.LoginRequest;
+import com.project.back_end.dto.LoginResponse;
+import com.project.back_end.dto.Notification;
+import com.project.back_end.dto.PatientDetailsDto;
+import com.project.back_end.dto.PatientSummaryDto;
+import com.project.back_end.dto.ReminderTarget;
+import com.project.back_end.dto.WaitlistEntryDto;
+import com.project.back_end.model.Admin;
+import com.project.back_end.model.Appointment;
+import com.project.back_end.model.AppointmentSeries;
+import com.project.back_end.model.AppointmentSeriesOverride;
+import com.project.back_end.model.ArchivedAppointment;
+import com.project.back_end.model.Doctor;
+import com.project.back_end.model.DoctorAvailability;
+import com.project.back_end.model.DoctorAvailabilityOverride;
+import com.project.back_end.model.JobLease;
+import com.project.back_end.model.OutboxEvent;
+import com.project.back_end.model.Patient;
+import com.project.back_end.model.Prescription;
+import com.project.back_end.model.WaitlistEntry;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+import java.util.List;
+
+/**
+ * GraalVM native-image hints (used by "mvn -Pprod,native native:compile"; ignored on the JVM).
+ * Models and DTOs are registered for JSON binding, which covers their Lombok-generated accessors.
+ * JPA entities and the Prescription document also get field and constructor access for Hibernate
+ * and Spring Data. Thymeleaf templates and static assets are registered as resources. Third-party
+ * libraries (MySQL driver, Hibernate, MongoDB, JJWT) are covered by the GraalVM reachability metadata
+ * repository, so only the application's own types are listed here.
+ */
+@Configuration
+@ImportRuntimeHints(NativeHintsConfig.ApplicationRuntimeHints.class)
+@RegisterReflectionForBinding({Admin.class, Appointment.class, AppointmentSeries.class, ArchivedAppointment.class,
+        Doctor.class, Patient.class, Prescription.class, Prescription.Medication.class, AppointmentDetailsDto.class,
+        AppointmentDto.class, AppointmentEvent.class, AppointmentHistoryPage.class, AppointmentSeriesDto.class,
+        AppointmentSlot.class, BulkAppointmentRequest.class, BulkAppointmentResult.class,
+        BulkAppointmentResult.Item.class, DoctorAvailabilityDto.class, DoctorAvailabilityDto.Rule.class,
+        DoctorAvailabilityDto.DateOverride.class, DoctorCardDto.class, LoginRequest.class, LoginResponse.class,
+        Notification.class, PatientDetailsDto.class, PatientSummaryDto.class, ReminderTarget.class,
+        WaitlistEntryDto.class})
+public class NativeHintsConfig {
+
+    static class ApplicationRuntimeHints implements RuntimeHintsRegistrar {
+
+        private static final List<Class<?>> PERSISTENT_TYPES = List.of(Admin.class, Appointment.class,
+                AppointmentSeries.class, AppointmentSeriesOverride.class, ArchivedAppointment.class, Doctor.class,
+                DoctorAvailability.class, DoctorAvailabilityOverride.class, JobLease.class, OutboxEvent.class, Patient.class,
+                Prescription.class, Prescription.Medication.class, WaitlistEntry.class);
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            for (Class<?> type : PERSISTENT_TYPES) {
+                hints.reflection().registerType(type, MemberCategory.DECLARED_FIELDS,
+                        MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_DECLARED_METHODS);
+            }
+            hints.resources().registerPattern("templates/**");
+            hints.resources().registerPattern("static/**");
+            hints.resources().registerPattern("ehcache.xml");
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.project.back_end.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.regex.Pattern;
+
+/**
+ * Filter masking the value of a {@code token} query parameter in the query string, so request
+ * logging (e.g. DispatcherServlet at DEBUG) never writes a JWT to the logs. Used by the SSE
+ * streams, whose EventSource clients cannot send an Authorization header. Request parameters
+ * are not affected, so controllers still receive the token.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class QueryTokenMaskingFilter extends OncePerRequestFilter {
+
+    private static final Pattern TOKEN_PARAMETER = Pattern.compile("(^|&)(token=)[^&]*");
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String queryString = request.getQueryString();
+        if (queryString == null || !queryString.contains("token=")) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String masked = TOKEN_PARAMETER.matcher(queryString).replaceAll("$1$2***");
+        filterChain.doFilter(new HttpServletRequestWrapper(request) {
+            @Override
+            public String getQueryString() {
+                return masked;
+            }
+        }, response);
+    }
+}
@@ -0,0 +1,103 @@
+package com.project.back_end.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Periodically measures MySQL replication lag on the replica.
+ * The replica is considered usable while its lag is known and within the configured maximum.
+ * A server that reports no replication status is not replicating, so its lag is unknown and
+ * it is not used, unless it is declared in sync ({@code app.datasource.replica.assume-in-sync=true}),
+ * which is meant for local stand-ins such as the primary itself or a standalone MySQL copy.
+ */
+public class ReplicaLagMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private final DataSource replica;
+    private final long maxLagSeconds;
+    private final boolean assumeInSync;
+    private final AtomicLong lagSeconds = new AtomicLong(-1);
+    private volatile boolean usable;
+
+    public ReplicaLagMonitor(DataSource replica, long maxLagSeconds, boolean assumeInSync) {
+        this.replica = replica;
+        this.maxLagSeconds = maxLagSeconds;
+        this.assumeInSync = assumeInSync;
+    }
+
+    /**
+     * Check whether read-only work may be sent to the replica.
+     *
+     * @return true if the replica is reachable and within the lag limit
+     */
+    public boolean isReplicaUsable() {
+        return usable;
+    }
+
+    /**
+     * Get the last measured lag.
+     *
+     * @return lag in seconds, or -1 if unknown
+     */
+    public long getLagSeconds() {
+        return lagSeconds.get();
+    }
+
+    /**
+     * Stop routing to the replica until the next successful check.
+     */
+    public void markUnavailable() {
+        usable = false;
+    }
+
+    /**
+     * Measure replica lag and update routing eligibility.
+     */
+    @Scheduled(fixedDelayString = "${app.datasource.replica.lag-check-interval-ms:5000}")
+    public void checkLag() {
+        long lag;
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement()) {
+            lag = readLag(statement);
+        } catch (SQLException e) {
+            logger.debug("Replica lag check failed: {}", e.getMessage());
+            lag = -1;
+        }
+        lagSeconds.set(lag);
+        boolean nowUsable = lag >= 0 && lag <= maxLagSeconds;
+        if (nowUsable != usable) {
+            logger.info("Replica {} for reads (lag {}s)", nowUsable ? "enabled" : "disabled", lag);
+        }
+        usable = nowUsable;
+    }
+
+    private long readLag(Statement statement) throws SQLException {
+        try (ResultSet rs = statement.executeQuery("SHOW REPLICA STATUS")) {
+            return lagFrom(rs, "Seconds_Behind_Source");
+        } catch (SQLException e) {
+            // MySQL before 8.0.22
+            try (ResultSet rs = statement.executeQuery("SHOW SLAVE STATUS")) {
+                return lagFrom(rs, "Seconds_Behind_Master");
+            }
+        }
+    }
+
+    private long lagFrom(ResultSet rs, String column) throws SQLException {
+        if (!rs.next()) {
+            // Replication is not configured on this server; a declared stand-in counts as caught up
+            return assumeInSync ? 0 : -1;
+        }
+        long lag = rs.getLong(column);
+        // NULL means replication is not running
+        return rs.wasNull() ? -1 : lag;
+    }
+}
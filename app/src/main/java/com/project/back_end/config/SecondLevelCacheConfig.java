@@ -0,0 +1,21 @@
+package com.project.back_end.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration for the Hibernate second-level and query cache.
+ * The cache itself is set up in application.properties and ehcache.xml; this scopes cache
+ * keys by shard (see ShardTenantIdentifierResolver) since all shards share one session factory.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer shardTenantCustomizer(ShardRouter shardRouter) {
+        return properties -> properties.put(AvailableSettings.MULTI_TENANT_IDENTIFIER_RESOLVER,
+                new ShardTenantIdentifierResolver(shardRouter));
+    }
+}
@@ -0,0 +1,64 @@
+package com.project.back_end.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Resolves the shard for the current thread from TenantContext.
+ * Work without a clinic (logins without a clinic header, scheduled jobs' leases, schema
+ * updates) goes to the first configured shard, which also holds the global tables.
+ */
+@Component
+public class ShardRouter {
+
+    @Autowired
+    private ShardingProperties properties;
+
+    /**
+     * Get the configured shard names, first (default) shard first.
+     *
+     * @return shard names, empty when sharding is disabled
+     */
+    public List<String> getShardNames() {
+        if (!properties.isEnabled()) {
+            return Collections.emptyList();
+        }
+        return new ArrayList<>(properties.getShards().keySet());
+    }
+
+    /**
+     * Get the shard the current thread's database work should use.
+     *
+     * @return shard name, or null when sharding is disabled
+     */
+    public String currentShard() {
+        if (!properties.isEnabled()) {
+            return null;
+        }
+        String shard = TenantContext.getShard();
+        if (shard != null) {
+            return shard;
+        }
+        Long clinicId = TenantContext.getClinicId();
+        return clinicId == null ? getShardNames().get(0) : shardFor(clinicId);
+    }
+
+    /**
+     * Get the shard holding a clinic's data.
+     *
+     * @param clinicId the clinic ID
+     * @return shard name
+     */
+    public String shardFor(Long clinicId) {
+        String explicit = properties.getClinics().get(clinicId);
+        if (explicit != null) {
+            return explicit;
+        }
+        List<String> names = getShardNames();
+        return names.get((int) Math.floorMod(clinicId, (long) names.size()));
+    }
+}
@@ -0,0 +1,38 @@
+package com.project.back_end.config;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * DataSource routing each new connection to the current shard's pool.
+ * The shard is fixed when a transaction obtains its connection, so a transaction never spans shards.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    private final ShardRouter shardRouter;
+
+    public ShardRoutingDataSource(ShardRouter shardRouter, Map<Object, Object> shardDataSources) {
+        this.shardRouter = shardRouter;
+        setTargetDataSources(shardDataSources);
+        setDefaultTargetDataSource(shardDataSources.values().iterator().next());
+        setLenientFallback(false);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return shardRouter.currentShard();
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        for (Object dataSource : getResolvedDataSources().values()) {
+            if (dataSource instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.project.back_end.config;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoDatabase;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.SimpleMongoClientDatabaseFactory;
+
+import java.util.Map;
+
+/**
+ * MongoDB database factory returning the current shard's database.
+ * All shards share one MongoClient; each shard's prescriptions live in its own database.
+ */
+public class ShardRoutingMongoDatabaseFactory extends SimpleMongoClientDatabaseFactory {
+
+    private final ShardRouter shardRouter;
+    private final Map<String, String> shardDatabases;
+
+    public ShardRoutingMongoDatabaseFactory(MongoClient mongoClient, String defaultDatabase,
+                                            ShardRouter shardRouter, Map<String, String> shardDatabases) {
+        super(mongoClient, defaultDatabase);
+        this.shardRouter = shardRouter;
+        this.shardDatabases = shardDatabases;
+    }
+
+    @Override
+    public MongoDatabase getMongoDatabase() throws DataAccessException {
+        String database = shardDatabases.get(shardRouter.currentShard());
+        return database == null ? super.getMongoDatabase() : getMongoDatabase(database);
+    }
+}
@@ -0,0 +1,35 @@
+package com.project.back_end.config;
+
+import org.hibernate.context.spi.CurrentTenantIdentifierResolver;
+
+/**
+ * Gives each Hibernate session the shard it was opened on as its tenant identifier.
+ * Second-level and query cache keys include the tenant, so cached query results from
+ * one shard are never returned on another.
+ */
+public class ShardTenantIdentifierResolver implements CurrentTenantIdentifierResolver {
+
+    static final String UNSHARDED = "default";
+
+    private final ShardRouter shardRouter;
+
+    /**
+     * Create a resolver.
+     *
+     * @param shardRouter resolves the current thread's shard
+     */
+    public ShardTenantIdentifierResolver(ShardRouter shardRouter) {
+        this.shardRouter = shardRouter;
+    }
+
+    @Override
+    public String resolveCurrentTenantIdentifier() {
+        String shard = shardRouter.currentShard();
+        return shard == null ? UNSHARDED : shard;
+    }
+
+    @Override
+    public boolean validateExistingCurrentSessions() {
+        return false;
+    }
+}
@@ -0,0 +1,82 @@
+package com.project.back_end.config;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.mongo.MongoProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Configuration for the sharded deployment mode, enabled with {@code app.sharding.enabled=true}.
+ * Repository calls go to the shard of the request's clinic (X-Clinic-Id header or the token's
+ * clinicId claim); cross-shard admin queries run through ShardService.
+ *
+ * <p>Deployment requirements: the first shard holds the global tables (admin, job_lease) and is
+ * the one Hibernate's schema update runs against, so apply schema changes to the other shards with
+ * the same DDL; and each shard's MySQL server needs a distinct auto_increment_offset with
+ * auto_increment_increment set to the shard count, so entity IDs stay unique across shards.
+ * Read replica routing (app.datasource.replica.*) is not used in this mode.</p>
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.sharding.enabled", havingValue = "true")
+@EnableConfigurationProperties(MongoProperties.class)
+public class ShardingDataSourceConfig {
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardingProperties properties, ShardRouter shardRouter,
+                                 DataSourceProperties primaryProperties) {
+        if (properties.getShards().isEmpty()) {
+            throw new IllegalStateException("app.sharding.enabled is set but no app.sharding.shards are configured");
+        }
+        Map<Object, Object> shardDataSources = new LinkedHashMap<>();
+        properties.getShards().forEach((name, shard) -> {
+            HikariDataSource dataSource = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .driverClassName(primaryProperties.determineDriverClassName())
+                    .url(shard.getUrl())
+                    .username(shard.getUsername())
+                    .password(shard.getPassword())
+                    .build();
+            dataSource.setPoolName("shard-" + name);
+            dataSource.setMaximumPoolSize(shard.getMaximumPoolSize());
+            shardDataSources.put(name, dataSource);
+        });
+        return new ShardRoutingDataSource(shardRouter, shardDataSources);
+    }
+
+    /**
+     * MongoDB client shared by all shards. Boot's Mongo auto-configuration backs off once the
+     * routing MongoDatabaseFactory below exists, so the client (and its properties) are set up here.
+     */
+    @Bean
+    public MongoClient mongoClient(MongoProperties mongoProperties) {
+        return MongoClients.create(mongoProperties.determineUri());
+    }
+
+    @Bean
+    @Primary
+    public MongoDatabaseFactory mongoDatabaseFactory(MongoClient mongoClient, MongoProperties mongoProperties,
+                                                     ShardingProperties properties, ShardRouter shardRouter) {
+        Map<String, String> shardDatabases = new HashMap<>();
+        properties.getShards().forEach((name, shard) -> {
+            if (shard.getMongoDatabase() != null) {
+                shardDatabases.put(name, shard.getMongoDatabase());
+            }
+        });
+        return new ShardRoutingMongoDatabaseFactory(mongoClient, mongoProperties.getMongoClientDatabase(),
+                shardRouter, shardDatabases);
+    }
+}
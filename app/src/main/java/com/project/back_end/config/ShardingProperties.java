@@ -0,0 +1,43 @@
+package com.project.back_end.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Sharding settings bound from {@code app.sharding.*}.
+ * Each shard names a MySQL database and a MongoDB database; clinics are placed on a shard
+ * explicitly through {@code app.sharding.clinics.<clinicId>=<shard>} or else by clinic ID modulo
+ * the number of shards.
+ */
+@Component
+@ConfigurationProperties("app.sharding")
+@Data
+public class ShardingProperties {
+
+    private boolean enabled;
+
+    private Map<String, Shard> shards = new LinkedHashMap<>();
+
+    private Map<Long, String> clinics = new HashMap<>();
+
+    private int maxParallelism = 4;
+
+    private long scatterTimeoutSeconds = 30;
+
+    /**
+     * Connection settings of one shard.
+     */
+    @Data
+    public static class Shard {
+        private String url;
+        private String username;
+        private String password;
+        private String mongoDatabase;
+        private int maximumPoolSize = 10;
+    }
+}
@@ -0,0 +1,26 @@
+package com.project.back_end.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration for sampled SQL logging.
+ * Enabled when {@code app.logging.sql-sample-rate} is above zero (the prod profile sets it);
+ * one statement in that many is logged through SqlSamplingStatementInspector. Statements slower
+ * than {@code spring.jpa.properties.hibernate.log_slow_query} milliseconds are logged separately
+ * by Hibernate to the "org.hibernate.SQL_SLOW" logger.
+ */
+@Configuration
+@ConditionalOnExpression("${app.logging.sql-sample-rate:0} > 0")
+public class SqlLoggingConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlSamplingCustomizer(@Value("${app.logging.sql-sample-rate}") int sampleRate) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR,
+                new SqlSamplingStatementInspector(sampleRate));
+    }
+}
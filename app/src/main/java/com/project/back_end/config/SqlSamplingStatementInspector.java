@@ -0,0 +1,32 @@
+package com.project.back_end.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Hibernate statement inspector logging a random sample of SQL statements.
+ * Replaces show-sql in production: one statement in sampleRate is logged at INFO to the
+ * "sql.sample" logger, without bind parameters, so patient data never reaches the log.
+ * The statement itself is returned unchanged.
+ */
+public class SqlSamplingStatementInspector implements StatementInspector {
+
+    private static final Logger logger = LoggerFactory.getLogger("sql.sample");
+
+    private final int sampleRate;
+
+    public SqlSamplingStatementInspector(int sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        if (ThreadLocalRandom.current().nextInt(sampleRate) == 0 && logger.isInfoEnabled()) {
+            logger.info("{}", sql);
+        }
+        return sql;
+    }
+}
@@ -0,0 +1,43 @@
+package com.project.back_end.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.VersionResourceResolver;
+
+import java.time.Duration;
+
+/**
+ * Production serving of dashboard scripts and stylesheets.
+ * Enabled with {@code app.static-assets.immutable=true} (set by the prod profile). Templates link
+ * assets through {@code @{...}}, which the resource chain rewrites to content-hashed URLs such as
+ * {@code /js/index-<md5>.js}; a changed file gets a new URL, so responses can be cached as immutable.
+ * Precompressed {@code .br}/{@code .gz} variants produced by the Maven prod profile are served
+ * directly when the client accepts them.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.static-assets.immutable", havingValue = "true")
+public class StaticAssetConfig implements WebMvcConfigurer {
+
+    private static final String[] ASSET_DIRECTORIES = {"js", "css", "assets"};
+
+    @Value("${app.static-assets.max-age-days:365}")
+    private long maxAgeDays;
+
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        CacheControl cacheControl = CacheControl.maxAge(Duration.ofDays(maxAgeDays)).cachePublic().immutable();
+        for (String directory : ASSET_DIRECTORIES) {
+            registry.addResourceHandler("/" + directory + "/**")
+                    .addResourceLocations("classpath:/static/" + directory + "/")
+                    .setCacheControl(cacheControl)
+                    .resourceChain(true)
+                    .addResolver(new EncodedResourceResolver())
+                    .addResolver(new VersionResourceResolver().addContentVersionStrategy("/**"));
+        }
+    }
+}
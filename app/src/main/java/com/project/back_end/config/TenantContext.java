@@ -0,0 +1,66 @@
+package com.project.back_end.config;
+
+/**
+ * Holds the clinic (tenant) of the current request and, for cross-shard work,
+ * an explicit shard override. Set per request by TenantFilter and per task by ShardService.
+ */
+public final class TenantContext {
+
+    private static final ThreadLocal<Long> CLINIC_ID = new ThreadLocal<>();
+    private static final ThreadLocal<String> SHARD = new ThreadLocal<>();
+
+    private TenantContext() {
+    }
+
+    /**
+     * Get the clinic ID of the current request.
+     *
+     * @return clinic ID, or null if the request carries none
+     */
+    public static Long getClinicId() {
+        return CLINIC_ID.get();
+    }
+
+    /**
+     * Set the clinic ID of the current request.
+     *
+     * @param clinicId the clinic ID, or null to clear it
+     */
+    public static void setClinicId(Long clinicId) {
+        if (clinicId == null) {
+            CLINIC_ID.remove();
+        } else {
+            CLINIC_ID.set(clinicId);
+        }
+    }
+
+    /**
+     * Get the shard explicitly selected for the current thread.
+     *
+     * @return shard name, or null if the shard follows the clinic ID
+     */
+    public static String getShard() {
+        return SHARD.get();
+    }
+
+    /**
+     * Select a shard for the current thread regardless of clinic ID.
+     *
+     * @param shard the shard name, or null to clear the override
+     */
+    public static void setShard(String shard) {
+        if (shard == null) {
+            SHARD.remove();
+        } else {
+            SHARD.set(shard);
+        }
+    }
+
+    /**
+     * Clear the clinic ID and shard override.
+     */
+    public static void clear() {
+        CLINIC_ID.remove();
+        SHARD.remove();
+    }
+}
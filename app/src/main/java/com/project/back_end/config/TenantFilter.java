@@ -0,0 +1,75 @@
+package com.project.back_end.config;
+
+import com.project.back_end.service.TokenService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Filter populating TenantContext for each request.
+ * For a request with a valid bearer token the clinic is the token's clinicId claim; an
+ * X-Clinic-Id header is only honoured if it names the same clinic or the caller is an ADMIN,
+ * and is rejected with 403 otherwise. Requests without a valid token (login, registration)
+ * take the clinic from the header; the controllers reject them where a token is required, and
+ * login rejects a header that does not name the user's own clinic, whose ID it signs into the token.
+ */
+@Component
+public class TenantFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-Clinic-Id";
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        Long headerClinicId;
+        try {
+            headerClinicId = parseHeader(request);
+        } catch (NumberFormatException e) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), "Invalid " + HEADER + " header");
+            return;
+        }
+
+        Long clinicId = headerClinicId;
+        String token = bearerToken(request);
+        if (token != null && tokenService.validateToken(token)) {
+            Long tokenClinicId = tokenService.extractClinicId(token);
+            if (headerClinicId == null) {
+                clinicId = tokenClinicId;
+            } else if (!headerClinicId.equals(tokenClinicId) && !"ADMIN".equals(tokenService.extractRole(token))) {
+                response.sendError(HttpStatus.FORBIDDEN.value(), HEADER + " does not match the token's clinic");
+                return;
+            }
+        }
+
+        TenantContext.setClinicId(clinicId);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            TenantContext.clear();
+        }
+    }
+
+    private Long parseHeader(HttpServletRequest request) {
+        String header = request.getHeader(HEADER);
+        return header == null || header.isBlank() ? null : Long.valueOf(header.trim());
+    }
+
+    private String bearerToken(HttpServletRequest request) {
+        String authorization = request.getHeader("Authorization");
+        if (authorization != null && authorization.startsWith("Bearer ")) {
+            return authorization.substring(7);
+        }
+        // EventSource cannot send headers, so event streams pass the token as a query parameter
+        return request.getParameter("token");
+    }
+}
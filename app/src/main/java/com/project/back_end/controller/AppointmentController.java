@@ -1,16 +1,31 @@
 package com.project.back_end.controller;
 
+import com.project.back_end.config.FieldSelection;
+import com.project.back_end.dto.AppointmentDetailsDto;
 import com.project.back_end.dto.AppointmentDto;
+import com.project.back_end.dto.AppointmentHistoryPage;
+import com.project.back_end.dto.BulkAppointmentRequest;
+import com.project.back_end.dto.BulkAppointmentResult;
 import com.project.back_end.model.Appointment;
+import com.project.back_end.service.AppointmentEventHub;
 import com.project.back_end.service.AppointmentService;
+import com.project.back_end.service.BulkheadFullException;
+import com.project.back_end.service.IdempotencyService;
+import com.project.back_end.service.MergePatchService;
 import com.project.back_end.service.TokenService;
+import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
@@ -19,9 +34,12 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -34,20 +52,30 @@ import java.util.stream.Collectors;
 @CrossOrigin(origins = "*")
 public class AppointmentController {
 
+    private static final int MAX_HISTORY_PAGE_SIZE = 100;
+
     @Autowired
     private AppointmentService appointmentService;
 
     @Autowired
     private TokenService tokenService;
 
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private AppointmentEventHub appointmentEventHub;
+
     /**
      * Get all appointments.
      *
+     * @param fields comma-separated appointment attributes to return (optional, default all)
      * @param token the JWT token
      * @return List of all appointments
      */
     @GetMapping
     public ResponseEntity<?> getAllAppointments(
+            @RequestParam(required = false) String fields,
             @RequestHeader(value = "Authorization", required = false) String token) {
         try {
             // Validate admin token
@@ -60,8 +88,13 @@ public class AppointmentController {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Admin access required");
             }
 
-            List<Appointment> appointments = appointmentService.getAllAppointments();
-            return ResponseEntity.ok(appointments);
+            List<AppointmentDto> appointments = appointmentService.getAllAppointments()
+                    .stream()
+                    .map(appointmentService::toDto)
+                    .collect(Collectors.toList());
+            return ResponseEntity.ok(FieldSelection.apply(appointments, FieldSelection.parse(fields)));
+        } catch (BulkheadFullException e) {
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Error: " + e.getMessage());
@@ -94,6 +127,43 @@ public class AppointmentController {
                 return ResponseEntity.ok(appointment.get());
             }
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Appointment not found");
+        } catch (BulkheadFullException e) {
+            throw e;
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Get an appointment's reason and notes, including for archived appointments.
+     * These are not part of the appointment or list responses and are loaded only here.
+     *
+     * @param id the appointment ID
+     * @param token the JWT token
+     * @return Appointment details if found
+     */
+    @GetMapping("/{id}/details")
+    public ResponseEntity<?> getAppointmentDetails(@PathVariable Long id,
+                                                   @RequestHeader(value = "Authorization", required = false) String token) {
+        try {
+            // Validate token
+            if (token == null || !token.startsWith("Bearer ")) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Missing or invalid token");
+            }
+
+            String jwtToken = token.substring(7);
+            if (!tokenService.validateToken(jwtToken)) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid token");
+            }
+
+            Optional<AppointmentDetailsDto> details = appointmentService.getAppointmentDetails(id);
+            if (details.isPresent()) {
+                return ResponseEntity.ok(details.get());
+            }
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Appointment not found");
+        } catch (BulkheadFullException e) {
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Error: " + e.getMessage());
@@ -102,14 +172,17 @@ public class AppointmentController {
 
     /**
      * Create new appointment.
+     * Retries carrying the same Idempotency-Key replay the original response.
      *
      * @param appointmentDto the appointment data
      * @param token the JWT token
+     * @param idempotencyKey optional client-generated key identifying this request
      * @return Created appointment
      */
     @PostMapping
     public ResponseEntity<?> createAppointment(@Valid @RequestBody AppointmentDto appointmentDto,
-                                                @RequestHeader(value = "Authorization", required = false) String token) {
+                                                @RequestHeader(value = "Authorization", required = false) String token,
+                                                @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
         try {
             // Validate token
             if (token == null || !token.startsWith("Bearer ")) {
@@ -121,10 +194,19 @@ public class AppointmentController {
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid token");
             }
 
-            Appointment appointment = appointmentService.createAppointment(appointmentDto);
-            return ResponseEntity.status(HttpStatus.CREATED).body(appointment);
-        } catch (RuntimeException e) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Error: " + e.getMessage());
+            String scope = "appointments:" + tokenService.extractUserId(jwtToken);
+            return idempotencyService.execute(scope, idempotencyKey, appointmentDto, () -> {
+                try {
+                    Appointment appointment = appointmentService.createAppointment(appointmentDto);
+                    return ResponseEntity.status(HttpStatus.CREATED).body(appointment);
+                } catch (BulkheadFullException e) {
+                    throw e;
+                } catch (RuntimeException e) {
+                    return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Error: " + e.getMessage());
+                }
+            });
+        } catch (BulkheadFullException e) {
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Error: " + e.getMessage());
@@ -160,8 +242,158 @@ public class AppointmentController {
             }
 
             appointment.setId(id);
+            if (appointment.getVersion() == null) {
+                // Clients that do not send a version keep last-writer-wins semantics
+                appointment.setVersion(existingAppointment.get().getVersion());
+            }
             Appointment updatedAppointment = appointmentService.saveAppointment(appointment);
             return ResponseEntity.ok(updatedAppointment);
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Appointment was modified by another request");
+        } catch (BulkheadFullException e) {
+            throw e;
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Partially update appointment (JSON merge patch).
+     * Only the fields present in the patch are written, in a single UPDATE guarded by the
+     * version from the If-Match header or the patch's "version" field.
+     *
+     * @param id the appointment ID
+     * @param patch the fields to change
+     * @param ifMatch the version the client last read
+     * @param token the JWT token
+     * @return No content, with the new version as ETag
+     */
+    @PatchMapping(value = "/{id}", consumes = {MergePatchService.MEDIA_TYPE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<?> patchAppointment(@PathVariable Long id,
+                                              @RequestBody Map<String, Object> patch,
+                                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                              @RequestHeader(value = "Authorization", required = false) String token) {
+        try {
+            // Validate token
+            if (token == null || !token.startsWith("Bearer ")) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Missing or invalid token");
+            }
+
+            String jwtToken = token.substring(7);
+            if (!tokenService.validateToken(jwtToken)) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid token");
+            }
+
+            Long version = MergePatchService.resolveVersion(ifMatch, patch);
+            if (version == null) {
+                return ResponseEntity.status(HttpStatus.PRECONDITION_REQUIRED)
+                        .body("Version required in If-Match header or patch body");
+            }
+
+            long newVersion = appointmentService.patchAppointment(id, version, patch);
+            return ResponseEntity.noContent().eTag(String.valueOf(newVersion)).build();
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Appointment not found");
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Appointment was modified by another request");
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Error: " + e.getMessage());
+        } catch (BulkheadFullException e) {
+            throw e;
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Cancel, complete or reschedule many appointments at once.
+     * Targets are either a list of IDs or a doctor and time window. Admins may change any
+     * appointment; doctors only their own. Each target gets an outcome in the result.
+     *
+     * @param request the action and its targets
+     * @param token the JWT token
+     * @return Per-appointment results
+     */
+    @PostMapping("/bulk")
+    public ResponseEntity<?> bulkUpdateAppointments(@Valid @RequestBody BulkAppointmentRequest request,
+                                                    @RequestHeader(value = "Authorization", required = false) String token) {
+        try {
+            // Validate token
+            if (token == null || !token.startsWith("Bearer ")) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Missing or invalid token");
+            }
+
+            String jwtToken = token.substring(7);
+            if (!tokenService.validateToken(jwtToken)) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid token");
+            }
+
+            String role = tokenService.extractRole(jwtToken);
+            Long restrictToDoctorId;
+            if ("ADMIN".equalsIgnoreCase(role)) {
+                restrictToDoctorId = null;
+            } else if ("DOCTOR".equalsIgnoreCase(role)) {
+                restrictToDoctorId = tokenService.extractUserId(jwtToken);
+            } else {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Only admins and doctors can change appointments in bulk");
+            }
+
+            BulkAppointmentResult result = appointmentService.bulkUpdate(request, restrictToDoctorId);
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Error: " + e.getMessage());
+        } catch (BulkheadFullException e) {
+            throw e;
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Check the patient of a scheduled appointment in.
+     * Checked-in appointments are completed once they are over; the others become NO_SHOW.
+     * Admins may check in any appointment; doctors only their own.
+     *
+     * @param id the appointment ID
+     * @param token the JWT token
+     * @return The checked-in appointment
+     */
+    @PostMapping("/{id}/check-in")
+    public ResponseEntity<?> checkInAppointment(@PathVariable Long id,
+                                                @RequestHeader(value = "Authorization", required = false) String token) {
+        try {
+            // Validate token
+            if (token == null || !token.startsWith("Bearer ")) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Missing or invalid token");
+            }
+
+            String jwtToken = token.substring(7);
+            if (!tokenService.validateToken(jwtToken)) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid token");
+            }
+
+            String role = tokenService.extractRole(jwtToken);
+            Long restrictToDoctorId;
+            if ("ADMIN".equalsIgnoreCase(role)) {
+                restrictToDoctorId = null;
+            } else if ("DOCTOR".equalsIgnoreCase(role)) {
+                restrictToDoctorId = tokenService.extractUserId(jwtToken);
+            } else {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Only admins and doctors can check patients in");
+            }
+
+            Optional<Appointment> appointment = appointmentService.checkIn(id, restrictToDoctorId);
+            if (appointment.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Appointment not found");
+            }
+            return ResponseEntity.ok(appointmentService.toDto(appointment.get()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Error: " + e.getMessage());
+        } catch (BulkheadFullException e) {
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Error: " + e.getMessage());
@@ -195,6 +427,8 @@ public class AppointmentController {
 
             appointmentService.deleteAppointment(id);
             return ResponseEntity.ok("Appointment deleted successfully");
+        } catch (BulkheadFullException e) {
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Error: " + e.getMessage());
@@ -203,13 +437,20 @@ public class AppointmentController {
 
     /**
      * Get appointments by doctor ID.
+     * Supplying from and/or to restricts the query to that date range.
      *
      * @param doctorId the doctor ID
+     * @param from the start date (optional)
+     * @param to the end date (optional)
+     * @param fields comma-separated appointment attributes to return (optional, default all)
      * @param token the JWT token
      * @return List of appointments
      */
     @GetMapping("/doctor/{doctorId}")
     public ResponseEntity<?> getAppointmentsByDoctor(@PathVariable Long doctorId,
+                                                      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                                      @RequestParam(required = false) String fields,
                                                       @RequestHeader(value = "Authorization", required = false) String token) {
         try {
             // Validate doctor token
@@ -222,26 +463,100 @@ public class AppointmentController {
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid token");
             }
 
-            List<AppointmentDto> appointments = appointmentService.getAppointmentsByDoctorId(doctorId)
-                    .stream()
-                    .map(appointmentService::toDto)
-                    .collect(Collectors.toList());
-            return ResponseEntity.ok(appointments);
+            List<AppointmentDto> appointments = appointmentService.getAppointmentsByDoctor(doctorId, from, to);
+            return ResponseEntity.ok(FieldSelection.apply(appointments, FieldSelection.parse(fields)));
+        } catch (BulkheadFullException e) {
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Error: " + e.getMessage());
         }
     }
 
+    /**
+     * Get a doctor's appointment history, newest first, including archived appointments.
+     *
+     * @param doctorId the doctor ID
+     * @param before return appointments before this time (nextBefore of the previous page)
+     * @param beforeId also return appointments at exactly {@code before} with a lower ID (nextBeforeId of the previous page)
+     * @param size the page size
+     * @param token the JWT token
+     * @return page of appointments
+     */
+    @GetMapping("/doctor/{doctorId}/history")
+    public ResponseEntity<?> getDoctorHistory(@PathVariable Long doctorId,
+                                              @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime before,
+                                              @RequestParam(required = false) Long beforeId,
+                                              @RequestParam(defaultValue = "20") int size,
+                                              @RequestHeader(value = "Authorization", required = false) String token) {
+        try {
+            // Validate doctor token
+            if (token == null || !token.startsWith("Bearer ")) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Missing or invalid token");
+            }
+
+            String jwtToken = token.substring(7);
+            if (!tokenService.validateToken(jwtToken)) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid token");
+            }
+
+            if (size < 1 || size > MAX_HISTORY_PAGE_SIZE) {
+                return ResponseEntity.badRequest().body("Page size must be between 1 and " + MAX_HISTORY_PAGE_SIZE);
+            }
+
+            AppointmentHistoryPage page = appointmentService.getDoctorHistory(doctorId, before, beforeId, size);
+            return ResponseEntity.ok(page);
+        } catch (BulkheadFullException e) {
+            throw e;
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Stream a doctor's appointment changes (booked, cancelled, status changes) as server-sent events.
+     * The token is accepted as a query parameter because EventSource cannot send headers; it is
+     * masked in request logs by QueryTokenMaskingFilter. Only admins and the doctor may subscribe.
+     *
+     * @param doctorId the doctor ID
+     * @param date only stream changes to appointments on this day (optional)
+     * @param token the JWT token
+     * @return event stream
+     */
+    @GetMapping(value = "/doctor/{doctorId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamDoctorAppointments(
+            @PathVariable Long doctorId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam String token) {
+        if (!tokenService.validateToken(token)) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        // The stream carries patient names: only admins and the doctor themselves may subscribe
+        String role = tokenService.extractRole(token);
+        boolean ownStream = "DOCTOR".equals(role) && doctorId.equals(tokenService.extractUserId(token));
+        if (!"ADMIN".equals(role) && !ownStream) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok(appointmentEventHub.subscribe(doctorId, date));
+    }
+
     /**
      * Get appointments by patient ID.
+     * Supplying from and/or to restricts the query to that date range.
      *
      * @param patientId the patient ID
+     * @param from the start date (optional)
+     * @param to the end date (optional)
+     * @param fields comma-separated appointment attributes to return (optional, default all)
      * @param token the JWT token
      * @return List of appointments
      */
     @GetMapping("/patient/{patientId}")
     public ResponseEntity<?> getAppointmentsByPatient(@PathVariable Long patientId,
+                                                       @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                       @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                                       @RequestParam(required = false) String fields,
                                                        @RequestHeader(value = "Authorization", required = false) String token) {
         try {
             // Validate patient token
@@ -254,11 +569,51 @@ public class AppointmentController {
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid token");
             }
 
-            List<AppointmentDto> appointments = appointmentService.getAppointmentsByPatientId(patientId)
-                    .stream()
-                    .map(appointmentService::toDto)
-                    .collect(Collectors.toList());
-            return ResponseEntity.ok(appointments);
+            List<AppointmentDto> appointments = appointmentService.getAppointmentsByPatient(patientId, from, to);
+            return ResponseEntity.ok(FieldSelection.apply(appointments, FieldSelection.parse(fields)));
+        } catch (BulkheadFullException e) {
+            throw e;
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Get a patient's appointment history, newest first, including archived appointments.
+     *
+     * @param patientId the patient ID
+     * @param before return appointments before this time (nextBefore of the previous page)
+     * @param beforeId also return appointments at exactly {@code before} with a lower ID (nextBeforeId of the previous page)
+     * @param size the page size
+     * @param token the JWT token
+     * @return page of appointments
+     */
+    @GetMapping("/patient/{patientId}/history")
+    public ResponseEntity<?> getPatientHistory(@PathVariable Long patientId,
+                                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime before,
+                                               @RequestParam(required = false) Long beforeId,
+                                               @RequestParam(defaultValue = "20") int size,
+                                               @RequestHeader(value = "Authorization", required = false) String token) {
+        try {
+            // Validate patient token
+            if (token == null || !token.startsWith("Bearer ")) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Missing or invalid token");
+            }
+
+            String jwtToken = token.substring(7);
+            if (!tokenService.validateToken(jwtToken)) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid token");
+            }
+
+            if (size < 1 || size > MAX_HISTORY_PAGE_SIZE) {
+                return ResponseEntity.badRequest().body("Page size must be between 1 and " + MAX_HISTORY_PAGE_SIZE);
+            }
+
+            AppointmentHistoryPage page = appointmentService.getPatientHistory(patientId, before, beforeId, size);
+            return ResponseEntity.ok(page);
+        } catch (BulkheadFullException e) {
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Error: " + e.getMessage());
@@ -276,6 +631,8 @@ public class AppointmentController {
         try {
             List<Appointment> appointments = appointmentService.getAppointmentsByStatus(status);
             return ResponseEntity.ok(appointments);
+        } catch (BulkheadFullException e) {
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
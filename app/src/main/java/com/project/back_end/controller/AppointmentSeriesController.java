@@ -0,0 +1,232 @@
+package com.project.back_end.controller;
+
+import com.project.back_end.dto.AppointmentSeriesDto;
+import com.project.back_end.model.AppointmentSeries;
+import com.project.back_end.service.AppointmentSeriesService;
+import com.project.back_end.service.BulkheadFullException;
+import com.project.back_end.service.IdempotencyService;
+import com.project.back_end.service.TokenService;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * REST Controller for recurring appointment series.
+ * Occurrences are addressed by their index in the series, from 0.
+ */
+@RestController
+@RequestMapping("/api/appointment-series")
+@CrossOrigin(origins = "*")
+public class AppointmentSeriesController {
+
+    @Autowired
+    private AppointmentSeriesService appointmentSeriesService;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    /**
+     * Get series by ID.
+     *
+     * @param id the series ID
+     * @param token the JWT token
+     * @return Series if found
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<?> getSeriesById(@PathVariable Long id,
+                                           @RequestHeader(value = "Authorization", required = false) String token) {
+        try {
+            // Validate token
+            if (token == null || !token.startsWith("Bearer ")) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Missing or invalid token");
+            }
+
+            String jwtToken = token.substring(7);
+            if (!tokenService.validateToken(jwtToken)) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid token");
+            }
+
+            Optional<AppointmentSeries> series = appointmentSeriesService.getSeriesById(id);
+            if (series.isPresent()) {
+                return ResponseEntity.ok(appointmentSeriesService.toDto(series.get()));
+            }
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Series not found");
+        } catch (BulkheadFullException e) {
+            throw e;
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Create a recurring series of appointments.
+     *
+     * @param seriesDto the series data
+     * @param token the JWT token
+     * @param idempotencyKey optional key making retries of this request safe
+     * @return Created series
+     */
+    @PostMapping
+    public ResponseEntity<?> createSeries(@Valid @RequestBody AppointmentSeriesDto seriesDto,
+                                          @RequestHeader(value = "Authorization", required = false) String token,
+                                          @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        try {
+            // Validate token
+            if (token == null || !token.startsWith("Bearer ")) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Missing or invalid token");
+            }
+
+            String jwtToken = token.substring(7);
+            if (!tokenService.validateToken(jwtToken)) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid token");
+            }
+
+            String scope = "appointment-series:" + tokenService.extractUserId(jwtToken);
+            return idempotencyService.execute(scope, idempotencyKey, seriesDto, () -> {
+                try {
+                    AppointmentSeries series = appointmentSeriesService.createSeries(seriesDto);
+                    return ResponseEntity.status(HttpStatus.CREATED).body(appointmentSeriesService.toDto(series));
+                } catch (BulkheadFullException e) {
+                    throw e;
+                } catch (RuntimeException e) {
+                    return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Error: " + e.getMessage());
+                }
+            });
+        } catch (BulkheadFullException e) {
+            throw e;
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Cancel a series and its upcoming appointments.
+     *
+     * @param id the series ID
+     * @param token the JWT token
+     * @return Success message
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<?> cancelSeries(@PathVariable Long id,
+                                          @RequestHeader(value = "Authorization", required = false) String token) {
+        try {
+            // Validate token
+            if (token == null || !token.startsWith("Bearer ")) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Missing or invalid token");
+            }
+
+            String jwtToken = token.substring(7);
+            if (!tokenService.validateToken(jwtToken)) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid token");
+            }
+
+            appointmentSeriesService.cancelSeries(id);
+            return ResponseEntity.ok("Series cancelled successfully");
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Series not found");
+        } catch (BulkheadFullException e) {
+            throw e;
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Move one occurrence of a series to a new time.
+     *
+     * @param id the series ID
+     * @param index the occurrence index
+     * @param appointmentDateTime the new start time
+     * @param token the JWT token
+     * @return Success message
+     */
+    @PutMapping("/{id}/occurrences/{index}")
+    public ResponseEntity<?> moveOccurrence(@PathVariable Long id,
+                                            @PathVariable int index,
+                                            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime appointmentDateTime,
+                                            @RequestHeader(value = "Authorization", required = false) String token) {
+        try {
+            // Validate token
+            if (token == null || !token.startsWith("Bearer ")) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Missing or invalid token");
+            }
+
+            String jwtToken = token.substring(7);
+            if (!tokenService.validateToken(jwtToken)) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid token");
+            }
+
+            appointmentSeriesService.moveOccurrence(id, index, appointmentDateTime);
+            return ResponseEntity.ok("Occurrence moved successfully");
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Error: " + e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Error: " + e.getMessage());
+        } catch (BulkheadFullException e) {
+            throw e;
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Cancel one occurrence of a series.
+     *
+     * @param id the series ID
+     * @param index the occurrence index
+     * @param token the JWT token
+     * @return Success message
+     */
+    @DeleteMapping("/{id}/occurrences/{index}")
+    public ResponseEntity<?> cancelOccurrence(@PathVariable Long id,
+                                              @PathVariable int index,
+                                              @RequestHeader(value = "Authorization", required = false) String token) {
+        try {
+            // Validate token
+            if (token == null || !token.startsWith("Bearer ")) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Missing or invalid token");
+            }
+
+            String jwtToken = token.substring(7);
+            if (!tokenService.validateToken(jwtToken)) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid token");
+            }
+
+            appointmentSeriesService.cancelOccurrence(id, index);
+            return ResponseEntity.ok("Occurrence cancelled successfully");
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Error: " + e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Error: " + e.getMessage());
+        } catch (BulkheadFullException e) {
+            throw e;
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error: " + e.getMessage());
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.project.back_end.controller;
 
+import com.project.back_end.config.TenantContext;
+import com.project.back_end.config.TenantFilter;
 import com.project.back_end.dto.LoginRequest;
 import com.project.back_end.dto.LoginResponse;
 import com.project.back_end.model.Admin;
@@ -16,6 +18,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -23,7 +26,7 @@ import java.util.Optional;
 
 /**
  * REST Controller for authentication operations.
- * Handles login requests for admins, doctors, and patients.
+ * Handles login and logout requests for admins, doctors, and patients.
  */
 @RestController
 @RequestMapping("/api/auth")
@@ -44,6 +47,9 @@ public class AuthController {
 
     /**
      * Login endpoint for all user types.
+     * Doctor and patient tokens are bound to the user's own clinic. A login whose X-Clinic-Id
+     * header names another clinic is rejected, so the header cannot be used to obtain a token
+     * for a clinic the user does not belong to.
      *
      * @param loginRequest the login credentials
      * @return LoginResponse with JWT token
@@ -59,7 +65,7 @@ public class AuthController {
                 case "ADMIN":
                     Optional<Admin> admin = adminService.authenticate(username, password);
                     if (admin.isPresent()) {
-                        String token = tokenService.generateToken(admin.get().getId(), username, "ADMIN");
+                        String token = tokenService.generateToken(admin.get().getId(), username, "ADMIN", null);
                         return ResponseEntity.ok(new LoginResponse(token, "ADMIN", admin.get().getId(), username));
                     }
                     break;
@@ -67,7 +73,11 @@ public class AuthController {
                 case "DOCTOR":
                     Optional<Doctor> doctor = doctorService.authenticate(username, password);
                     if (doctor.isPresent()) {
-                        String token = tokenService.generateToken(doctor.get().getId(), username, "DOCTOR");
+                        if (!matchesRequestClinic(doctor.get().getClinicId())) {
+                            return clinicMismatch();
+                        }
+                        String token = tokenService.generateToken(doctor.get().getId(), username, "DOCTOR",
+                                doctor.get().getClinicId());
                         return ResponseEntity.ok(new LoginResponse(token, "DOCTOR", doctor.get().getId(), username));
                     }
                     break;
@@ -75,7 +85,11 @@ public class AuthController {
                 case "PATIENT":
                     Optional<Patient> patient = patientService.authenticate(username, password);
                     if (patient.isPresent()) {
-                        String token = tokenService.generateToken(patient.get().getId(), username, "PATIENT");
+                        if (!matchesRequestClinic(patient.get().getClinicId())) {
+                            return clinicMismatch();
+                        }
+                        String token = tokenService.generateToken(patient.get().getId(), username, "PATIENT",
+                                patient.get().getClinicId());
                         return ResponseEntity.ok(new LoginResponse(token, "PATIENT", patient.get().getId(), username));
                     }
                     break;
@@ -90,4 +104,44 @@ public class AuthController {
                     .body("Login error: " + e.getMessage());
         }
     }
+
+    /**
+     * Check the clinic of the login request (X-Clinic-Id header) against the user's clinic.
+     *
+     * @param userClinicId the authenticated user's clinic
+     * @return true if the request names no clinic or the user's clinic
+     */
+    private boolean matchesRequestClinic(Long userClinicId) {
+        Long requestClinicId = TenantContext.getClinicId();
+        return requestClinicId == null || requestClinicId.equals(userClinicId);
+    }
+
+    private ResponseEntity<String> clinicMismatch() {
+        return ResponseEntity.status(HttpStatus.FORBIDDEN).body(TenantFilter.HEADER + " does not match the user's clinic");
+    }
+
+    /**
+     * Logout endpoint for all user types.
+     * Revokes the presented token, so it is refused from now on even though it has not expired.
+     *
+     * @param token the JWT token
+     * @return Success message
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@RequestHeader(value = "Authorization", required = false) String token) {
+        try {
+            if (token == null || !token.startsWith("Bearer ")) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Missing or invalid token");
+            }
+
+            String jwtToken = token.substring(7);
+            if (!tokenService.validateToken(jwtToken) || !tokenService.revokeToken(jwtToken)) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid token");
+            }
+            return ResponseEntity.ok("Logged out");
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Logout error: " + e.getMessage());
+        }
+    }
 }
@@ -0,0 +1,29 @@
+package com.project.back_end.controller;
+
+import com.project.back_end.service.BulkheadFullException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * Answers calls rejected by a full bulkhead with 503 and a Retry-After hint, for every controller.
+ * Handlers that end in a catch-all for Exception rethrow BulkheadFullException ahead of it so
+ * the rejection reaches this handler instead of becoming a 500.
+ */
+@RestControllerAdvice
+public class BulkheadExceptionHandler {
+
+    /**
+     * Map a bulkhead rejection to 503 Service Unavailable.
+     *
+     * @param e the rejection
+     * @return 503 response asking the client to retry after a second
+     */
+    @ExceptionHandler(BulkheadFullException.class)
+    public ResponseEntity<String> handleBulkheadFull(BulkheadFullException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1")
+                .body(e.getMessage());
+    }
+}
@@ -1,15 +1,28 @@
 package com.project.back_end.controller;
 
+import com.project.back_end.config.FieldSelection;
+import com.project.back_end.dto.DoctorAvailabilityDto;
+import com.project.back_end.dto.DoctorCardDto;
 import com.project.back_end.model.Doctor;
+import com.project.back_end.service.DoctorAvailabilityService;
 import com.project.back_end.service.DoctorService;
+import com.project.back_end.service.MergePatchService;
 import com.project.back_end.service.TokenService;
+import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
@@ -19,8 +32,13 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * REST Controller for Doctor operations.
@@ -37,16 +55,22 @@ public class DoctorController {
     @Autowired
     private TokenService tokenService;
 
+    @Autowired
+    private DoctorAvailabilityService doctorAvailabilityService;
+
     /**
-     * Get all doctors.
+     * Get all doctors as public cards.
      *
-     * @return List of all doctors
+     * @param fields comma-separated card attributes to return (optional, default all)
+     * @return List of doctor cards
      */
     @GetMapping
-    public ResponseEntity<List<Doctor>> getAllDoctors() {
+    public ResponseEntity<MappingJacksonValue> getAllDoctors(@RequestParam(required = false) String fields) {
         try {
-            List<Doctor> doctors = doctorService.getAllDoctors();
-            return ResponseEntity.ok(doctors);
+            Set<String> selection = FieldSelection.parse(fields);
+            List<DoctorCardDto> doctors = doctorService.getDoctorCards(
+                    selection == null || selection.contains("availableTimes"));
+            return ResponseEntity.ok(FieldSelection.apply(doctors, selection));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
@@ -100,6 +124,9 @@ public class DoctorController {
 
             Doctor savedDoctor = doctorService.saveDoctor(doctor);
             return ResponseEntity.status(HttpStatus.CREATED).body(savedDoctor);
+        } catch (DataIntegrityViolationException e) {
+            // Taken on another instance since this one last rebuilt its registration filter
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Username or email already exists");
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Error: " + e.getMessage());
@@ -135,8 +162,61 @@ public class DoctorController {
             }
 
             doctor.setId(id);
+            if (doctor.getVersion() == null) {
+                // Clients that do not send a version keep last-writer-wins semantics
+                doctor.setVersion(existingDoctor.get().getVersion());
+            }
             Doctor updatedDoctor = doctorService.saveDoctor(doctor);
             return ResponseEntity.ok(updatedDoctor);
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Doctor was modified by another request");
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Partially update doctor (JSON merge patch).
+     * Only the fields present in the patch are written, in a single UPDATE guarded by the
+     * version from the If-Match header or the patch's "version" field.
+     *
+     * @param id the doctor ID
+     * @param patch the fields to change
+     * @param ifMatch the version the client last read
+     * @param token the JWT token
+     * @return No content, with the new version as ETag
+     */
+    @PatchMapping(value = "/{id}", consumes = {MergePatchService.MEDIA_TYPE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<?> patchDoctor(@PathVariable Long id,
+                                         @RequestBody Map<String, Object> patch,
+                                         @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                         @RequestHeader(value = "Authorization", required = false) String token) {
+        try {
+            // Validate token
+            if (token == null || !token.startsWith("Bearer ")) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Missing or invalid token");
+            }
+
+            String jwtToken = token.substring(7);
+            if (!tokenService.validateToken(jwtToken)) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid token");
+            }
+
+            Long version = MergePatchService.resolveVersion(ifMatch, patch);
+            if (version == null) {
+                return ResponseEntity.status(HttpStatus.PRECONDITION_REQUIRED)
+                        .body("Version required in If-Match header or patch body");
+            }
+
+            long newVersion = doctorService.patchDoctor(id, version, patch);
+            return ResponseEntity.noContent().eTag(String.valueOf(newVersion)).build();
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Doctor not found");
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Doctor was modified by another request");
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Error: " + e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Error: " + e.getMessage());
@@ -170,6 +250,8 @@ public class DoctorController {
 
             doctorService.deleteDoctor(id);
             return ResponseEntity.ok("Doctor deleted successfully");
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Error: " + e.getMessage());
@@ -180,13 +262,15 @@ public class DoctorController {
      * Search doctors by name.
      *
      * @param name the search term
-     * @return List of matching doctors
+     * @param fields comma-separated card attributes to return (optional, default all)
+     * @return List of matching doctor cards
      */
     @GetMapping("/search")
-    public ResponseEntity<List<Doctor>> searchDoctors(@RequestParam String name) {
+    public ResponseEntity<MappingJacksonValue> searchDoctors(@RequestParam String name,
+                                                             @RequestParam(required = false) String fields) {
         try {
-            List<Doctor> doctors = doctorService.searchByName(name);
-            return ResponseEntity.ok(doctors);
+            List<DoctorCardDto> doctors = doctorService.toCards(doctorService.searchByName(name));
+            return ResponseEntity.ok(FieldSelection.apply(doctors, FieldSelection.parse(fields)));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
@@ -196,34 +280,125 @@ public class DoctorController {
      * Get doctors by specialty.
      *
      * @param specialty the specialty
-     * @return List of doctors
+     * @param fields comma-separated card attributes to return (optional, default all)
+     * @return List of doctor cards
      */
     @GetMapping("/specialty/{specialty}")
-    public ResponseEntity<List<Doctor>> getDoctorsBySpecialty(@PathVariable String specialty) {
+    public ResponseEntity<MappingJacksonValue> getDoctorsBySpecialty(@PathVariable String specialty,
+                                                                     @RequestParam(required = false) String fields) {
         try {
-            List<Doctor> doctors = doctorService.findBySpecialty(specialty);
-            return ResponseEntity.ok(doctors);
+            List<DoctorCardDto> doctors = doctorService.toCards(doctorService.findBySpecialty(specialty));
+            return ResponseEntity.ok(FieldSelection.apply(doctors, FieldSelection.parse(fields)));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
     /**
-     * Get doctors by specialty and available time.
+     * Get active doctors available for a whole time slot.
      *
-     * @param specialty the specialty
-     * @param timeSlot the time slot
-     * @return List of doctors
+     * @param specialty the specialty (optional)
+     * @param timeSlot the time slot as HH:mm-HH:mm
+     * @param date the date (optional, default any day of the week)
+     * @param fields comma-separated card attributes to return (optional, default all)
+     * @return List of doctor cards
      */
     @GetMapping("/filter")
-    public ResponseEntity<List<Doctor>> getDoctorsBySpecialtyAndTime(
-            @RequestParam String specialty,
-            @RequestParam String timeSlot) {
+    public ResponseEntity<MappingJacksonValue> getDoctorsBySpecialtyAndTime(
+            @RequestParam(required = false) String specialty,
+            @RequestParam String timeSlot,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(required = false) String fields) {
         try {
-            List<Doctor> doctors = doctorService.findBySpecialtyAndTime(specialty, timeSlot);
-            return ResponseEntity.ok(doctors);
+            String[] bounds = timeSlot.split("-");
+            if (bounds.length != 2) {
+                return ResponseEntity.badRequest().build();
+            }
+            LocalTime start = LocalTime.parse(bounds[0].trim());
+            LocalTime end = LocalTime.parse(bounds[1].trim());
+            List<DoctorCardDto> doctors = doctorService.toCards(doctorService.findAvailable(
+                    specialty == null || specialty.isBlank() ? null : specialty, date, start, end));
+            return ResponseEntity.ok(FieldSelection.apply(doctors, FieldSelection.parse(fields)));
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
+
+    /**
+     * Get a doctor's weekly availability and upcoming date overrides.
+     *
+     * @param id the doctor ID
+     * @return Availability
+     */
+    @GetMapping("/{id}/availability")
+    public ResponseEntity<?> getAvailability(@PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(doctorAvailabilityService.getAvailability(id));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Replace a doctor's weekly availability and upcoming date overrides (admin or the doctor).
+     *
+     * @param id the doctor ID
+     * @param availability the new availability
+     * @param token the JWT token
+     * @return Stored availability
+     */
+    @PutMapping("/{id}/availability")
+    public ResponseEntity<?> updateAvailability(@PathVariable Long id,
+                                                @Valid @RequestBody DoctorAvailabilityDto availability,
+                                                @RequestHeader(value = "Authorization", required = false) String token) {
+        try {
+            // Validate token
+            if (token == null || !token.startsWith("Bearer ")) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Missing or invalid token");
+            }
+
+            String jwtToken = token.substring(7);
+            if (!tokenService.validateToken(jwtToken)) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid token");
+            }
+
+            String role = tokenService.extractRole(jwtToken);
+            boolean ownSchedule = "DOCTOR".equalsIgnoreCase(role) && id.equals(tokenService.extractUserId(jwtToken));
+            if (!"ADMIN".equalsIgnoreCase(role) && !ownSchedule) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Admin or doctor access required");
+            }
+
+            if (doctorService.getDoctorById(id).isEmpty()) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Doctor not found");
+            }
+
+            return ResponseEntity.ok(doctorAvailabilityService.replaceAvailability(id, availability));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Error: " + e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Get a doctor's free slots on a date.
+     *
+     * @param id the doctor ID
+     * @param date the date
+     * @return List of slot start times
+     */
+    @GetMapping("/{id}/availability/slots")
+    public ResponseEntity<?> getOpenSlots(@PathVariable Long id,
+                                          @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        try {
+            return ResponseEntity.ok(doctorAvailabilityService.getOpenSlots(id, date));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error: " + e.getMessage());
+        }
+    }
 }
@@ -1,15 +1,27 @@
 package com.project.back_end.controller;
 
+import com.project.back_end.config.FieldSelection;
+import com.project.back_end.dto.PatientDetailsDto;
+import com.project.back_end.dto.PatientSummaryDto;
 import com.project.back_end.model.Patient;
 import com.project.back_end.service.PatientService;
+import com.project.back_end.service.BulkheadFullException;
+import com.project.back_end.service.MergePatchService;
 import com.project.back_end.service.TokenService;
+import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
@@ -20,7 +32,9 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 /**
  * REST Controller for Patient operations.
@@ -38,15 +52,18 @@ public class PatientController {
     private TokenService tokenService;
 
     /**
-     * Get all patients.
+     * Get all patients as summaries.
      *
-     * @return List of all patients
+     * @param fields comma-separated summary attributes to return (optional, default all)
+     * @return List of patient summaries
      */
     @GetMapping
-    public ResponseEntity<List<Patient>> getAllPatients() {
+    public ResponseEntity<MappingJacksonValue> getAllPatients(@RequestParam(required = false) String fields) {
         try {
-            List<Patient> patients = patientService.getAllPatients();
-            return ResponseEntity.ok(patients);
+            List<PatientSummaryDto> patients = patientService.getPatientSummaries();
+            return ResponseEntity.ok(FieldSelection.apply(patients, FieldSelection.parse(fields)));
+        } catch (BulkheadFullException e) {
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
@@ -72,6 +89,39 @@ public class PatientController {
         }
     }
 
+    /**
+     * Get a patient's address and medical history.
+     * These are not part of the patient or list responses and are loaded only here.
+     *
+     * @param id the patient ID
+     * @param token the JWT token
+     * @return Patient details if found
+     */
+    @GetMapping("/{id}/details")
+    public ResponseEntity<?> getPatientDetails(@PathVariable Long id,
+                                               @RequestHeader(value = "Authorization", required = false) String token) {
+        try {
+            // Validate token
+            if (token == null || !token.startsWith("Bearer ")) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Missing or invalid token");
+            }
+
+            String jwtToken = token.substring(7);
+            if (!tokenService.validateToken(jwtToken)) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid token");
+            }
+
+            Optional<PatientDetailsDto> details = patientService.getPatientDetails(id);
+            if (details.isPresent()) {
+                return ResponseEntity.ok(details.get());
+            }
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Patient not found");
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error: " + e.getMessage());
+        }
+    }
+
     /**
      * Register new patient.
      *
@@ -91,6 +141,9 @@ public class PatientController {
 
             Patient savedPatient = patientService.savePatient(patient);
             return ResponseEntity.status(HttpStatus.CREATED).body(savedPatient);
+        } catch (DataIntegrityViolationException e) {
+            // Taken on another instance since this one last rebuilt its registration filter
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Username or email already exists");
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Error: " + e.getMessage());
@@ -128,6 +181,8 @@ public class PatientController {
 
             Patient savedPatient = patientService.savePatient(patient);
             return ResponseEntity.status(HttpStatus.CREATED).body(savedPatient);
+        } catch (DataIntegrityViolationException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Username or email already exists");
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Error: " + e.getMessage());
@@ -163,8 +218,61 @@ public class PatientController {
             }
 
             patient.setId(id);
+            if (patient.getVersion() == null) {
+                // Clients that do not send a version keep last-writer-wins semantics
+                patient.setVersion(existingPatient.get().getVersion());
+            }
             Patient updatedPatient = patientService.savePatient(patient);
             return ResponseEntity.ok(updatedPatient);
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Patient was modified by another request");
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Partially update patient (JSON merge patch).
+     * Only the fields present in the patch are written, in a single UPDATE guarded by the
+     * version from the If-Match header or the patch's "version" field.
+     *
+     * @param id the patient ID
+     * @param patch the fields to change
+     * @param ifMatch the version the client last read
+     * @param token the JWT token
+     * @return No content, with the new version as ETag
+     */
+    @PatchMapping(value = "/{id}", consumes = {MergePatchService.MEDIA_TYPE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<?> patchPatient(@PathVariable Long id,
+                                          @RequestBody Map<String, Object> patch,
+                                          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                          @RequestHeader(value = "Authorization", required = false) String token) {
+        try {
+            // Validate token
+            if (token == null || !token.startsWith("Bearer ")) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Missing or invalid token");
+            }
+
+            String jwtToken = token.substring(7);
+            if (!tokenService.validateToken(jwtToken)) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid token");
+            }
+
+            Long version = MergePatchService.resolveVersion(ifMatch, patch);
+            if (version == null) {
+                return ResponseEntity.status(HttpStatus.PRECONDITION_REQUIRED)
+                        .body("Version required in If-Match header or patch body");
+            }
+
+            long newVersion = patientService.patchPatient(id, version, patch);
+            return ResponseEntity.noContent().eTag(String.valueOf(newVersion)).build();
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Patient not found");
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Patient was modified by another request");
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Error: " + e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Error: " + e.getMessage());
@@ -198,6 +306,8 @@ public class PatientController {
 
             patientService.deletePatient(id);
             return ResponseEntity.ok("Patient deleted successfully");
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Error: " + e.getMessage());
@@ -208,13 +318,17 @@ public class PatientController {
      * Search patients by name.
      *
      * @param name the search term
-     * @return List of matching patients
+     * @param fields comma-separated summary attributes to return (optional, default all)
+     * @return List of matching patient summaries
      */
     @GetMapping("/search")
-    public ResponseEntity<List<Patient>> searchPatients(@RequestParam String name) {
+    public ResponseEntity<MappingJacksonValue> searchPatients(@RequestParam String name,
+                                                              @RequestParam(required = false) String fields) {
         try {
-            List<Patient> patients = patientService.searchByName(name);
-            return ResponseEntity.ok(patients);
+            List<PatientSummaryDto> patients = patientService.searchByName(name).stream()
+                    .map(PatientSummaryDto::from)
+                    .collect(Collectors.toList());
+            return ResponseEntity.ok(FieldSelection.apply(patients, FieldSelection.parse(fields)));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
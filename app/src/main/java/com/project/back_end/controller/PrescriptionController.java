@@ -1,6 +1,8 @@
 package com.project.back_end.controller;
 
 import com.project.back_end.model.Prescription;
+import com.project.back_end.service.BulkheadFullException;
+import com.project.back_end.service.IdempotencyService;
 import com.project.back_end.service.PrescriptionService;
 import com.project.back_end.service.TokenService;
 import jakarta.validation.Valid;
@@ -37,6 +39,9 @@ public class PrescriptionController {
     @Autowired
     private TokenService tokenService;
 
+    @Autowired
+    private IdempotencyService idempotencyService;
+
     /**
      * Get all prescriptions (admin only).
      *
@@ -59,6 +64,8 @@ public class PrescriptionController {
 
             List<Prescription> prescriptions = prescriptionService.getAllPrescriptions();
             return ResponseEntity.ok(prescriptions);
+        } catch (BulkheadFullException e) {
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Error: " + e.getMessage());
@@ -91,6 +98,8 @@ public class PrescriptionController {
                 return ResponseEntity.ok(prescription.get());
             }
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Prescription not found");
+        } catch (BulkheadFullException e) {
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Error: " + e.getMessage());
@@ -99,14 +108,17 @@ public class PrescriptionController {
 
     /**
      * Create new prescription (doctor only).
+     * Retries carrying the same Idempotency-Key replay the original response.
      *
      * @param prescription the prescription data
      * @param token the JWT token
+     * @param idempotencyKey optional client-generated key identifying this request
      * @return Created prescription
      */
     @PostMapping
     public ResponseEntity<?> createPrescription(@Valid @RequestBody Prescription prescription,
-                                                 @RequestHeader(value = "Authorization", required = false) String token) {
+                                                 @RequestHeader(value = "Authorization", required = false) String token,
+                                                 @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
         try {
             // Validate doctor token
             if (token == null || !token.startsWith("Bearer ")) {
@@ -118,8 +130,13 @@ public class PrescriptionController {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Doctor access required");
             }
 
-            Prescription savedPrescription = prescriptionService.savePrescription(prescription);
-            return ResponseEntity.status(HttpStatus.CREATED).body(savedPrescription);
+            String scope = "prescriptions:" + tokenService.extractUserId(jwtToken);
+            return idempotencyService.execute(scope, idempotencyKey, prescription, () -> {
+                Prescription savedPrescription = prescriptionService.savePrescription(prescription);
+                return ResponseEntity.status(HttpStatus.CREATED).body(savedPrescription);
+            });
+        } catch (BulkheadFullException e) {
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Error: " + e.getMessage());
@@ -157,6 +174,8 @@ public class PrescriptionController {
             prescription.setId(id);
             Prescription updatedPrescription = prescriptionService.savePrescription(prescription);
             return ResponseEntity.ok(updatedPrescription);
+        } catch (BulkheadFullException e) {
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Error: " + e.getMessage());
@@ -190,6 +209,8 @@ public class PrescriptionController {
 
             prescriptionService.deletePrescription(id);
             return ResponseEntity.ok("Prescription deleted successfully");
+        } catch (BulkheadFullException e) {
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Error: " + e.getMessage());
@@ -219,6 +240,8 @@ public class PrescriptionController {
 
             List<Prescription> prescriptions = prescriptionService.getPrescriptionsByPatientId(patientId);
             return ResponseEntity.ok(prescriptions);
+        } catch (BulkheadFullException e) {
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Error: " + e.getMessage());
@@ -248,6 +271,8 @@ public class PrescriptionController {
 
             List<Prescription> prescriptions = prescriptionService.getPrescriptionsByDoctorId(doctorId);
             return ResponseEntity.ok(prescriptions);
+        } catch (BulkheadFullException e) {
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Error: " + e.getMessage());
@@ -265,6 +290,8 @@ public class PrescriptionController {
         try {
             List<Prescription> prescriptions = prescriptionService.getPrescriptionsByAppointmentId(appointmentId);
             return ResponseEntity.ok(prescriptions);
+        } catch (BulkheadFullException e) {
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
@@ -281,6 +308,8 @@ public class PrescriptionController {
         try {
             List<Prescription> prescriptions = prescriptionService.searchByPatientName(patientName);
             return ResponseEntity.ok(prescriptions);
+        } catch (BulkheadFullException e) {
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
@@ -0,0 +1,266 @@
+package com.project.back_end.controller;
+
+import com.project.back_end.dto.WaitlistEntryDto;
+import com.project.back_end.model.Appointment;
+import com.project.back_end.model.WaitlistEntry;
+import com.project.back_end.service.AppointmentService;
+import com.project.back_end.service.BulkheadFullException;
+import com.project.back_end.service.TokenService;
+import com.project.back_end.service.WaitlistService;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * REST Controller for doctors' waitlists.
+ * Patients may only manage their own entries; admins and doctors may manage any entry.
+ */
+@RestController
+@RequestMapping("/api/waitlist")
+@CrossOrigin(origins = "*")
+public class WaitlistController {
+
+    @Autowired
+    private WaitlistService waitlistService;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private TokenService tokenService;
+
+    /**
+     * Join a doctor's waitlist. Only admins and doctors may set a priority.
+     *
+     * @param entryDto the entry data
+     * @param token the JWT token
+     * @return Created entry
+     */
+    @PostMapping
+    public ResponseEntity<?> joinWaitlist(@Valid @RequestBody WaitlistEntryDto entryDto,
+                                          @RequestHeader(value = "Authorization", required = false) String token) {
+        try {
+            // Validate token
+            if (token == null || !token.startsWith("Bearer ")) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Missing or invalid token");
+            }
+
+            String jwtToken = token.substring(7);
+            if (!tokenService.validateToken(jwtToken)) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid token");
+            }
+
+            if ("PATIENT".equalsIgnoreCase(tokenService.extractRole(jwtToken))) {
+                if (!entryDto.getPatientId().equals(tokenService.extractUserId(jwtToken))) {
+                    return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Patients can only join for themselves");
+                }
+                entryDto.setPriority(0);
+            }
+
+            WaitlistEntry entry = waitlistService.join(entryDto);
+            return ResponseEntity.status(HttpStatus.CREATED).body(waitlistService.toDto(entry));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Error: " + e.getMessage());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        } catch (BulkheadFullException e) {
+            throw e;
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Get a patient's waitlist entries.
+     *
+     * @param patientId the patient ID
+     * @param token the JWT token
+     * @return List of entries
+     */
+    @GetMapping("/patient/{patientId}")
+    public ResponseEntity<?> getEntriesByPatient(@PathVariable Long patientId,
+                                                 @RequestHeader(value = "Authorization", required = false) String token) {
+        try {
+            // Validate token
+            if (token == null || !token.startsWith("Bearer ")) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Missing or invalid token");
+            }
+
+            String jwtToken = token.substring(7);
+            if (!tokenService.validateToken(jwtToken)) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid token");
+            }
+
+            if (!mayManage(jwtToken, patientId)) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Access denied");
+            }
+
+            List<WaitlistEntryDto> entries = waitlistService.getEntriesByPatientId(patientId).stream()
+                    .map(waitlistService::toDto)
+                    .collect(Collectors.toList());
+            return ResponseEntity.ok(entries);
+        } catch (BulkheadFullException e) {
+            throw e;
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Leave a waitlist.
+     *
+     * @param id the entry ID
+     * @param token the JWT token
+     * @return Success message
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<?> leaveWaitlist(@PathVariable Long id,
+                                           @RequestHeader(value = "Authorization", required = false) String token) {
+        try {
+            // Validate token
+            if (token == null || !token.startsWith("Bearer ")) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Missing or invalid token");
+            }
+
+            String jwtToken = token.substring(7);
+            if (!tokenService.validateToken(jwtToken)) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid token");
+            }
+
+            Optional<WaitlistEntry> entry = waitlistService.getEntryById(id);
+            if (entry.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Waitlist entry not found");
+            }
+            if (!mayManage(jwtToken, entry.get().getPatientId())) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Access denied");
+            }
+
+            waitlistService.leave(id);
+            return ResponseEntity.ok("Left waitlist successfully");
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Waitlist entry not found");
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Waitlist entry was modified by another request");
+        } catch (BulkheadFullException e) {
+            throw e;
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Accept the slot offered to a waitlist entry.
+     *
+     * @param id the entry ID
+     * @param token the JWT token
+     * @return Booked appointment
+     */
+    @PostMapping("/{id}/accept")
+    public ResponseEntity<?> acceptOffer(@PathVariable Long id,
+                                         @RequestHeader(value = "Authorization", required = false) String token) {
+        try {
+            // Validate token
+            if (token == null || !token.startsWith("Bearer ")) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Missing or invalid token");
+            }
+
+            String jwtToken = token.substring(7);
+            if (!tokenService.validateToken(jwtToken)) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid token");
+            }
+
+            Optional<WaitlistEntry> entry = waitlistService.getEntryById(id);
+            if (entry.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Waitlist entry not found");
+            }
+            if (!mayManage(jwtToken, entry.get().getPatientId())) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Access denied");
+            }
+
+            Appointment appointment = waitlistService.accept(id);
+            return ResponseEntity.status(HttpStatus.CREATED).body(appointmentService.toDto(appointment));
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Waitlist entry not found");
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Waitlist entry was modified by another request");
+        } catch (BulkheadFullException e) {
+            throw e;
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Decline the slot offered to a waitlist entry and keep waiting.
+     *
+     * @param id the entry ID
+     * @param token the JWT token
+     * @return Success message
+     */
+    @PostMapping("/{id}/decline")
+    public ResponseEntity<?> declineOffer(@PathVariable Long id,
+                                          @RequestHeader(value = "Authorization", required = false) String token) {
+        try {
+            // Validate token
+            if (token == null || !token.startsWith("Bearer ")) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Missing or invalid token");
+            }
+
+            String jwtToken = token.substring(7);
+            if (!tokenService.validateToken(jwtToken)) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid token");
+            }
+
+            Optional<WaitlistEntry> entry = waitlistService.getEntryById(id);
+            if (entry.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Waitlist entry not found");
+            }
+            if (!mayManage(jwtToken, entry.get().getPatientId())) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Access denied");
+            }
+
+            waitlistService.decline(id);
+            return ResponseEntity.ok("Offer declined successfully");
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Waitlist entry not found");
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Waitlist entry was modified by another request");
+        } catch (BulkheadFullException e) {
+            throw e;
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error: " + e.getMessage());
+        }
+    }
+
+    private boolean mayManage(String jwtToken, Long patientId) {
+        return !"PATIENT".equalsIgnoreCase(tokenService.extractRole(jwtToken))
+                || patientId.equals(tokenService.extractUserId(jwtToken));
+    }
+}
@@ -0,0 +1,18 @@
+package com.project.back_end.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO carrying an appointment's large text attributes, loaded on demand.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AppointmentDetailsDto {
+
+    private Long id;
+    private String reason;
+    private String notes;
+}
@@ -1,5 +1,7 @@
 package com.project.back_end.dto;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.project.back_end.config.FieldSelection;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -13,6 +15,7 @@ import java.time.LocalDateTime;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+@JsonFilter(FieldSelection.FILTER)
 public class AppointmentDto {
 
     private Long id;
@@ -34,6 +37,13 @@ public class AppointmentDto {
 
     private String notes;
 
+    // When the doctor checked the patient in, null if not (yet) checked in
+    private LocalDateTime checkedInAt;
+
+    // Set for occurrences of an appointment series; id is null for occurrences not materialized yet
+    private Long seriesId;
+    private Integer occurrenceIndex;
+
     // For response with additional information
     private String doctorName;
     private String patientName;
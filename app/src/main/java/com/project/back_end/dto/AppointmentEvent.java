@@ -0,0 +1,34 @@
+package com.project.back_end.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO describing a change to an appointment.
+ * Published as an application event after the change commits and streamed to
+ * subscribed doctor dashboards. The reason is left out: it is sensitive, and subscribers
+ * load it through the appointment details endpoint when needed.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AppointmentEvent {
+
+    public static final String BOOKED = "BOOKED";
+    public static final String UPDATED = "UPDATED";
+    public static final String STATUS_CHANGED = "STATUS_CHANGED";
+    public static final String CANCELLED = "CANCELLED";
+    public static final String DELETED = "DELETED";
+
+    private String type;
+    private Long appointmentId;
+    private Long doctorId;
+    private Long patientId;
+    private String patientName;
+    private LocalDateTime appointmentDateTime;
+    private Integer durationMinutes;
+    private String status;
+}
@@ -0,0 +1,23 @@
+package com.project.back_end.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * DTO for one page of appointment history, newest first, spanning current and archived appointments.
+ * Pass {@code nextBefore} and {@code nextBeforeId} as the {@code before} and {@code beforeId} parameters to fetch
+ * the next page; both are null on the last page. The ID breaks ties between appointments at the same time.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AppointmentHistoryPage {
+
+    private List<AppointmentDto> items;
+    private LocalDateTime nextBefore;
+    private Long nextBeforeId;
+}
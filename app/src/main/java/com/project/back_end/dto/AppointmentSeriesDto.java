@@ -0,0 +1,54 @@
+package com.project.back_end.dto;
+
+import jakarta.validation.constraints.Future;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO for creating and returning appointment series.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AppointmentSeriesDto {
+
+    private Long id;
+
+    @NotNull(message = "Doctor ID is required")
+    private Long doctorId;
+
+    @NotNull(message = "Patient ID is required")
+    private Long patientId;
+
+    @NotNull(message = "First appointment date and time is required")
+    @Future(message = "First appointment must be in the future")
+    private LocalDateTime firstStart;
+
+    private Integer durationMinutes = 30;
+
+    @Min(value = 1, message = "Interval must be at least 1 week")
+    @Max(value = 52, message = "Interval must be at most 52 weeks")
+    private Integer intervalWeeks = 1;
+
+    @NotNull(message = "Number of occurrences is required")
+    @Min(value = 1, message = "A series needs at least 1 occurrence")
+    @Max(value = 104, message = "A series can have at most 104 occurrences")
+    private Integer occurrenceCount;
+
+    private String reason;
+
+    private String status;
+
+    // Occurrences with a lower index exist as appointments
+    private Integer materializedCount;
+
+    // For response with additional information
+    private String doctorName;
+    private String patientName;
+}
@@ -0,0 +1,23 @@
+package com.project.back_end.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO projection of the appointment columns needed to change appointments in bulk and check conflicts.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AppointmentSlot {
+
+    private Long id;
+    private Long doctorId;
+    private Long patientId;
+    private LocalDateTime appointmentDateTime;
+    private Integer durationMinutes;
+    private String status;
+}
@@ -0,0 +1,35 @@
+package com.project.back_end.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * DTO for a bulk appointment operation.
+ * Targets either the given appointment IDs or a doctor's appointments in [from, to).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkAppointmentRequest {
+
+    public static final String CANCEL = "CANCEL";
+    public static final String COMPLETE = "COMPLETE";
+    public static final String RESCHEDULE = "RESCHEDULE";
+
+    @NotBlank(message = "Action is required")
+    private String action;
+
+    private List<Long> ids;
+
+    private Long doctorId;
+    private LocalDateTime from;
+    private LocalDateTime to;
+
+    // Time shift for RESCHEDULE, may be negative
+    private Integer shiftMinutes;
+}
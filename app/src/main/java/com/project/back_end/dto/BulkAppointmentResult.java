@@ -0,0 +1,39 @@
+package com.project.back_end.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO for the outcome of a bulk appointment operation, with one item per targeted appointment.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkAppointmentResult {
+
+    public static final String UPDATED = "UPDATED";
+    public static final String NOT_FOUND = "NOT_FOUND";
+    public static final String SKIPPED = "SKIPPED";
+    public static final String CONFLICT = "CONFLICT";
+    public static final String FORBIDDEN = "FORBIDDEN";
+
+    private String action;
+    private int updated;
+    private List<Item> items = new ArrayList<>();
+
+    /**
+     * Outcome for a single appointment.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item {
+        private Long appointmentId;
+        private String outcome;
+        private String message;
+    }
+}
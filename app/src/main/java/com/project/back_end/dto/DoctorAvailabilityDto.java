@@ -0,0 +1,66 @@
+package com.project.back_end.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO for a doctor's availability: weekly rules and upcoming date-specific overrides.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DoctorAvailabilityDto {
+
+    @Valid
+    private List<Rule> weekly = new ArrayList<>();
+
+    @Valid
+    private List<DateOverride> overrides = new ArrayList<>();
+
+    /**
+     * Bookable window on one day of the week.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Rule {
+
+        @NotNull(message = "Day of week is required")
+        private DayOfWeek dayOfWeek;
+
+        @NotNull(message = "Start time is required")
+        private LocalTime startTime;
+
+        @NotNull(message = "End time is required")
+        private LocalTime endTime;
+
+        private Integer slotMinutes = 30;
+    }
+
+    /**
+     * Bookable window on one date, or a day off when the times are left out.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class DateOverride {
+
+        @NotNull(message = "Date is required")
+        private LocalDate date;
+
+        private LocalTime startTime;
+
+        private LocalTime endTime;
+
+        private Integer slotMinutes = 30;
+    }
+}
@@ -0,0 +1,53 @@
+package com.project.back_end.dto;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.project.back_end.config.FieldSelection;
+import com.project.back_end.model.Doctor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Public read model of a doctor, holding only what doctor cards display.
+ * Credentials and qualifications are never included.
+ */
+@Data
+@NoArgsConstructor
+@JsonFilter(FieldSelection.FILTER)
+public class DoctorCardDto {
+
+    private Long id;
+    private String name;
+    private String specialty;
+    private String email;
+    private String phone;
+    private Integer experienceYears;
+    private Double consultationFee;
+    // Weekly availability for display, e.g. "Mon 09:00-12:00"
+    private List<String> availableTimes = new ArrayList<>();
+
+    public DoctorCardDto(Long id, String name, String specialty, String email, String phone,
+                         Integer experienceYears, Double consultationFee) {
+        this.id = id;
+        this.name = name;
+        this.specialty = specialty;
+        this.email = email;
+        this.phone = phone;
+        this.experienceYears = experienceYears;
+        this.consultationFee = consultationFee;
+    }
+
+    /**
+     * Create a card from a loaded doctor, without available times.
+     *
+     * @param doctor the doctor
+     * @return DoctorCardDto
+     */
+    public static DoctorCardDto from(Doctor doctor) {
+        DoctorCardDto card = new DoctorCardDto(doctor.getId(), doctor.getName(), doctor.getSpecialty(),
+                doctor.getEmail(), doctor.getPhone(), doctor.getExperienceYears(), doctor.getConsultationFee());
+        return card;
+    }
+}
@@ -0,0 +1,25 @@
+package com.project.back_end.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO for a notification handed to a NotificationSink (e.g. an appointment reminder or a waitlist offer).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Notification {
+
+    private String type; // REMINDER_24H, REMINDER_1H, WAITLIST_OFFER
+    private Long appointmentId;
+    private Long patientId;
+    private String patientName;
+    private String patientEmail;
+    private String doctorName;
+    private LocalDateTime appointmentDateTime;
+    private String message;
+}
@@ -0,0 +1,18 @@
+package com.project.back_end.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO carrying a patient's large text attributes, loaded on demand.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PatientDetailsDto {
+
+    private Long id;
+    private String address;
+    private String medicalHistory;
+}
@@ -0,0 +1,41 @@
+package com.project.back_end.dto;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.project.back_end.config.FieldSelection;
+import com.project.back_end.model.Patient;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Read model of a patient for list views.
+ * Credentials and large text attributes (address, medical history) are never included.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonFilter(FieldSelection.FILTER)
+public class PatientSummaryDto {
+
+    private Long id;
+    private String name;
+    private String email;
+    private String phone;
+    private LocalDate dateOfBirth;
+    private String gender;
+    private String bloodGroup;
+    private Boolean isActive;
+
+    /**
+     * Create a summary from a loaded patient.
+     *
+     * @param patient the patient
+     * @return PatientSummaryDto
+     */
+    public static PatientSummaryDto from(Patient patient) {
+        return new PatientSummaryDto(patient.getId(), patient.getName(), patient.getEmail(), patient.getPhone(),
+                patient.getDateOfBirth(), patient.getGender(), patient.getBloodGroup(), patient.getIsActive());
+    }
+}
@@ -0,0 +1,24 @@
+package com.project.back_end.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO projection of the appointment columns needed to send a reminder.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReminderTarget {
+
+    private Long appointmentId;
+    private LocalDateTime appointmentDateTime;
+    private String status;
+    private Long patientId;
+    private String patientName;
+    private String patientEmail;
+    private String doctorName;
+}
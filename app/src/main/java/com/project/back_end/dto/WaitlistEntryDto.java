@@ -0,0 +1,46 @@
+package com.project.back_end.dto;
+
+import jakarta.validation.constraints.Future;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO for joining a doctor's waitlist and returning waitlist entries.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WaitlistEntryDto {
+
+    private Long id;
+
+    @NotNull(message = "Doctor ID is required")
+    private Long doctorId;
+
+    @NotNull(message = "Patient ID is required")
+    private Long patientId;
+
+    // Window in which an offered slot must start
+    @NotNull(message = "Earliest acceptable start is required")
+    private LocalDateTime earliest;
+
+    @NotNull(message = "Latest acceptable start is required")
+    @Future(message = "Latest acceptable start must be in the future")
+    private LocalDateTime latest;
+
+    private Integer priority = 0;
+
+    private String status;
+
+    // Current offer, while the entry is OFFERED
+    private LocalDateTime offerDateTime;
+    private Integer offerDurationMinutes;
+    private LocalDateTime offerExpiresAt;
+
+    // Appointment booked from the accepted offer
+    private Long appointmentId;
+}
@@ -1,29 +1,45 @@
 package com.project.back_end.model;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.persistence.Basic;
 import jakarta.persistence.Column;
+import jakarta.persistence.ConstraintMode;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
+import jakarta.persistence.ForeignKey;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.Future;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDateTime;
 
 /**
  * Appointment entity representing scheduled appointments between doctors and patients.
  * Links a patient with a doctor for a specific date and time.
+ * The table may be range-partitioned by month on appointment_date_time (see
+ * sql/appointment-partitioning.sql); MySQL does not allow foreign keys on partitioned
+ * tables, so doctor and patient references are enforced by the services instead.
  */
 @Entity
-@Table(name = "appointment")
+@Table(name = "appointment", indexes = {
+        @Index(name = "idx_appointment_status_date_time", columnList = "status, appointment_date_time"),
+        @Index(name = "idx_appointment_doctor_date_time", columnList = "doctor_id, appointment_date_time"),
+        @Index(name = "idx_appointment_patient_date_time", columnList = "patient_id, appointment_date_time"),
+        @Index(name = "idx_appointment_series", columnList = "series_id, occurrence_index")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -36,13 +52,13 @@ public class Appointment {
 
     @NotNull(message = "Doctor is required")
     @ManyToOne(fetch = FetchType.EAGER)
-    @JoinColumn(name = "doctor_id", nullable = false)
+    @JoinColumn(name = "doctor_id", nullable = false, foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     @JsonProperty("doctor")
     private Doctor doctor;
 
     @NotNull(message = "Patient is required")
     @ManyToOne(fetch = FetchType.EAGER)
-    @JoinColumn(name = "patient_id", nullable = false)
+    @JoinColumn(name = "patient_id", nullable = false, foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     @JsonProperty("patient")
     private Patient patient;
 
@@ -57,20 +73,51 @@ public class Appointment {
 
     @Column(length = 20)
     @JsonProperty("status")
-    private String status = "SCHEDULED"; // SCHEDULED, COMPLETED, CANCELLED
+    private String status = "SCHEDULED"; // SCHEDULED, COMPLETED, CANCELLED, NO_SHOW
 
+    // Large attributes are loaded on first access and returned by the details endpoint only
+    @Basic(fetch = FetchType.LAZY)
     @Column(columnDefinition = "TEXT")
-    @JsonProperty("reason")
+    @JsonProperty(value = "reason", access = JsonProperty.Access.WRITE_ONLY)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private String reason;
 
+    @Basic(fetch = FetchType.LAZY)
     @Column(columnDefinition = "TEXT")
-    @JsonProperty("notes")
+    @JsonProperty(value = "notes", access = JsonProperty.Access.WRITE_ONLY)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private String notes;
 
+    // Set by the check-in UPDATE only, so full updates cannot clear it; overdue appointments without it become NO_SHOW
+    @Column(name = "checked_in_at", updatable = false)
+    @JsonProperty(value = "checkedInAt", access = JsonProperty.Access.READ_ONLY)
+    private LocalDateTime checkedInAt;
+
     @Column(name = "created_at")
     @JsonProperty("createdAt")
     private LocalDateTime createdAt = LocalDateTime.now();
 
+    @Column(name = "clinic_id")
+    @JsonProperty("clinicId")
+    private Long clinicId;
+
+    // Set on occurrences materialized from an appointment series
+    @Column(name = "series_id")
+    @JsonProperty("seriesId")
+    private Long seriesId;
+
+    @Column(name = "occurrence_index")
+    @JsonProperty("occurrenceIndex")
+    private Integer occurrenceIndex;
+
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    @JsonProperty("version")
+    private Long version;
+
     /**
      * Helper method to calculate the end time of the appointment.
      *
@@ -0,0 +1,111 @@
+package com.project.back_end.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.time.LocalDateTime;
+
+/**
+ * Appointment series entity storing a recurrence rule once instead of one row per occurrence.
+ * Occurrence i starts at firstStart plus i * intervalWeeks weeks. Occurrences before
+ * materializedCount exist as appointment rows; later ones are expanded on demand, with
+ * cancellations and moves kept sparsely in appointment_series_override.
+ */
+@Entity
+@Table(name = "appointment_series", indexes = {
+        @Index(name = "idx_series_status_next", columnList = "status, next_occurrence_at"),
+        @Index(name = "idx_series_doctor", columnList = "doctor_id"),
+        @Index(name = "idx_series_patient", columnList = "patient_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AppointmentSeries {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @JsonProperty("id")
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.EAGER)
+    @JoinColumn(name = "doctor_id", nullable = false)
+    @JsonProperty("doctor")
+    private Doctor doctor;
+
+    @ManyToOne(fetch = FetchType.EAGER)
+    @JoinColumn(name = "patient_id", nullable = false)
+    @JsonProperty("patient")
+    private Patient patient;
+
+    @Column(name = "first_start", nullable = false)
+    @JsonProperty("firstStart")
+    private LocalDateTime firstStart;
+
+    @Column(name = "duration_minutes")
+    @JsonProperty("durationMinutes")
+    private Integer durationMinutes = 30;
+
+    @Column(name = "interval_weeks", nullable = false)
+    @JsonProperty("intervalWeeks")
+    private Integer intervalWeeks = 1;
+
+    @Column(name = "occurrence_count", nullable = false)
+    @JsonProperty("occurrenceCount")
+    private Integer occurrenceCount;
+
+    @Column(columnDefinition = "TEXT")
+    @JsonProperty("reason")
+    private String reason;
+
+    @Column(length = 20)
+    @JsonProperty("status")
+    private String status = "ACTIVE"; // ACTIVE, CANCELLED
+
+    // Occurrences with a lower index have been written to the appointment table
+    @Column(name = "materialized_count", nullable = false)
+    @JsonProperty("materializedCount")
+    private Integer materializedCount = 0;
+
+    // Start of occurrence materializedCount, or null once every occurrence is materialized
+    @Column(name = "next_occurrence_at")
+    @JsonProperty("nextOccurrenceAt")
+    private LocalDateTime nextOccurrenceAt;
+
+    @Column(name = "clinic_id")
+    @JsonProperty("clinicId")
+    private Long clinicId;
+
+    @Column(name = "created_at")
+    @JsonProperty("createdAt")
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    @JsonProperty("version")
+    private Long version;
+
+    /**
+     * Helper method to calculate the rule start time of an occurrence.
+     *
+     * @param index the occurrence index, from 0
+     * @return LocalDateTime of the occurrence before any override
+     */
+    public LocalDateTime getOccurrenceStart(int index) {
+        return firstStart.plusWeeks((long) index * intervalWeeks);
+    }
+}
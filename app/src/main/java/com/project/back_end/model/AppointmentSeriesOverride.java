@@ -0,0 +1,50 @@
+package com.project.back_end.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Exception to an appointment series rule for a single occurrence that is not materialized yet.
+ * A null newDateTime cancels the occurrence; otherwise the occurrence moves to newDateTime.
+ */
+@Entity
+@Table(name = "appointment_series_override",
+        uniqueConstraints = @UniqueConstraint(name = "uk_series_override_occurrence",
+                columnNames = {"series_id", "occurrence_index"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AppointmentSeriesOverride {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "series_id", nullable = false)
+    private Long seriesId;
+
+    @Column(name = "occurrence_index", nullable = false)
+    private Integer occurrenceIndex;
+
+    @Column(name = "new_date_time")
+    private LocalDateTime newDateTime;
+
+    /**
+     * Helper method to check whether the occurrence is cancelled.
+     *
+     * @return true if the occurrence is cancelled
+     */
+    public boolean isCancelled() {
+        return newDateTime == null;
+    }
+}
@@ -1,16 +1,14 @@
 package com.project.back_end.model;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
-import jakarta.persistence.CollectionTable;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
-import jakarta.persistence.ElementCollection;
 import jakarta.persistence.Entity;
-import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
-import jakarta.persistence.JoinColumn;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Pattern;
@@ -18,16 +16,21 @@ import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 
-import java.util.ArrayList;
-import java.util.List;
 
 /**
  * Doctor entity representing medical practitioners in the clinic.
- * Doctors have schedules, specialties, and can be booked for appointments.
+ * Doctors have specialties and can be booked for appointments; their schedules are
+ * kept in doctor_availability (see DoctorAvailabilityService).
+ * Doctors are held in the Hibernate second-level cache (region "doctor", see ehcache.xml).
  */
 @Entity
 @Table(name = "doctor")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "doctor")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -79,12 +82,6 @@ public class Doctor {
     @JsonProperty("password")
     private String password;
 
-    @ElementCollection(fetch = FetchType.EAGER)
-    @CollectionTable(name = "doctor_available_times", joinColumns = @JoinColumn(name = "doctor_id"))
-    @Column(name = "time_slot")
-    @JsonProperty("availableTimes")
-    private List<String> availableTimes = new ArrayList<>();
-
     @Column(name = "consultation_fee")
     @JsonProperty("consultationFee")
     private Double consultationFee;
@@ -92,4 +89,14 @@ public class Doctor {
     @Column(name = "is_active")
     @JsonProperty("isActive")
     private Boolean isActive = true;
+
+    @Column(name = "clinic_id")
+    @JsonProperty("clinicId")
+    private Long clinicId;
+
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    @JsonProperty("version")
+    private Long version;
 }
@@ -0,0 +1,49 @@
+package com.project.back_end.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalTime;
+
+/**
+ * Weekly availability rule of a doctor: bookable from startTime to endTime on one day of
+ * the week, in slots of slotMinutes. A doctor may have several rules per day.
+ */
+@Entity
+@Table(name = "doctor_availability", indexes = {
+        @Index(name = "idx_availability_doctor", columnList = "doctor_id"),
+        @Index(name = "idx_availability_day_time", columnList = "day_of_week, start_time, end_time")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DoctorAvailability {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "doctor_id", nullable = false)
+    private Long doctorId;
+
+    // ISO day of week, 1 (Monday) to 7 (Sunday)
+    @Column(name = "day_of_week", nullable = false)
+    private Integer dayOfWeek;
+
+    @Column(name = "start_time", nullable = false)
+    private LocalTime startTime;
+
+    @Column(name = "end_time", nullable = false)
+    private LocalTime endTime;
+
+    @Column(name = "slot_minutes", nullable = false)
+    private Integer slotMinutes = 30;
+}
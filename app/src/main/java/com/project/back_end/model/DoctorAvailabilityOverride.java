@@ -0,0 +1,57 @@
+package com.project.back_end.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Date-specific availability of a doctor. The overrides of a date replace the weekly rules
+ * for that date; an override without times marks the whole date as unavailable.
+ */
+@Entity
+@Table(name = "doctor_availability_override", indexes = {
+        @Index(name = "idx_availability_override_doctor_date", columnList = "doctor_id, override_date")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DoctorAvailabilityOverride {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "doctor_id", nullable = false)
+    private Long doctorId;
+
+    @Column(name = "override_date", nullable = false)
+    private LocalDate date;
+
+    @Column(name = "start_time")
+    private LocalTime startTime;
+
+    @Column(name = "end_time")
+    private LocalTime endTime;
+
+    @Column(name = "slot_minutes")
+    private Integer slotMinutes = 30;
+
+    /**
+     * Helper method to check whether this override marks the date as unavailable.
+     *
+     * @return true if the doctor is unavailable all day
+     */
+    public boolean isDayOff() {
+        return startTime == null || endTime == null;
+    }
+}
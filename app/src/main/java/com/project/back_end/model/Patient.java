@@ -1,12 +1,15 @@
 package com.project.back_end.model;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.persistence.Basic;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Past;
@@ -14,7 +17,10 @@ import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDate;
 
@@ -60,16 +66,23 @@ public class Patient {
     @JsonProperty("gender")
     private String gender;
 
+    // Large attributes are loaded on first access and returned by the details endpoint only
+    @Basic(fetch = FetchType.LAZY)
     @Column(columnDefinition = "TEXT")
-    @JsonProperty("address")
+    @JsonProperty(value = "address", access = JsonProperty.Access.WRITE_ONLY)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private String address;
 
     @Column(name = "blood_group", length = 5)
     @JsonProperty("bloodGroup")
     private String bloodGroup;
 
+    @Basic(fetch = FetchType.LAZY)
     @Column(columnDefinition = "TEXT")
-    @JsonProperty("medicalHistory")
+    @JsonProperty(value = "medicalHistory", access = JsonProperty.Access.WRITE_ONLY)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private String medicalHistory;
 
     @NotBlank(message = "Username is required")
@@ -91,4 +104,14 @@ public class Patient {
     @Column(name = "is_active")
     @JsonProperty("isActive")
     private Boolean isActive = true;
+
+    @Column(name = "clinic_id")
+    @JsonProperty("clinicId")
+    private Long clinicId;
+
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    @JsonProperty("version")
+    private Long version;
 }
@@ -53,6 +53,10 @@ public class Prescription {
     @JsonProperty("doctorName")
     private String doctorName;
 
+    @Field("clinic_id")
+    @JsonProperty("clinicId")
+    private Long clinicId;
+
     @Field("prescription_date")
     @JsonProperty("prescriptionDate")
     private LocalDateTime prescriptionDate = LocalDateTime.now();
@@ -0,0 +1,78 @@
+package com.project.back_end.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.time.LocalDateTime;
+
+/**
+ * Waitlist entry of a patient waiting for a freed slot with a doctor.
+ * A WAITING entry may be offered a cancelled slot starting between earliest and latest;
+ * while OFFERED the slot is held for the patient until offerExpiresAt.
+ */
+@Entity
+@Table(name = "waitlist_entry", indexes = {
+        @Index(name = "idx_waitlist_status_doctor", columnList = "status, doctor_id"),
+        @Index(name = "idx_waitlist_patient", columnList = "patient_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WaitlistEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "doctor_id", nullable = false)
+    private Long doctorId;
+
+    @Column(name = "patient_id", nullable = false)
+    private Long patientId;
+
+    @Column(nullable = false)
+    private LocalDateTime earliest;
+
+    @Column(nullable = false)
+    private LocalDateTime latest;
+
+    // Higher priority is offered first; equal priorities in order of joining
+    @Column(nullable = false)
+    private Integer priority = 0;
+
+    @Column(length = 20, nullable = false)
+    private String status = "WAITING"; // WAITING, OFFERED, BOOKED, CANCELLED, EXPIRED
+
+    @Column(name = "offer_date_time")
+    private LocalDateTime offerDateTime;
+
+    @Column(name = "offer_duration_minutes")
+    private Integer offerDurationMinutes;
+
+    @Column(name = "offer_expires_at")
+    private LocalDateTime offerExpiresAt;
+
+    @Column(name = "appointment_id")
+    private Long appointmentId;
+
+    @Column(name = "clinic_id")
+    private Long clinicId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+}
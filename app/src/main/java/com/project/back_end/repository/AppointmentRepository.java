@@ -1,15 +1,27 @@
 package com.project.back_end.repository;
 
+import com.project.back_end.dto.AppointmentDetailsDto;
+import com.project.back_end.dto.AppointmentSlot;
+import com.project.back_end.dto.ReminderTarget;
 import com.project.back_end.model.Appointment;
 import com.project.back_end.model.Doctor;
 import com.project.back_end.model.Patient;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository interface for Appointment entity.
@@ -92,4 +104,271 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
     List<Appointment> findByPatientAndDateRange(@Param("patientId") Long patientId,
                                                  @Param("start") LocalDateTime start,
                                                  @Param("end") LocalDateTime end);
+
+    /**
+     * Find an appointment's large text attributes, which entity queries load lazily.
+     *
+     * @param id the appointment ID
+     * @return Optional containing the details if found
+     */
+    @Query("SELECT new com.project.back_end.dto.AppointmentDetailsDto(a.id, a.reason, a.notes) "
+            + "FROM Appointment a WHERE a.id = :id")
+    Optional<AppointmentDetailsDto> findDetailsById(@Param("id") Long id);
+
+    /**
+     * Find a patient's appointments before a (time, ID) keyset position, newest first.
+     * The upper bound on appointment_date_time lets MySQL prune later partitions.
+     *
+     * @param patientId the patient ID
+     * @param before upper bound on appointment time
+     * @param beforeId exclusive upper bound on ID among appointments at exactly {@code before}
+     * @param pageable the page size
+     * @return List of appointments
+     */
+    @Query("SELECT a FROM Appointment a JOIN FETCH a.doctor JOIN FETCH a.patient "
+            + "WHERE a.patient.id = :patientId AND (a.appointmentDateTime < :before "
+            + "OR (a.appointmentDateTime = :before AND a.id < :beforeId)) "
+            + "ORDER BY a.appointmentDateTime DESC, a.id DESC")
+    List<Appointment> findPatientHistory(@Param("patientId") Long patientId,
+                                         @Param("before") LocalDateTime before,
+                                         @Param("beforeId") Long beforeId,
+                                         Pageable pageable);
+
+    /**
+     * Find a doctor's appointments before a (time, ID) keyset position, newest first.
+     * The upper bound on appointment_date_time lets MySQL prune later partitions.
+     *
+     * @param doctorId the doctor ID
+     * @param before upper bound on appointment time
+     * @param beforeId exclusive upper bound on ID among appointments at exactly {@code before}
+     * @param pageable the page size
+     * @return List of appointments
+     */
+    @Query("SELECT a FROM Appointment a JOIN FETCH a.doctor JOIN FETCH a.patient "
+            + "WHERE a.doctor.id = :doctorId AND (a.appointmentDateTime < :before "
+            + "OR (a.appointmentDateTime = :before AND a.id < :beforeId)) "
+            + "ORDER BY a.appointmentDateTime DESC, a.id DESC")
+    List<Appointment> findDoctorHistory(@Param("doctorId") Long doctorId,
+                                        @Param("before") LocalDateTime before,
+                                        @Param("beforeId") Long beforeId,
+                                        Pageable pageable);
+
+    /**
+     * Check if a doctor has any appointments.
+     *
+     * @param doctorId the doctor ID
+     * @return true if exists
+     */
+    boolean existsByDoctorId(Long doctorId);
+
+    /**
+     * Check if a patient has any appointments.
+     *
+     * @param patientId the patient ID
+     * @return true if exists
+     */
+    boolean existsByPatientId(Long patientId);
+
+    /**
+     * Find the materialized occurrence of an appointment series.
+     *
+     * @param seriesId the series ID
+     * @param occurrenceIndex the occurrence index
+     * @return Optional containing the appointment if materialized
+     */
+    Optional<Appointment> findBySeriesIdAndOccurrenceIndex(Long seriesId, Integer occurrenceIndex);
+
+    /**
+     * Find and lock the SCHEDULED occurrences of an appointment series starting at or after the given time.
+     *
+     * @param seriesId the series ID
+     * @param from the earliest start
+     * @return List of appointment slots
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT new com.project.back_end.dto.AppointmentSlot(a.id, a.doctor.id, a.patient.id, a.appointmentDateTime, "
+            + "a.durationMinutes, a.status) FROM Appointment a WHERE a.seriesId = :seriesId AND a.status = 'SCHEDULED' "
+            + "AND a.appointmentDateTime >= :from")
+    List<AppointmentSlot> findScheduledSlotsInSeriesForUpdate(@Param("seriesId") Long seriesId,
+                                                              @Param("from") LocalDateTime from);
+
+    /**
+     * Find IDs of closed appointments older than a cutoff, oldest first.
+     *
+     * @param cutoff exclusive upper bound on appointment time
+     * @param pageable the chunk size
+     * @return List of appointment IDs
+     */
+    @Query("SELECT a.id FROM Appointment a WHERE a.appointmentDateTime < :cutoff AND a.status <> 'SCHEDULED' "
+            + "ORDER BY a.appointmentDateTime, a.id")
+    List<Long> findArchivableIds(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    /**
+     * Copy appointments into the archive table.
+     * Declares the table it writes so Hibernate does not clear the whole second-level cache.
+     *
+     * @param ids the appointment IDs
+     * @param archivedAt the archive timestamp
+     * @return number of rows copied
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "appointment_archive"))
+    @Query(value = "INSERT INTO appointment_archive (id, doctor_id, patient_id, appointment_date_time, duration_minutes, "
+            + "status, reason, notes, clinic_id, created_at, archived_at) "
+            + "SELECT id, doctor_id, patient_id, appointment_date_time, duration_minutes, status, reason, notes, "
+            + "clinic_id, created_at, :archivedAt FROM appointment WHERE id IN (:ids)", nativeQuery = true)
+    int copyToArchive(@Param("ids") Collection<Long> ids, @Param("archivedAt") LocalDateTime archivedAt);
+
+    /**
+     * Delete archived appointments from the hot table.
+     *
+     * @param ids the appointment IDs
+     * @param cutoff the archive cutoff, repeated so MySQL only touches old partitions
+     * @return number of rows deleted
+     */
+    @Modifying
+    @Query("DELETE FROM Appointment a WHERE a.id IN :ids AND a.appointmentDateTime < :cutoff")
+    int deleteArchived(@Param("ids") Collection<Long> ids, @Param("cutoff") LocalDateTime cutoff);
+
+    /**
+     * Find reminder data for SCHEDULED appointments starting in a time window.
+     * Selects only the columns a reminder needs.
+     *
+     * @param start the window start (inclusive)
+     * @param end the window end (exclusive)
+     * @return List of reminder targets
+     */
+    @Query("SELECT new com.project.back_end.dto.ReminderTarget(a.id, a.appointmentDateTime, a.status, p.id, p.name, p.email, d.name) "
+            + "FROM Appointment a JOIN a.patient p JOIN a.doctor d "
+            + "WHERE a.status = 'SCHEDULED' AND a.appointmentDateTime >= :start AND a.appointmentDateTime < :end")
+    List<ReminderTarget> findReminderTargets(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    /**
+     * Find current reminder data for a batch of appointments.
+     *
+     * @param ids the appointment IDs
+     * @return List of reminder targets
+     */
+    @Query("SELECT new com.project.back_end.dto.ReminderTarget(a.id, a.appointmentDateTime, a.status, p.id, p.name, p.email, d.name) "
+            + "FROM Appointment a JOIN a.patient p JOIN a.doctor d WHERE a.id IN :ids")
+    List<ReminderTarget> findReminderTargetsByIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Find and lock the SCHEDULED appointments whose end time (start plus duration) has passed, oldest first.
+     * Page with a limit so each call touches a bounded chunk of rows.
+     *
+     * @param now the current time
+     * @param pageable the chunk size
+     * @return List of appointment slots
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT new com.project.back_end.dto.AppointmentSlot(a.id, a.doctor.id, a.patient.id, a.appointmentDateTime, "
+            + "a.durationMinutes, a.status) FROM Appointment a WHERE a.status = 'SCHEDULED' AND a.appointmentDateTime < :now "
+            + "AND a.appointmentDateTime + (COALESCE(a.durationMinutes, 30)) minute <= :now ORDER BY a.appointmentDateTime")
+    List<AppointmentSlot> findOverdueScheduledForUpdate(@Param("now") LocalDateTime now, Pageable pageable);
+
+    /**
+     * Find and lock the given appointments for a bulk change.
+     * Selects only the appointment row (no doctor or patient join), so only appointment rows are locked.
+     *
+     * @param ids the appointment IDs
+     * @return List of appointment slots
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT new com.project.back_end.dto.AppointmentSlot(a.id, a.doctor.id, a.patient.id, a.appointmentDateTime, "
+            + "a.durationMinutes, a.status) FROM Appointment a WHERE a.id IN :ids")
+    List<AppointmentSlot> findSlotsByIdsForUpdate(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Find and lock a doctor's appointments starting in [from, to) for a bulk change.
+     *
+     * @param doctorId the doctor ID
+     * @param from the window start (inclusive)
+     * @param to the window end (exclusive)
+     * @return List of appointment slots, in time order
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT new com.project.back_end.dto.AppointmentSlot(a.id, a.doctor.id, a.patient.id, a.appointmentDateTime, "
+            + "a.durationMinutes, a.status) FROM Appointment a WHERE a.doctor.id = :doctorId "
+            + "AND a.appointmentDateTime >= :from AND a.appointmentDateTime < :to ORDER BY a.appointmentDateTime")
+    List<AppointmentSlot> findDoctorSlotsForUpdate(@Param("doctorId") Long doctorId,
+                                                   @Param("from") LocalDateTime from,
+                                                   @Param("to") LocalDateTime to);
+
+    /**
+     * Find SCHEDULED appointments of any of the given doctors or patients starting in [from, to).
+     * Used to check a batch of new times for overlaps in one query.
+     *
+     * @param doctorIds the doctor IDs
+     * @param patientIds the patient IDs
+     * @param from the window start (inclusive)
+     * @param to the window end (exclusive)
+     * @return List of appointment slots
+     */
+    @Query("SELECT new com.project.back_end.dto.AppointmentSlot(a.id, a.doctor.id, a.patient.id, a.appointmentDateTime, "
+            + "a.durationMinutes, a.status) FROM Appointment a WHERE a.status = 'SCHEDULED' "
+            + "AND (a.doctor.id IN :doctorIds OR a.patient.id IN :patientIds) "
+            + "AND a.appointmentDateTime >= :from AND a.appointmentDateTime < :to")
+    List<AppointmentSlot> findScheduledSlots(@Param("doctorIds") Collection<Long> doctorIds,
+                                             @Param("patientIds") Collection<Long> patientIds,
+                                             @Param("from") LocalDateTime from,
+                                             @Param("to") LocalDateTime to);
+
+    /**
+     * Set the status of SCHEDULED appointments in one statement.
+     *
+     * @param ids the appointment IDs
+     * @param status the new status
+     * @return number of rows updated
+     */
+    @Modifying
+    @Query("UPDATE Appointment a SET a.status = :status, a.version = a.version + 1 "
+            + "WHERE a.id IN :ids AND a.status = 'SCHEDULED'")
+    int updateScheduledStatus(@Param("ids") Collection<Long> ids, @Param("status") String status);
+
+    /**
+     * Find which of the given appointments the doctor checked the patient in for.
+     *
+     * @param ids the appointment IDs
+     * @return IDs of the checked-in appointments
+     */
+    @Query("SELECT a.id FROM Appointment a WHERE a.id IN :ids AND a.checkedInAt IS NOT NULL")
+    List<Long> findCheckedInIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Record that the patient of a SCHEDULED appointment has arrived.
+     * An appointment already checked in keeps its first check-in time.
+     *
+     * @param id the appointment ID
+     * @param checkedInAt the check-in time
+     * @return number of rows updated
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Appointment a SET a.checkedInAt = :checkedInAt, a.version = a.version + 1 "
+            + "WHERE a.id = :id AND a.status = 'SCHEDULED' AND a.checkedInAt IS NULL")
+    int markCheckedIn(@Param("id") Long id, @Param("checkedInAt") LocalDateTime checkedInAt);
+
+    /**
+     * Move SCHEDULED appointments by a number of minutes in one statement.
+     * Rows whose new time falls in another month move to that month's partition.
+     *
+     * @param ids the appointment IDs
+     * @param minutes the shift in minutes (may be negative)
+     * @return number of rows updated
+     */
+    @Modifying
+    @Query("UPDATE Appointment a SET a.appointmentDateTime = a.appointmentDateTime + :minutes minute, "
+            + "a.version = a.version + 1 WHERE a.id IN :ids AND a.status = 'SCHEDULED'")
+    int shiftScheduled(@Param("ids") Collection<Long> ids, @Param("minutes") int minutes);
+
+    /**
+     * Find the end time (start plus duration) of the oldest SCHEDULED appointment that ended by the given time.
+     *
+     * @param now the current time
+     * @return end time of the oldest overdue appointment, or null if none
+     */
+    @Query("SELECT MIN(a.appointmentDateTime + (COALESCE(a.durationMinutes, 30)) minute) FROM Appointment a "
+            + "WHERE a.status = 'SCHEDULED' AND a.appointmentDateTime < :now "
+            + "AND a.appointmentDateTime + (COALESCE(a.durationMinutes, 30)) minute <= :now")
+    LocalDateTime findOldestOverdueScheduledEnd(@Param("now") LocalDateTime now);
 }
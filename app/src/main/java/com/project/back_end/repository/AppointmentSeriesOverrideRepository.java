@@ -0,0 +1,41 @@
+package com.project.back_end.repository;
+
+import com.project.back_end.model.AppointmentSeriesOverride;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository interface for AppointmentSeriesOverride entity.
+ */
+@Repository
+public interface AppointmentSeriesOverrideRepository extends JpaRepository<AppointmentSeriesOverride, Long> {
+
+    /**
+     * Find the overrides of the given series.
+     *
+     * @param seriesIds the series IDs
+     * @return List of overrides
+     */
+    List<AppointmentSeriesOverride> findBySeriesIdIn(Collection<Long> seriesIds);
+
+    /**
+     * Find the override of one occurrence.
+     *
+     * @param seriesId the series ID
+     * @param occurrenceIndex the occurrence index
+     * @return Optional containing the override if present
+     */
+    Optional<AppointmentSeriesOverride> findBySeriesIdAndOccurrenceIndex(Long seriesId, Integer occurrenceIndex);
+
+    /**
+     * Delete the overrides of occurrences that have been materialized.
+     *
+     * @param seriesId the series ID
+     * @param occurrenceIndex occurrences below this index are materialized
+     */
+    void deleteBySeriesIdAndOccurrenceIndexLessThan(Long seriesId, Integer occurrenceIndex);
+}
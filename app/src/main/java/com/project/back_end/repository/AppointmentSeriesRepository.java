@@ -0,0 +1,67 @@
+package com.project.back_end.repository;
+
+import com.project.back_end.model.AppointmentSeries;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository interface for AppointmentSeries entity.
+ */
+@Repository
+public interface AppointmentSeriesRepository extends JpaRepository<AppointmentSeries, Long> {
+
+    /**
+     * Find active series of a doctor that still have occurrences not materialized yet.
+     * Not bounded by time, because an override may move an occurrence before the next rule date.
+     *
+     * @param doctorId the doctor ID
+     * @return List of series
+     */
+    @Query("SELECT s FROM AppointmentSeries s WHERE s.doctor.id = :doctorId AND s.status = 'ACTIVE' "
+            + "AND s.nextOccurrenceAt IS NOT NULL")
+    List<AppointmentSeries> findPendingByDoctor(@Param("doctorId") Long doctorId);
+
+    /**
+     * Find active series of a patient that still have occurrences not materialized yet.
+     * Not bounded by time, because an override may move an occurrence before the next rule date.
+     *
+     * @param patientId the patient ID
+     * @return List of series
+     */
+    @Query("SELECT s FROM AppointmentSeries s WHERE s.patient.id = :patientId AND s.status = 'ACTIVE' "
+            + "AND s.nextOccurrenceAt IS NOT NULL")
+    List<AppointmentSeries> findPendingByPatient(@Param("patientId") Long patientId);
+
+    /**
+     * Check if a doctor has any appointment series.
+     *
+     * @param doctorId the doctor ID
+     * @return true if exists
+     */
+    boolean existsByDoctorId(Long doctorId);
+
+    /**
+     * Check if a patient has any appointment series.
+     *
+     * @param patientId the patient ID
+     * @return true if exists
+     */
+    boolean existsByPatientId(Long patientId);
+
+    /**
+     * Find active series whose next occurrence to materialize starts before the horizon.
+     *
+     * @param horizon the materialization horizon
+     * @param pageable the batch size
+     * @return List of series, earliest next occurrence first
+     */
+    @Query("SELECT s FROM AppointmentSeries s WHERE s.status = 'ACTIVE' AND s.nextOccurrenceAt < :horizon "
+            + "ORDER BY s.nextOccurrenceAt")
+    List<AppointmentSeries> findDueForMaterialization(@Param("horizon") LocalDateTime horizon, Pageable pageable);
+}
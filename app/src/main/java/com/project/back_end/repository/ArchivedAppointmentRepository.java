@@ -0,0 +1,67 @@
+package com.project.back_end.repository;
+
+import com.project.back_end.dto.AppointmentDetailsDto;
+import com.project.back_end.model.ArchivedAppointment;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository interface for ArchivedAppointment entity.
+ * Provides history queries over the cold appointment archive.
+ */
+@Repository
+public interface ArchivedAppointmentRepository extends JpaRepository<ArchivedAppointment, Long> {
+
+    /**
+     * Find a patient's archived appointments before a (time, ID) keyset position, newest first.
+     *
+     * @param patientId the patient ID
+     * @param before upper bound on appointment time
+     * @param beforeId exclusive upper bound on ID among appointments at exactly {@code before}
+     * @param pageable the page size
+     * @return List of archived appointments
+     */
+    @Query("SELECT a FROM ArchivedAppointment a JOIN FETCH a.doctor JOIN FETCH a.patient "
+            + "WHERE a.patient.id = :patientId AND (a.appointmentDateTime < :before "
+            + "OR (a.appointmentDateTime = :before AND a.id < :beforeId)) "
+            + "ORDER BY a.appointmentDateTime DESC, a.id DESC")
+    List<ArchivedAppointment> findPatientHistory(@Param("patientId") Long patientId,
+                                                 @Param("before") LocalDateTime before,
+                                                 @Param("beforeId") Long beforeId,
+                                                 Pageable pageable);
+
+    /**
+     * Find a doctor's archived appointments before a (time, ID) keyset position, newest first.
+     *
+     * @param doctorId the doctor ID
+     * @param before upper bound on appointment time
+     * @param beforeId exclusive upper bound on ID among appointments at exactly {@code before}
+     * @param pageable the page size
+     * @return List of archived appointments
+     */
+    @Query("SELECT a FROM ArchivedAppointment a JOIN FETCH a.doctor JOIN FETCH a.patient "
+            + "WHERE a.doctor.id = :doctorId AND (a.appointmentDateTime < :before "
+            + "OR (a.appointmentDateTime = :before AND a.id < :beforeId)) "
+            + "ORDER BY a.appointmentDateTime DESC, a.id DESC")
+    List<ArchivedAppointment> findDoctorHistory(@Param("doctorId") Long doctorId,
+                                                @Param("before") LocalDateTime before,
+                                                @Param("beforeId") Long beforeId,
+                                                Pageable pageable);
+
+    /**
+     * Find an archived appointment's large text attributes.
+     *
+     * @param id the appointment ID
+     * @return Optional containing the details if found
+     */
+    @Query("SELECT new com.project.back_end.dto.AppointmentDetailsDto(a.id, a.reason, a.notes) "
+            + "FROM ArchivedAppointment a WHERE a.id = :id")
+    Optional<AppointmentDetailsDto> findDetailsById(@Param("id") Long id);
+}
@@ -0,0 +1,47 @@
+package com.project.back_end.repository;
+
+import com.project.back_end.model.DoctorAvailabilityOverride;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Repository interface for DoctorAvailabilityOverride entity.
+ */
+@Repository
+public interface DoctorAvailabilityOverrideRepository extends JpaRepository<DoctorAvailabilityOverride, Long> {
+
+    /**
+     * Find overrides for dates on or after the given date.
+     *
+     * @param from the first date
+     * @return List of overrides
+     */
+    List<DoctorAvailabilityOverride> findByDateGreaterThanEqual(LocalDate from);
+
+    /**
+     * Find a doctor's overrides for dates on or after the given date.
+     *
+     * @param doctorId the doctor ID
+     * @param from the first date
+     * @return List of overrides, by date and start time
+     */
+    List<DoctorAvailabilityOverride> findByDoctorIdAndDateGreaterThanEqualOrderByDateAscStartTimeAsc(Long doctorId,
+                                                                                                     LocalDate from);
+
+    /**
+     * Delete a doctor's overrides for dates on or after the given date.
+     *
+     * @param doctorId the doctor ID
+     * @param from the first date
+     * @return number of rows deleted
+     */
+    @Modifying
+    @Query("DELETE FROM DoctorAvailabilityOverride o WHERE o.doctorId = :doctorId AND o.date >= :from")
+    int deleteUpcoming(@Param("doctorId") Long doctorId, @Param("from") LocalDate from);
+}
@@ -0,0 +1,35 @@
+package com.project.back_end.repository;
+
+import com.project.back_end.model.DoctorAvailability;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository interface for DoctorAvailability entity.
+ */
+@Repository
+public interface DoctorAvailabilityRepository extends JpaRepository<DoctorAvailability, Long> {
+
+    /**
+     * Find a doctor's weekly rules.
+     *
+     * @param doctorId the doctor ID
+     * @return List of rules, by day and start time
+     */
+    List<DoctorAvailability> findByDoctorIdOrderByDayOfWeekAscStartTimeAsc(Long doctorId);
+
+    /**
+     * Delete a doctor's weekly rules.
+     *
+     * @param doctorId the doctor ID
+     * @return number of rows deleted
+     */
+    @Modifying
+    @Query("DELETE FROM DoctorAvailability a WHERE a.doctorId = :doctorId")
+    int deleteByDoctorId(@Param("doctorId") Long doctorId);
+}
@@ -1,21 +1,38 @@
 package com.project.back_end.repository;
 
+import com.project.back_end.dto.DoctorCardDto;
 import com.project.back_end.model.Doctor;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 /**
  * Repository interface for Doctor entity.
  * Provides database access methods for doctor operations.
+ * The specialty and active-doctor queries use the Hibernate query cache (region "doctor-queries");
+ * any write to the doctor table invalidates their cached results.
  */
 @Repository
 public interface DoctorRepository extends JpaRepository<Doctor, Long> {
 
+    /**
+     * Find all doctors as card read models, without credentials.
+     *
+     * @return List of doctor cards
+     */
+    @Query("SELECT new com.project.back_end.dto.DoctorCardDto(d.id, d.name, d.specialty, d.email, d.phone, "
+            + "d.experienceYears, d.consultationFee) FROM Doctor d")
+    List<DoctorCardDto> findAllCards();
+
     /**
      * Find doctor by username.
      *
@@ -24,12 +41,23 @@ public interface DoctorRepository extends JpaRepository<Doctor, Long> {
      */
     Optional<Doctor> findByUsername(String username);
 
+    /**
+     * Find a doctor's ID by username.
+     *
+     * @param username the username
+     * @return Optional containing the doctor ID if found
+     */
+    @Query("SELECT d.id FROM Doctor d WHERE d.username = :username")
+    Optional<Long> findIdByUsername(@Param("username") String username);
+
     /**
      * Find doctors by specialty.
      *
      * @param specialty the specialty
      * @return List of doctors with the given specialty
      */
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "doctor-queries")})
     List<Doctor> findBySpecialty(String specialty);
 
     /**
@@ -46,17 +74,30 @@ public interface DoctorRepository extends JpaRepository<Doctor, Long> {
      * @param isActive the active status
      * @return List of active doctors
      */
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "doctor-queries")})
     List<Doctor> findByIsActive(Boolean isActive);
 
     /**
-     * Find doctors by specialty and available time slot.
+     * Find active doctors among the given IDs, optionally restricted to a specialty.
      *
-     * @param specialty the specialty
-     * @param timeSlot the available time slot
+     * @param ids the doctor IDs
+     * @param specialty the specialty (null for any)
      * @return List of doctors matching criteria
      */
-    @Query("SELECT d FROM Doctor d JOIN d.availableTimes t WHERE d.specialty = :specialty AND t = :timeSlot AND d.isActive = true")
-    List<Doctor> findBySpecialtyAndAvailableTime(@Param("specialty") String specialty, @Param("timeSlot") String timeSlot);
+    @Query("SELECT d FROM Doctor d WHERE d.id IN :ids AND d.isActive = true "
+            + "AND (:specialty IS NULL OR d.specialty = :specialty)")
+    List<Doctor> findActiveByIdInAndSpecialty(@Param("ids") Collection<Long> ids, @Param("specialty") String specialty);
+
+    /**
+     * Find doctor usernames in ID order, for keyset paging.
+     *
+     * @param afterId the last ID of the previous page (0 for the first page)
+     * @param pageable the page size
+     * @return List of [id, username] rows
+     */
+    @Query("SELECT d.id, d.username FROM Doctor d WHERE d.id > :afterId ORDER BY d.id")
+    List<Object[]> findUsernamesAfter(@Param("afterId") Long afterId, Pageable pageable);
 
     /**
      * Check if doctor exists by username.
@@ -0,0 +1,64 @@
+package com.project.back_end.repository;
+
+import com.project.back_end.model.JobLease;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Repository interface for JobLease entity.
+ * Leases are taken with conditional single-row writes, so concurrent instances cannot both win.
+ */
+@Repository
+public interface JobLeaseRepository extends JpaRepository<JobLease, String> {
+
+    /**
+     * Take over a lease that has expired or is already held by the owner.
+     *
+     * @param name the job name
+     * @param owner the acquiring instance
+     * @param until the new lease expiry
+     * @param now the current time
+     * @return 1 if the lease was taken, 0 otherwise
+     */
+    @Modifying
+    @Query("UPDATE JobLease l SET l.owner = :owner, l.leaseUntil = :until "
+            + "WHERE l.name = :name AND (l.leaseUntil < :now OR l.owner = :owner)")
+    int tryTakeOver(@Param("name") String name, @Param("owner") String owner,
+                    @Param("until") LocalDateTime until, @Param("now") LocalDateTime now);
+
+    /**
+     * Create the lease row if no instance has created it yet.
+     * Declares its table as the query space; without it every lease insert would empty the second-level cache.
+     *
+     * @param name the job name
+     * @param owner the acquiring instance
+     * @param until the lease expiry
+     * @return 1 if the row was created, 0 if it already existed
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "job_lease"))
+    @Query(value = "INSERT IGNORE INTO job_lease (name, owner, lease_until) VALUES (:name, :owner, :until)",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("name") String name, @Param("owner") String owner,
+                       @Param("until") LocalDateTime until);
+
+    /**
+     * Release a lease held by the owner.
+     *
+     * @param name the job name
+     * @param owner the releasing instance
+     * @param now the current time
+     * @return 1 if released, 0 if the owner did not hold it
+     */
+    @Modifying
+    @Query("UPDATE JobLease l SET l.leaseUntil = :now WHERE l.name = :name AND l.owner = :owner")
+    int release(@Param("name") String name, @Param("owner") String owner, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,31 @@
+package com.project.back_end.repository;
+
+import com.project.back_end.model.OutboxEvent;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository interface for OutboxEvent entity.
+ * Provides access to pending cross-store change events.
+ */
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Lock the oldest pending events for relaying.
+     * Locked rows are waited for rather than skipped, so events of an aggregate are never
+     * applied out of order; only the instance holding the relay lease drains the outbox.
+     *
+     * @param pageable the batch size
+     * @return List of pending events in creation order
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM OutboxEvent e ORDER BY e.id")
+    List<OutboxEvent> lockNextBatch(Pageable pageable);
+}
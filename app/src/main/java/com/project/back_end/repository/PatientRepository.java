@@ -1,9 +1,15 @@
 package com.project.back_end.repository;
 
+import com.project.back_end.dto.PatientDetailsDto;
+import com.project.back_end.dto.PatientSummaryDto;
 import com.project.back_end.model.Patient;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,6 +20,34 @@ import java.util.Optional;
 @Repository
 public interface PatientRepository extends JpaRepository<Patient, Long> {
 
+    /**
+     * Find all patients as summary read models, without credentials or large text attributes.
+     *
+     * @return List of patient summaries
+     */
+    @Query("SELECT new com.project.back_end.dto.PatientSummaryDto(p.id, p.name, p.email, p.phone, "
+            + "p.dateOfBirth, p.gender, p.bloodGroup, p.isActive) FROM Patient p")
+    List<PatientSummaryDto> findAllSummaries();
+
+    /**
+     * Find a patient's large text attributes, which entity queries load lazily.
+     *
+     * @param id the patient ID
+     * @return Optional containing the details if found
+     */
+    @Query("SELECT new com.project.back_end.dto.PatientDetailsDto(p.id, p.address, p.medicalHistory) "
+            + "FROM Patient p WHERE p.id = :id")
+    Optional<PatientDetailsDto> findDetailsById(@Param("id") Long id);
+
+    /**
+     * Find the names of the given patients.
+     *
+     * @param ids the patient IDs
+     * @return List of [id, name] rows
+     */
+    @Query("SELECT p.id, p.name FROM Patient p WHERE p.id IN :ids")
+    List<Object[]> findNamesByIds(@Param("ids") Collection<Long> ids);
+
     /**
      * Find patient by username.
      *
@@ -22,6 +56,15 @@ public interface PatientRepository extends JpaRepository<Patient, Long> {
      */
     Optional<Patient> findByUsername(String username);
 
+    /**
+     * Find a patient's ID by username.
+     *
+     * @param username the username
+     * @return Optional containing the patient ID if found
+     */
+    @Query("SELECT p.id FROM Patient p WHERE p.username = :username")
+    Optional<Long> findIdByUsername(@Param("username") String username);
+
     /**
      * Find patient by email.
      *
@@ -46,6 +89,16 @@ public interface PatientRepository extends JpaRepository<Patient, Long> {
      */
     List<Patient> findByIsActive(Boolean isActive);
 
+    /**
+     * Find patient usernames and emails in ID order, for keyset paging.
+     *
+     * @param afterId the last ID of the previous page (0 for the first page)
+     * @param pageable the page size
+     * @return List of [id, username, email] rows
+     */
+    @Query("SELECT p.id, p.username, p.email FROM Patient p WHERE p.id > :afterId ORDER BY p.id")
+    List<Object[]> findIdentifiersAfter(@Param("afterId") Long afterId, Pageable pageable);
+
     /**
      * Check if patient exists by username.
      *
@@ -0,0 +1,86 @@
+package com.project.back_end.repository;
+
+import com.project.back_end.model.WaitlistEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository interface for WaitlistEntry entity.
+ */
+@Repository
+public interface WaitlistEntryRepository extends JpaRepository<WaitlistEntry, Long> {
+
+    /**
+     * Find WAITING and OFFERED entries whose window has not passed.
+     *
+     * @param now the current time
+     * @return List of entries
+     */
+    @Query("SELECT w FROM WaitlistEntry w WHERE w.status IN ('WAITING', 'OFFERED') AND w.latest >= :now")
+    List<WaitlistEntry> findOpen(@Param("now") LocalDateTime now);
+
+    /**
+     * Find entries by patient ID, newest first.
+     *
+     * @param patientId the patient ID
+     * @return List of entries
+     */
+    List<WaitlistEntry> findByPatientIdOrderByCreatedAtDesc(Long patientId);
+
+    /**
+     * Check whether a patient is already waiting for a doctor.
+     *
+     * @param doctorId the doctor ID
+     * @param patientId the patient ID
+     * @return true if the patient has a WAITING or OFFERED entry for the doctor
+     */
+    @Query("SELECT COUNT(w) > 0 FROM WaitlistEntry w WHERE w.doctorId = :doctorId AND w.patientId = :patientId "
+            + "AND w.status IN ('WAITING', 'OFFERED')")
+    boolean existsOpen(@Param("doctorId") Long doctorId, @Param("patientId") Long patientId);
+
+    /**
+     * Offer a slot to an entry if it is still WAITING.
+     *
+     * @param id the entry ID
+     * @param offerDateTime the slot start
+     * @param durationMinutes the slot length
+     * @param expiresAt when the hold ends
+     * @return 1 if the entry was claimed, 0 if another request got there first
+     */
+    @Modifying
+    @Query("UPDATE WaitlistEntry w SET w.status = 'OFFERED', w.offerDateTime = :offerDateTime, "
+            + "w.offerDurationMinutes = :durationMinutes, w.offerExpiresAt = :expiresAt, w.version = w.version + 1 "
+            + "WHERE w.id = :id AND w.status = 'WAITING'")
+    int claimOffer(@Param("id") Long id, @Param("offerDateTime") LocalDateTime offerDateTime,
+                   @Param("durationMinutes") Integer durationMinutes, @Param("expiresAt") LocalDateTime expiresAt);
+
+    /**
+     * Withdraw an offer and put the entry back to WAITING.
+     *
+     * @param id the entry ID
+     * @param offerDateTime the start of the offered slot
+     * @return 1 if the offer was withdrawn, 0 if it was already accepted, declined or withdrawn
+     */
+    @Modifying
+    @Query("UPDATE WaitlistEntry w SET w.status = 'WAITING', w.offerDateTime = NULL, w.offerDurationMinutes = NULL, "
+            + "w.offerExpiresAt = NULL, w.version = w.version + 1 "
+            + "WHERE w.id = :id AND w.status = 'OFFERED' AND w.offerDateTime = :offerDateTime")
+    int releaseOffer(@Param("id") Long id, @Param("offerDateTime") LocalDateTime offerDateTime);
+
+    /**
+     * Expire WAITING entries whose window has passed.
+     *
+     * @param now the current time
+     * @return number of entries expired
+     */
+    @Modifying
+    @Query("UPDATE WaitlistEntry w SET w.status = 'EXPIRED', w.version = w.version + 1 "
+            + "WHERE w.status = 'WAITING' AND w.latest < :now")
+    int expirePassed(@Param("now") LocalDateTime now);
+}
@@ -4,6 +4,7 @@ import com.project.back_end.model.Admin;
 import com.project.back_end.repository.AdminRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -23,6 +24,7 @@ public class AdminService {
      *
      * @return List of all admins
      */
+    @Transactional(readOnly = true)
     public List<Admin> getAllAdmins() {
         return adminRepository.findAll();
     }
@@ -33,6 +35,7 @@ public class AdminService {
      * @param id the admin ID
      * @return Optional containing the admin if found
      */
+    @Transactional
     public Optional<Admin> getAdminById(Long id) {
         return adminRepository.findById(id);
     }
@@ -43,6 +46,7 @@ public class AdminService {
      * @param username the username
      * @return Optional containing the admin if found
      */
+    @Transactional
     public Optional<Admin> getAdminByUsername(String username) {
         return adminRepository.findByUsername(username);
     }
@@ -53,6 +57,7 @@ public class AdminService {
      * @param admin the admin to save
      * @return saved admin
      */
+    @Transactional
     public Admin saveAdmin(Admin admin) {
         return adminRepository.save(admin);
     }
@@ -62,6 +67,7 @@ public class AdminService {
      *
      * @param id the admin ID
      */
+    @Transactional
     public void deleteAdmin(Long id) {
         adminRepository.deleteById(id);
     }
@@ -73,6 +79,7 @@ public class AdminService {
      * @param password the password
      * @return Optional containing the admin if authenticated
      */
+    @Transactional
     public Optional<Admin> authenticate(String username, String password) {
         Optional<Admin> admin = adminRepository.findByUsername(username);
         if (admin.isPresent() && admin.get().getPassword().equals(password)) {
@@ -87,6 +94,7 @@ public class AdminService {
      * @param username the username
      * @return true if exists
      */
+    @Transactional
     public boolean existsByUsername(String username) {
         return adminRepository.existsByUsername(username);
     }
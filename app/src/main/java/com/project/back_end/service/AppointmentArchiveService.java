@@ -0,0 +1,181 @@
+package com.project.back_end.service;
+
+import com.project.back_end.repository.AppointmentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Service maintaining the hot/cold split of appointment storage.
+ * Closed appointments from years older than {@code appointment.archive.keep-years} are
+ * moved in chunks from the (monthly partitioned) appointment table into appointment_archive.
+ * When the table is partitioned, upcoming monthly partitions are created ahead of time
+ * and partitions emptied by archival are dropped. Runs on one instance at a time.
+ */
+@Service
+public class AppointmentArchiveService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AppointmentArchiveService.class);
+    private static final String LEASE_NAME = "appointment-archive";
+    private static final Pattern MONTHLY_PARTITION = Pattern.compile("p(\\d{4})(\\d{2})");
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private JobLeaseService jobLeaseService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ShardService shardService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${appointment.archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${appointment.archive.keep-years:1}")
+    private int keepYears;
+
+    @Value("${appointment.archive.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${appointment.archive.max-chunks-per-run:500}")
+    private int maxChunksPerRun;
+
+    @Value("${appointment.archive.partitions-ahead:3}")
+    private int partitionsAhead;
+
+    @Value("${appointment.archive.lease-seconds:3600}")
+    private long leaseSeconds;
+
+    /**
+     * Archive closed years and maintain monthly partitions.
+     */
+    @Scheduled(cron = "${appointment.archive.cron:0 30 3 * * *}")
+    public void archiveAndMaintainPartitions() {
+        if (!enabled || !jobLeaseService.tryAcquire(LEASE_NAME, Duration.ofSeconds(leaseSeconds))) {
+            return;
+        }
+        try {
+            LocalDateTime cutoff = getArchiveCutoff();
+            shardService.forEachShard(() -> {
+                archiveBefore(cutoff);
+                maintainPartitions(cutoff);
+            });
+        } catch (RuntimeException e) {
+            logger.warn("Appointment archive run failed: {}", e.getMessage());
+        } finally {
+            jobLeaseService.release(LEASE_NAME);
+        }
+    }
+
+    /**
+     * Get the boundary between hot and archived appointments: January 1st of the oldest
+     * year kept in the appointment table.
+     *
+     * @return the archive cutoff
+     */
+    public LocalDateTime getArchiveCutoff() {
+        return LocalDate.now().withDayOfYear(1).minusYears(keepYears).atStartOfDay();
+    }
+
+    private void archiveBefore(LocalDateTime cutoff) {
+        LocalDateTime archivedAt = LocalDateTime.now();
+        long total = 0;
+        for (int chunk = 0; chunk < maxChunksPerRun; chunk++) {
+            Integer moved = transactionTemplate.execute(status -> {
+                List<Long> ids = appointmentRepository.findArchivableIds(cutoff, PageRequest.of(0, chunkSize));
+                if (ids.isEmpty()) {
+                    return 0;
+                }
+                appointmentRepository.copyToArchive(ids, archivedAt);
+                return appointmentRepository.deleteArchived(ids, cutoff);
+            });
+            int rows = moved == null ? 0 : moved;
+            total += rows;
+            if (rows < chunkSize) {
+                break;
+            }
+        }
+        if (total > 0) {
+            logger.info("Archived {} appointments dated before {}", total, cutoff);
+        }
+    }
+
+    private void maintainPartitions(LocalDateTime cutoff) {
+        List<String> partitions = jdbcTemplate.queryForList(
+                "SELECT PARTITION_NAME FROM information_schema.PARTITIONS "
+                        + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'appointment' AND PARTITION_NAME IS NOT NULL "
+                        + "ORDER BY PARTITION_ORDINAL_POSITION",
+                String.class);
+        if (partitions.isEmpty() || !partitions.contains("pmax")) {
+            // Not partitioned (sql/appointment-partitioning.sql has not been applied)
+            return;
+        }
+
+        Set<String> existing = Set.copyOf(partitions);
+        YearMonth current = YearMonth.now();
+        for (int i = 0; i <= partitionsAhead; i++) {
+            YearMonth month = current.plusMonths(i);
+            String name = month.format(PARTITION_NAME);
+            if (!existing.contains(name) && isAfterLastMonthly(partitions, month)) {
+                jdbcTemplate.execute("ALTER TABLE appointment REORGANIZE PARTITION pmax INTO ("
+                        + "PARTITION " + name + " VALUES LESS THAN ('" + month.plusMonths(1).atDay(1) + "'), "
+                        + "PARTITION pmax VALUES LESS THAN (MAXVALUE))");
+                logger.info("Created appointment partition {}", name);
+            }
+        }
+
+        YearMonth firstKept = YearMonth.from(cutoff);
+        for (String name : partitions) {
+            Matcher matcher = MONTHLY_PARTITION.matcher(name);
+            if (!matcher.matches()) {
+                continue;
+            }
+            YearMonth month = YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+            if (month.isBefore(firstKept) && isEmpty(name)) {
+                jdbcTemplate.execute("ALTER TABLE appointment DROP PARTITION " + name);
+                logger.info("Dropped archived appointment partition {}", name);
+            }
+        }
+    }
+
+    private boolean isAfterLastMonthly(List<String> partitions, YearMonth month) {
+        for (int i = partitions.size() - 1; i >= 0; i--) {
+            Matcher matcher = MONTHLY_PARTITION.matcher(partitions.get(i));
+            if (matcher.matches()) {
+                YearMonth last = YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+                return month.isAfter(last);
+            }
+        }
+        return true;
+    }
+
+    private boolean isEmpty(String partition) {
+        Integer rows = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM (SELECT 1 FROM appointment PARTITION (" + partition + ") LIMIT 1) t",
+                Integer.class);
+        return rows == null || rows == 0;
+    }
+}
@@ -0,0 +1,140 @@
+package com.project.back_end.service;
+
+import com.project.back_end.dto.AppointmentEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory fan-out hub streaming appointment changes to doctor dashboards over SSE.
+ * Subscriptions are indexed by doctor, so an event only touches that doctor's open
+ * connections. Idle subscribers cost one async servlet response each and no thread.
+ */
+@Service
+public class AppointmentEventHub {
+
+    private static final Logger logger = LoggerFactory.getLogger(AppointmentEventHub.class);
+
+    @Value("${appointment.events.emitter-timeout-ms:1800000}")
+    private long emitterTimeoutMs;
+
+    private final Map<Long, Set<Subscription>> subscriptions = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+
+    /**
+     * Open a stream of a doctor's appointment changes.
+     *
+     * @param doctorId the doctor ID
+     * @param day only stream changes to appointments on this day, or all if null
+     * @return emitter bound to the subscriber's connection
+     */
+    public SseEmitter subscribe(Long doctorId, LocalDate day) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        Subscription subscription = new Subscription(emitter, day);
+        subscriptions.computeIfAbsent(doctorId, id -> ConcurrentHashMap.newKeySet()).add(subscription);
+        subscriberCount.incrementAndGet();
+
+        Runnable remove = () -> unsubscribe(doctorId, subscription);
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(e -> remove.run());
+        return emitter;
+    }
+
+    /**
+     * Check whether anyone is listening.
+     *
+     * @return true if at least one subscriber is connected
+     */
+    public boolean hasSubscribers() {
+        return subscriberCount.get() > 0;
+    }
+
+    /**
+     * Get the number of connected subscribers.
+     *
+     * @return subscriber count
+     */
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    /**
+     * Deliver an appointment change to the doctor's subscribers once its transaction commits.
+     *
+     * @param event the appointment change
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppointmentEvent(AppointmentEvent event) {
+        if (!hasSubscribers()) {
+            return;
+        }
+        Set<Subscription> targets = subscriptions.get(event.getDoctorId());
+        if (targets == null) {
+            return;
+        }
+        LocalDate eventDay = event.getAppointmentDateTime() == null
+                ? null : event.getAppointmentDateTime().toLocalDate();
+        for (Subscription subscription : targets) {
+            if (subscription.day == null || eventDay == null || subscription.day.equals(eventDay)) {
+                send(event.getDoctorId(), subscription, SseEmitter.event().name("appointment").data(event));
+            }
+        }
+    }
+
+    /**
+     * Send a comment line to every subscriber so proxies keep idle connections open
+     * and dead connections are detected and dropped.
+     */
+    @Scheduled(fixedDelayString = "${appointment.events.heartbeat-ms:25000}")
+    public void heartbeat() {
+        subscriptions.forEach((doctorId, targets) -> {
+            for (Subscription subscription : targets) {
+                send(doctorId, subscription, SseEmitter.event().comment("ping"));
+            }
+        });
+    }
+
+    private void send(Long doctorId, Subscription subscription, SseEmitter.SseEventBuilder event) {
+        try {
+            subscription.emitter.send(event);
+        } catch (IOException | IllegalStateException e) {
+            logger.debug("Dropping SSE subscriber of doctor {}: {}", doctorId, e.getMessage());
+            unsubscribe(doctorId, subscription);
+            subscription.emitter.completeWithError(e);
+        }
+    }
+
+    private void unsubscribe(Long doctorId, Subscription subscription) {
+        subscriptions.computeIfPresent(doctorId, (id, set) -> {
+            if (set.remove(subscription)) {
+                subscriberCount.decrementAndGet();
+            }
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    /**
+     * One open dashboard connection and its day filter.
+     */
+    private static final class Subscription {
+        private final SseEmitter emitter;
+        private final LocalDate day;
+
+        private Subscription(SseEmitter emitter, LocalDate day) {
+            this.emitter = emitter;
+            this.day = day;
+        }
+    }
+}
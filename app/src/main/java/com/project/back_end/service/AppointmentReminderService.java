@@ -0,0 +1,185 @@
+package com.project.back_end.service;
+
+import com.project.back_end.dto.Notification;
+import com.project.back_end.dto.ReminderTarget;
+import com.project.back_end.repository.AppointmentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Service dispatching appointment reminders (by default at T-24h and T-1h).
+ * Instead of polling MySQL per appointment, the lease-holding instance periodically loads
+ * the appointments whose reminders fall in the next window with one query per reminder
+ * offset, keeps the pending reminders in a minute-resolution time wheel, and hands due
+ * reminders to the NotificationSink in batches. Each batch is re-checked with a single
+ * query so cancelled or rescheduled appointments are skipped.
+ */
+@Service
+public class AppointmentReminderService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AppointmentReminderService.class);
+    private static final String LEASE_NAME = "appointment-reminders";
+    private static final long TICK_MILLIS = 60_000;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private JobLeaseService jobLeaseService;
+
+    @Autowired
+    private ShardService shardService;
+
+    @Autowired
+    private NotificationSink notificationSink;
+
+    @Value("${reminder.enabled:true}")
+    private boolean enabled;
+
+    @Value("${reminder.offsets:24h,1h}")
+    private List<Duration> offsets;
+
+    @Value("${reminder.window-minutes:60}")
+    private long windowMinutes;
+
+    @Value("${reminder.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${reminder.lease-seconds:1800}")
+    private long leaseSeconds;
+
+    // One revolution covers a day; later timers simply wait for their round
+    private final TimeWheel<PendingReminder> wheel = new TimeWheel<>(TICK_MILLIS, 1440, System.currentTimeMillis());
+    // Reminders scheduled or already sent, by key, with their fire time. Sent keys are kept
+    // until the fire time passes: the wheel can fire up to a tick early, and a window loaded
+    // before the fire time would otherwise find the appointment again and send it twice.
+    private final Map<String, LocalDateTime> scheduledKeys = new ConcurrentHashMap<>();
+    private volatile boolean leader;
+
+    /**
+     * Load reminders firing in the next window into the time wheel.
+     * Windows overlap between runs; reminders already pending or sent are not scheduled twice.
+     */
+    @Scheduled(fixedDelayString = "${reminder.window-refresh-ms:900000}", initialDelayString = "${reminder.initial-delay-ms:30000}")
+    public void loadWindow() {
+        if (!enabled) {
+            return;
+        }
+        if (!jobLeaseService.tryAcquire(LEASE_NAME, Duration.ofSeconds(leaseSeconds))) {
+            if (leader) {
+                // Another instance took over; drop our timers so reminders are not sent twice
+                wheel.clear();
+                scheduledKeys.clear();
+                leader = false;
+            }
+            return;
+        }
+        leader = true;
+
+        LocalDateTime now = LocalDateTime.now();
+        // A window only finds reminders firing from now on, so older keys can go
+        scheduledKeys.values().removeIf(fireAt -> fireAt.isBefore(now));
+        int scheduled = 0;
+        for (Duration offset : offsets) {
+            LocalDateTime from = now.plus(offset);
+            for (ReminderTarget target : shardService.scatterGather(
+                    () -> appointmentRepository.findReminderTargets(from, from.plusMinutes(windowMinutes)))) {
+                PendingReminder reminder = new PendingReminder(target.getAppointmentId(), offset,
+                        target.getAppointmentDateTime());
+                LocalDateTime fireAt = target.getAppointmentDateTime().minus(offset);
+                if (scheduledKeys.putIfAbsent(reminder.key(), fireAt) == null) {
+                    wheel.schedule(toMillis(fireAt), reminder);
+                    scheduled++;
+                }
+            }
+        }
+        logger.debug("Scheduled {} reminders, {} pending", scheduled, wheel.size());
+    }
+
+    /**
+     * Send reminders that became due since the last tick.
+     */
+    @Scheduled(fixedDelay = TICK_MILLIS)
+    public void dispatchDue() {
+        if (!leader) {
+            return;
+        }
+        List<PendingReminder> due = wheel.advance(System.currentTimeMillis());
+        for (int i = 0; i < due.size(); i += batchSize) {
+            List<PendingReminder> batch = due.subList(i, Math.min(i + batchSize, due.size()));
+            try {
+                dispatchBatch(batch);
+            } catch (RuntimeException e) {
+                logger.warn("Reminder batch of {} failed, retrying next tick: {}", batch.size(), e.getMessage());
+                long retryAt = System.currentTimeMillis() + TICK_MILLIS;
+                batch.forEach(reminder -> wheel.schedule(retryAt, reminder));
+            }
+        }
+    }
+
+    /**
+     * Get the number of reminders waiting in the time wheel.
+     *
+     * @return pending reminder count
+     */
+    public int getPendingCount() {
+        return wheel.size();
+    }
+
+    private void dispatchBatch(List<PendingReminder> batch) {
+        Set<Long> ids = batch.stream().map(PendingReminder::appointmentId).collect(Collectors.toSet());
+        Map<Long, ReminderTarget> current = shardService
+                .scatterGather(() -> appointmentRepository.findReminderTargetsByIds(ids)).stream()
+                .collect(Collectors.toMap(ReminderTarget::getAppointmentId, Function.identity()));
+
+        List<Notification> notifications = new ArrayList<>(batch.size());
+        for (PendingReminder reminder : batch) {
+            ReminderTarget target = current.get(reminder.appointmentId());
+            // Skip appointments cancelled, completed or moved since the reminder was scheduled
+            if (target != null && "SCHEDULED".equals(target.getStatus())
+                    && reminder.appointmentDateTime().equals(target.getAppointmentDateTime())) {
+                notifications.add(toNotification(reminder, target));
+            }
+        }
+        if (!notifications.isEmpty()) {
+            notificationSink.deliver(notifications);
+        }
+    }
+
+    private Notification toNotification(PendingReminder reminder, ReminderTarget target) {
+        String type = "REMINDER_" + reminder.offset().toHours() + "H";
+        String message = String.format("Reminder: appointment with %s on %s", target.getDoctorName(),
+                target.getAppointmentDateTime());
+        return new Notification(type, target.getAppointmentId(), target.getPatientId(), target.getPatientName(),
+                target.getPatientEmail(), target.getDoctorName(), target.getAppointmentDateTime(), message);
+    }
+
+    private static long toMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * A reminder waiting in the wheel, tied to the appointment time it was scheduled for.
+     */
+    private record PendingReminder(Long appointmentId, Duration offset, LocalDateTime appointmentDateTime) {
+
+        private String key() {
+            return appointmentId + ":" + offset + ":" + appointmentDateTime;
+        }
+    }
+}
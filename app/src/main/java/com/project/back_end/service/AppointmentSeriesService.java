@@ -0,0 +1,459 @@
+package com.project.back_end.service;
+
+import com.project.back_end.dto.AppointmentDto;
+import com.project.back_end.dto.AppointmentEvent;
+import com.project.back_end.dto.AppointmentSeriesDto;
+import com.project.back_end.dto.AppointmentSlot;
+import com.project.back_end.model.Appointment;
+import com.project.back_end.model.AppointmentSeries;
+import com.project.back_end.model.AppointmentSeriesOverride;
+import com.project.back_end.model.Doctor;
+import com.project.back_end.model.Patient;
+import com.project.back_end.repository.AppointmentRepository;
+import com.project.back_end.repository.AppointmentSeriesOverrideRepository;
+import com.project.back_end.repository.AppointmentSeriesRepository;
+import com.project.back_end.repository.DoctorRepository;
+import com.project.back_end.repository.PatientRepository;
+import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Service for recurring appointment series.
+ * A series is stored as one rule row; only occurrences starting within
+ * {@code appointment.series.horizon-days} are written to the appointment table, by
+ * {@link #createSeries} and then by a scheduled job running on one instance at a time.
+ * Later occurrences are expanded from the rule for calendar queries, and cancellations or
+ * moves of them are stored as sparse overrides until they are materialized.
+ */
+@Service
+public class AppointmentSeriesService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AppointmentSeriesService.class);
+    private static final String LEASE_NAME = "appointment-series";
+
+    @Autowired
+    private AppointmentSeriesRepository seriesRepository;
+
+    @Autowired
+    private AppointmentSeriesOverrideRepository overrideRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private JobLeaseService jobLeaseService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ShardService shardService;
+
+    @Autowired
+    private DoctorAvailabilityService doctorAvailabilityService;
+
+    @Value("${appointment.series.enabled:true}")
+    private boolean enabled;
+
+    @Value("${appointment.series.horizon-days:28}")
+    private int horizonDays;
+
+    @Value("${appointment.series.batch-size:100}")
+    private int batchSize;
+
+    @Value("${appointment.series.max-batches-per-run:100}")
+    private int maxBatchesPerRun;
+
+    @Value("${appointment.series.lease-seconds:600}")
+    private long leaseSeconds;
+
+    /**
+     * Create a series and materialize its occurrences within the horizon.
+     * Every occurrence must lie within the doctor's availability.
+     *
+     * @param dto the series DTO
+     * @return saved series
+     * @throws IllegalArgumentException if an occurrence is outside the doctor's availability
+     * @throws RuntimeException if doctor or patient not found
+     */
+    @Bulkhead(WorkloadClass.BOOKING)
+    @Transactional
+    public AppointmentSeries createSeries(AppointmentSeriesDto dto) {
+        Doctor doctor = doctorRepository.findById(dto.getDoctorId())
+                .orElseThrow(() -> new RuntimeException("Doctor not found with id: " + dto.getDoctorId()));
+
+        Patient patient = patientRepository.findById(dto.getPatientId())
+                .orElseThrow(() -> new RuntimeException("Patient not found with id: " + dto.getPatientId()));
+
+        AppointmentSeries series = new AppointmentSeries();
+        series.setDoctor(doctor);
+        series.setPatient(patient);
+        series.setClinicId(doctor.getClinicId());
+        series.setFirstStart(dto.getFirstStart());
+        series.setDurationMinutes(dto.getDurationMinutes());
+        series.setIntervalWeeks(dto.getIntervalWeeks() == null ? 1 : dto.getIntervalWeeks());
+        series.setOccurrenceCount(dto.getOccurrenceCount());
+        series.setReason(dto.getReason());
+        series.setNextOccurrenceAt(dto.getFirstStart());
+        series.setCreatedAt(LocalDateTime.now());
+        for (int index = 0; index < series.getOccurrenceCount(); index++) {
+            requireAvailable(series, series.getOccurrenceStart(index));
+        }
+
+        AppointmentSeries saved = seriesRepository.save(series);
+        materialize(saved, horizon());
+        return saved;
+    }
+
+    /**
+     * Get series by ID.
+     *
+     * @param id the series ID
+     * @return Optional containing the series if found
+     */
+    @Bulkhead(WorkloadClass.INTERACTIVE)
+    @Transactional(readOnly = true)
+    public Optional<AppointmentSeries> getSeriesById(Long id) {
+        return seriesRepository.findById(id);
+    }
+
+    /**
+     * Cancel a series: no further occurrences are materialized and its SCHEDULED future
+     * appointments are cancelled with one UPDATE, publishing an event per cancelled appointment.
+     *
+     * @param id the series ID
+     * @throws EntityNotFoundException if the series does not exist
+     */
+    @Bulkhead(WorkloadClass.BOOKING)
+    @Transactional
+    public void cancelSeries(Long id) {
+        AppointmentSeries series = seriesRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Series not found with id: " + id));
+        series.setStatus("CANCELLED");
+        series.setNextOccurrenceAt(null);
+        seriesRepository.save(series);
+
+        List<AppointmentSlot> slots = appointmentRepository.findScheduledSlotsInSeriesForUpdate(id, LocalDateTime.now());
+        if (slots.isEmpty()) {
+            return;
+        }
+        appointmentRepository.updateScheduledStatus(
+                slots.stream().map(AppointmentSlot::getId).collect(Collectors.toList()), "CANCELLED");
+        // Every occurrence belongs to the series' doctor and patient
+        for (AppointmentSlot slot : slots) {
+            eventPublisher.publishEvent(new AppointmentEvent(AppointmentEvent.CANCELLED, slot.getId(),
+                    slot.getDoctorId(), slot.getPatientId(), series.getPatient().getName(),
+                    slot.getAppointmentDateTime(), slot.getDurationMinutes(), "CANCELLED"));
+        }
+    }
+
+    /**
+     * Cancel one occurrence of a series.
+     * A materialized occurrence is cancelled in the appointment table; a later one gets an override.
+     *
+     * @param id the series ID
+     * @param index the occurrence index, from 0
+     * @throws EntityNotFoundException if the series does not exist
+     * @throws IllegalArgumentException if the index is outside the series
+     */
+    @Bulkhead(WorkloadClass.BOOKING)
+    @Transactional
+    public void cancelOccurrence(Long id, int index) {
+        changeOccurrence(id, index, null);
+    }
+
+    /**
+     * Move one occurrence of a series to a new time.
+     * A materialized occurrence is moved in the appointment table; a later one gets an override.
+     *
+     * @param id the series ID
+     * @param index the occurrence index, from 0
+     * @param newDateTime the new start time
+     * @throws EntityNotFoundException if the series does not exist
+     * @throws IllegalArgumentException if the index is outside the series, or the new time is in the past
+     *         or outside the doctor's availability
+     */
+    @Bulkhead(WorkloadClass.BOOKING)
+    @Transactional
+    public void moveOccurrence(Long id, int index, LocalDateTime newDateTime) {
+        if (newDateTime == null || newDateTime.isBefore(LocalDateTime.now())) {
+            throw new IllegalArgumentException("New time must be in the future");
+        }
+        changeOccurrence(id, index, newDateTime);
+    }
+
+    private void changeOccurrence(Long id, int index, LocalDateTime newDateTime) {
+        AppointmentSeries series = seriesRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Series not found with id: " + id));
+        if (index < 0 || index >= series.getOccurrenceCount()) {
+            throw new IllegalArgumentException("Series has no occurrence " + index);
+        }
+        if (newDateTime != null) {
+            requireAvailable(series, newDateTime);
+        }
+
+        if (index < series.getMaterializedCount()) {
+            Appointment appointment = appointmentRepository.findBySeriesIdAndOccurrenceIndex(id, index)
+                    .orElseThrow(() -> new EntityNotFoundException("Occurrence " + index + " no longer exists"));
+            if (newDateTime == null) {
+                appointment.setStatus("CANCELLED");
+            } else {
+                appointment.setAppointmentDateTime(newDateTime);
+            }
+            Appointment saved = appointmentRepository.save(appointment);
+            publishEvent(newDateTime == null ? AppointmentEvent.CANCELLED : AppointmentEvent.UPDATED, saved);
+            return;
+        }
+
+        AppointmentSeriesOverride override = overrideRepository.findBySeriesIdAndOccurrenceIndex(id, index)
+                .orElseGet(() -> new AppointmentSeriesOverride(null, id, index, null));
+        override.setNewDateTime(newDateTime);
+        overrideRepository.save(override);
+    }
+
+    /**
+     * Expand a doctor's occurrences that are not materialized yet within [from, to].
+     * Runs on every shard when the request does not belong to a clinic.
+     *
+     * @param doctorId the doctor ID
+     * @param from the start of the range
+     * @param to the end of the range
+     * @return List of appointment DTOs without an ID
+     */
+    @Transactional(readOnly = true)
+    public List<AppointmentDto> getPendingOccurrencesForDoctor(Long doctorId, LocalDateTime from, LocalDateTime to) {
+        return shardService.scatterGather(() -> transactionTemplate.execute(status ->
+                expand(seriesRepository.findPendingByDoctor(doctorId), from, to)));
+    }
+
+    /**
+     * Expand a patient's occurrences that are not materialized yet within [from, to].
+     * Runs on every shard when the request does not belong to a clinic.
+     *
+     * @param patientId the patient ID
+     * @param from the start of the range
+     * @param to the end of the range
+     * @return List of appointment DTOs without an ID
+     */
+    @Transactional(readOnly = true)
+    public List<AppointmentDto> getPendingOccurrencesForPatient(Long patientId, LocalDateTime from, LocalDateTime to) {
+        return shardService.scatterGather(() -> transactionTemplate.execute(status ->
+                expand(seriesRepository.findPendingByPatient(patientId), from, to)));
+    }
+
+    private List<AppointmentDto> expand(List<AppointmentSeries> seriesList, LocalDateTime from, LocalDateTime to) {
+        if (seriesList.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, Map<Integer, AppointmentSeriesOverride>> overrides = loadOverrides(seriesList);
+
+        List<AppointmentDto> occurrences = new ArrayList<>();
+        for (AppointmentSeries series : seriesList) {
+            Map<Integer, AppointmentSeriesOverride> seriesOverrides = overrides.getOrDefault(series.getId(), Map.of());
+            for (int index = series.getMaterializedCount(); index < series.getOccurrenceCount(); index++) {
+                AppointmentSeriesOverride override = seriesOverrides.get(index);
+                if (override != null && override.isCancelled()) {
+                    continue;
+                }
+                LocalDateTime start = override != null ? override.getNewDateTime() : series.getOccurrenceStart(index);
+                if (!start.isBefore(from) && !start.isAfter(to)) {
+                    occurrences.add(toOccurrenceDto(series, index, start));
+                }
+            }
+        }
+        return occurrences;
+    }
+
+    private Map<Long, Map<Integer, AppointmentSeriesOverride>> loadOverrides(List<AppointmentSeries> seriesList) {
+        List<Long> ids = seriesList.stream().map(AppointmentSeries::getId).collect(Collectors.toList());
+        Map<Long, Map<Integer, AppointmentSeriesOverride>> overrides = new HashMap<>();
+        for (AppointmentSeriesOverride override : overrideRepository.findBySeriesIdIn(ids)) {
+            overrides.computeIfAbsent(override.getSeriesId(), key -> new HashMap<>())
+                    .put(override.getOccurrenceIndex(), override);
+        }
+        return overrides;
+    }
+
+    /**
+     * Materialize occurrences entering the horizon.
+     */
+    @Scheduled(cron = "${appointment.series.cron:0 10 * * * *}")
+    public void materializeUpcomingOccurrences() {
+        if (!enabled || !jobLeaseService.tryAcquire(LEASE_NAME, Duration.ofSeconds(leaseSeconds))) {
+            return;
+        }
+        try {
+            shardService.forEachShard(this::materializeDue);
+        } catch (RuntimeException e) {
+            logger.warn("Appointment series run failed: {}", e.getMessage());
+        } finally {
+            jobLeaseService.release(LEASE_NAME);
+        }
+    }
+
+    private void materializeDue() {
+        LocalDateTime horizon = horizon();
+        long total = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            // Materialized series move past the horizon, so each batch picks up new ones
+            List<Integer> created = transactionTemplate.execute(status -> seriesRepository
+                    .findDueForMaterialization(horizon, PageRequest.of(0, batchSize))
+                    .stream()
+                    .map(series -> materialize(series, horizon))
+                    .collect(Collectors.toList()));
+            if (created == null) {
+                break;
+            }
+            total += created.stream().mapToInt(Integer::intValue).sum();
+            if (created.size() < batchSize) {
+                break;
+            }
+        }
+        if (total > 0) {
+            logger.info("Appointment series materialized {} occurrences", total);
+        }
+    }
+
+    /**
+     * Write the series' occurrences starting before the horizon to the appointment table and
+     * drop the overrides they consumed.
+     * Occurrences the doctor is no longer available for, because the availability changed after
+     * the series was booked, are skipped and logged instead of being booked.
+     *
+     * @return number of appointments created
+     */
+    private int materialize(AppointmentSeries series, LocalDateTime horizon) {
+        Map<Integer, AppointmentSeriesOverride> overrides =
+                loadOverrides(List.of(series)).getOrDefault(series.getId(), Map.of());
+
+        int index = series.getMaterializedCount();
+        List<Appointment> occurrences = new ArrayList<>();
+        while (index < series.getOccurrenceCount() && series.getOccurrenceStart(index).isBefore(horizon)) {
+            AppointmentSeriesOverride override = overrides.get(index);
+            if (override == null || !override.isCancelled()) {
+                LocalDateTime start = override == null ? series.getOccurrenceStart(index) : override.getNewDateTime();
+                if (isAvailable(series, start)) {
+                    occurrences.add(newOccurrence(series, index, start));
+                } else {
+                    logger.warn("Series {} occurrence {} at {} skipped: doctor {} is not available",
+                            series.getId(), index, start, series.getDoctor().getId());
+                }
+            }
+            index++;
+        }
+
+        series.setMaterializedCount(index);
+        series.setNextOccurrenceAt(index < series.getOccurrenceCount() ? series.getOccurrenceStart(index) : null);
+        seriesRepository.save(series);
+        if (!overrides.isEmpty()) {
+            overrideRepository.deleteBySeriesIdAndOccurrenceIndexLessThan(series.getId(), index);
+        }
+        appointmentRepository.saveAll(occurrences).forEach(saved -> publishEvent(AppointmentEvent.BOOKED, saved));
+        return occurrences.size();
+    }
+
+    private boolean isAvailable(AppointmentSeries series, LocalDateTime start) {
+        return doctorAvailabilityService.isAvailable(series.getDoctor().getId(), start, series.getDurationMinutes());
+    }
+
+    private void requireAvailable(AppointmentSeries series, LocalDateTime start) {
+        if (!isAvailable(series, start)) {
+            throw new IllegalArgumentException("Doctor is not available at " + start);
+        }
+    }
+
+    private Appointment newOccurrence(AppointmentSeries series, int index, LocalDateTime start) {
+        Appointment appointment = new Appointment();
+        appointment.setDoctor(series.getDoctor());
+        appointment.setPatient(series.getPatient());
+        appointment.setClinicId(series.getClinicId());
+        appointment.setAppointmentDateTime(start);
+        appointment.setDurationMinutes(series.getDurationMinutes());
+        appointment.setReason(series.getReason());
+        appointment.setSeriesId(series.getId());
+        appointment.setOccurrenceIndex(index);
+        appointment.setCreatedAt(LocalDateTime.now());
+        return appointment;
+    }
+
+    private LocalDateTime horizon() {
+        return LocalDateTime.now().plusDays(horizonDays);
+    }
+
+    /**
+     * Publish an appointment change; listeners receive it after the surrounding transaction commits.
+     *
+     * @param type the change type
+     * @param appointment the changed appointment
+     */
+    private void publishEvent(String type, Appointment appointment) {
+        eventPublisher.publishEvent(new AppointmentEvent(type, appointment.getId(),
+                appointment.getDoctor().getId(), appointment.getPatient().getId(), appointment.getPatient().getName(),
+                appointment.getAppointmentDateTime(), appointment.getDurationMinutes(), appointment.getStatus()));
+    }
+
+    private AppointmentDto toOccurrenceDto(AppointmentSeries series, int index, LocalDateTime start) {
+        AppointmentDto dto = new AppointmentDto();
+        dto.setDoctorId(series.getDoctor().getId());
+        dto.setPatientId(series.getPatient().getId());
+        dto.setDoctorName(series.getDoctor().getName());
+        dto.setPatientName(series.getPatient().getName());
+        dto.setDoctorSpecialty(series.getDoctor().getSpecialty());
+        dto.setAppointmentDateTime(start);
+        dto.setDurationMinutes(series.getDurationMinutes());
+        dto.setStatus("SCHEDULED");
+        dto.setSeriesId(series.getId());
+        dto.setOccurrenceIndex(index);
+        return dto;
+    }
+
+    /**
+     * Convert AppointmentSeries to AppointmentSeriesDto.
+     *
+     * @param series the series
+     * @return AppointmentSeriesDto
+     */
+    public AppointmentSeriesDto toDto(AppointmentSeries series) {
+        AppointmentSeriesDto dto = new AppointmentSeriesDto();
+        dto.setId(series.getId());
+        dto.setDoctorId(series.getDoctor().getId());
+        dto.setPatientId(series.getPatient().getId());
+        dto.setDoctorName(series.getDoctor().getName());
+        dto.setPatientName(series.getPatient().getName());
+        dto.setFirstStart(series.getFirstStart());
+        dto.setDurationMinutes(series.getDurationMinutes());
+        dto.setIntervalWeeks(series.getIntervalWeeks());
+        dto.setOccurrenceCount(series.getOccurrenceCount());
+        dto.setReason(series.getReason());
+        dto.setStatus(series.getStatus());
+        dto.setMaterializedCount(series.getMaterializedCount());
+        return dto;
+    }
+}
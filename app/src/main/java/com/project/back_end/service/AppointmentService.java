@@ -1,18 +1,39 @@
 package com.project.back_end.service;
 
+import com.project.back_end.dto.AppointmentDetailsDto;
 import com.project.back_end.dto.AppointmentDto;
+import com.project.back_end.dto.AppointmentEvent;
+import com.project.back_end.dto.AppointmentHistoryPage;
+import com.project.back_end.dto.AppointmentSlot;
+import com.project.back_end.dto.BulkAppointmentRequest;
+import com.project.back_end.dto.BulkAppointmentResult;
 import com.project.back_end.model.Appointment;
+import com.project.back_end.model.ArchivedAppointment;
 import com.project.back_end.model.Doctor;
 import com.project.back_end.model.Patient;
 import com.project.back_end.repository.AppointmentRepository;
-import com.project.back_end.repository.DoctorRepository;
+import com.project.back_end.repository.ArchivedAppointmentRepository;
 import com.project.back_end.repository.PatientRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -22,111 +43,488 @@ import java.util.stream.Collectors;
 @Service
 public class AppointmentService {
 
+    private static final Set<String> PATCHABLE_FIELDS =
+            Set.of("appointmentDateTime", "durationMinutes", "status", "reason", "notes");
+
+    private static final LocalDateTime RANGE_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime RANGE_END = LocalDateTime.of(9999, 12, 31, 23, 59);
+    private static final int MAX_BULK_SIZE = 500;
+    private static final int DEFAULT_DURATION_MINUTES = 30;
+    // Appointments are shorter than a day, so one starting earlier than this cannot overlap
+    private static final Duration CONFLICT_LOOKBACK = Duration.ofHours(24);
+    private static final Comparator<AppointmentDto> NEWEST_FIRST =
+            Comparator.comparing(AppointmentDto::getAppointmentDateTime)
+                    .thenComparing(AppointmentDto::getId)
+                    .reversed();
+
     @Autowired
     private AppointmentRepository appointmentRepository;
 
     @Autowired
-    private DoctorRepository doctorRepository;
+    private ArchivedAppointmentRepository archivedAppointmentRepository;
+
+    @Autowired
+    private MergePatchService mergePatchService;
+
+    @Autowired
+    private ShardService shardService;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
 
     @Autowired
     private PatientRepository patientRepository;
 
+    @Autowired
+    private DoctorService doctorService;
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private AppointmentSeriesService appointmentSeriesService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private DoctorAvailabilityService doctorAvailabilityService;
+
     /**
      * Get all appointments.
+     * Runs on every shard when the request does not belong to a clinic.
      *
      * @return List of all appointments
      */
+    @Bulkhead(WorkloadClass.REPORTING)
+    @Transactional(readOnly = true)
     public List<Appointment> getAllAppointments() {
-        return appointmentRepository.findAll();
+        return shardService.scatterGather(appointmentRepository::findAll);
     }
 
     /**
      * Get appointment by ID.
+     * Looks on every shard when the request does not belong to a clinic.
      *
      * @param id the appointment ID
      * @return Optional containing the appointment if found
      */
+    @Bulkhead(WorkloadClass.INTERACTIVE)
+    @Transactional
     public Optional<Appointment> getAppointmentById(Long id) {
-        return appointmentRepository.findById(id);
+        return shardService.findAny(() -> appointmentRepository.findById(id));
+    }
+
+    /**
+     * Get an appointment's reason and notes, from current or archived appointments.
+     * Looks on every shard when the request does not belong to a clinic.
+     *
+     * @param id the appointment ID
+     * @return Optional containing the details if found
+     */
+    @Bulkhead(WorkloadClass.INTERACTIVE)
+    @Transactional(readOnly = true)
+    public Optional<AppointmentDetailsDto> getAppointmentDetails(Long id) {
+        return shardService.findAny(() -> {
+            Optional<AppointmentDetailsDto> details = appointmentRepository.findDetailsById(id);
+            return details.isPresent() ? details : archivedAppointmentRepository.findDetailsById(id);
+        });
     }
 
     /**
      * Save or update appointment.
+     * Reason and notes are not part of list responses, so an update that omits them keeps the stored values.
+     * The appointment is written to its clinic's shard, whatever clinic the request belongs to.
      *
      * @param appointment the appointment to save
      * @return saved appointment
      */
+    @Bulkhead(WorkloadClass.BOOKING)
     public Appointment saveAppointment(Appointment appointment) {
-        return appointmentRepository.save(appointment);
+        if (appointment.getClinicId() == null && appointment.getDoctor() != null) {
+            appointment.setClinicId(appointment.getDoctor().getClinicId());
+        }
+        return shardService.inClinic(appointment.getClinicId(), () -> transactionTemplate.execute(status -> {
+            if (appointment.getId() != null && (appointment.getReason() == null || appointment.getNotes() == null)) {
+                appointmentRepository.findDetailsById(appointment.getId()).ifPresent(previous -> {
+                    if (appointment.getReason() == null) {
+                        appointment.setReason(previous.getReason());
+                    }
+                    if (appointment.getNotes() == null) {
+                        appointment.setNotes(previous.getNotes());
+                    }
+                });
+            }
+            Appointment saved = appointmentRepository.save(appointment);
+            publishEvent("CANCELLED".equals(saved.getStatus()) ? AppointmentEvent.CANCELLED : AppointmentEvent.UPDATED, saved);
+            return saved;
+        }));
+    }
+
+    /**
+     * Apply a JSON merge patch to an appointment as a single versioned UPDATE on the appointment's shard.
+     *
+     * @param id the appointment ID
+     * @param expectedVersion the version the client last read
+     * @param patch the changed fields
+     * @return the new version
+     */
+    @Bulkhead(WorkloadClass.BOOKING)
+    public long patchAppointment(Long id, Long expectedVersion, Map<String, Object> patch) {
+        return shardService.inClinic(clinicOf(id), () -> transactionTemplate.execute(status -> {
+            long version = mergePatchService.apply(Appointment.class, id, expectedVersion, patch, PATCHABLE_FIELDS);
+            String type = !patch.containsKey("status") ? AppointmentEvent.UPDATED
+                    : "CANCELLED".equals(patch.get("status")) ? AppointmentEvent.CANCELLED
+                    : AppointmentEvent.STATUS_CHANGED;
+            appointmentRepository.findById(id).ifPresent(appointment -> publishEvent(type, appointment));
+            return version;
+        }));
+    }
+
+    /**
+     * Cancel, complete or reschedule many appointments in one transaction.
+     * The targets are loaded and locked in one query, new times are checked against the doctors'
+     * and patients' other appointments in one further query, and the change is applied with a
+     * single UPDATE. Only SCHEDULED appointments are changed; every target gets a result item.
+     * The change runs on one shard: the doctor's for a window, else that of the first requested
+     * appointment found. Requested appointments held on other shards are reported NOT_FOUND.
+     *
+     * @param request the action and its targets
+     * @param restrictToDoctorId if not null, appointments of other doctors are refused
+     * @return result with one item per targeted appointment
+     * @throws IllegalArgumentException if the request is invalid or targets more than MAX_BULK_SIZE appointments
+     */
+    @Bulkhead(WorkloadClass.BOOKING)
+    public BulkAppointmentResult bulkUpdate(BulkAppointmentRequest request, Long restrictToDoctorId) {
+        Long clinicId = request.getDoctorId() != null
+                ? doctorService.getDoctorById(request.getDoctorId()).map(Doctor::getClinicId).orElse(null)
+                : request.getIds() == null ? null
+                : request.getIds().stream().map(this::clinicOf).filter(Objects::nonNull).findFirst().orElse(null);
+        return shardService.inClinic(clinicId, () -> transactionTemplate.execute(status ->
+                applyBulkUpdate(request, restrictToDoctorId)));
+    }
+
+    private BulkAppointmentResult applyBulkUpdate(BulkAppointmentRequest request, Long restrictToDoctorId) {
+        String action = request.getAction() == null ? "" : request.getAction().trim().toUpperCase();
+        boolean reschedule = BulkAppointmentRequest.RESCHEDULE.equals(action);
+        if (!reschedule && !BulkAppointmentRequest.CANCEL.equals(action)
+                && !BulkAppointmentRequest.COMPLETE.equals(action)) {
+            throw new IllegalArgumentException("Unknown action: " + request.getAction());
+        }
+        if (reschedule && (request.getShiftMinutes() == null || request.getShiftMinutes() == 0)) {
+            throw new IllegalArgumentException("RESCHEDULE requires a non-zero shiftMinutes");
+        }
+
+        BulkAppointmentResult result = new BulkAppointmentResult();
+        result.setAction(action);
+        List<AppointmentSlot> targets = loadBulkTargets(request, result);
+
+        LocalDateTime now = LocalDateTime.now();
+        int shift = reschedule ? request.getShiftMinutes() : 0;
+        List<AppointmentSlot> eligible = new ArrayList<>();
+        for (AppointmentSlot slot : targets) {
+            if (restrictToDoctorId != null && !restrictToDoctorId.equals(slot.getDoctorId())) {
+                addItem(result, slot.getId(), BulkAppointmentResult.FORBIDDEN, "Appointment belongs to another doctor");
+            } else if (!"SCHEDULED".equals(slot.getStatus())) {
+                addItem(result, slot.getId(), BulkAppointmentResult.SKIPPED, "Appointment is " + slot.getStatus());
+            } else if (BulkAppointmentRequest.COMPLETE.equals(action) && slot.getAppointmentDateTime().isAfter(now)) {
+                addItem(result, slot.getId(), BulkAppointmentResult.SKIPPED, "Appointment has not started");
+            } else if (reschedule && slot.getAppointmentDateTime().plusMinutes(shift).isBefore(now)) {
+                addItem(result, slot.getId(), BulkAppointmentResult.SKIPPED, "New time is in the past");
+            } else {
+                eligible.add(slot);
+            }
+        }
+        if (reschedule) {
+            eligible = withoutConflicts(eligible, shift, result);
+        }
+        if (eligible.isEmpty()) {
+            return result;
+        }
+
+        // The rows are locked, so every eligible appointment is still SCHEDULED here
+        List<Long> ids = eligible.stream().map(AppointmentSlot::getId).collect(Collectors.toList());
+        String newStatus = BulkAppointmentRequest.CANCEL.equals(action) ? "CANCELLED"
+                : BulkAppointmentRequest.COMPLETE.equals(action) ? "COMPLETED" : "SCHEDULED";
+        result.setUpdated(reschedule
+                ? appointmentRepository.shiftScheduled(ids, shift)
+                : appointmentRepository.updateScheduledStatus(ids, newStatus));
+        eligible.forEach(slot -> addItem(result, slot.getId(), BulkAppointmentResult.UPDATED, null));
+
+        publishBulkEvents(eligible, action, shift, newStatus);
+        return result;
+    }
+
+    /**
+     * Load and lock the targets of a bulk request; requested IDs that do not exist get a NOT_FOUND item.
+     */
+    private List<AppointmentSlot> loadBulkTargets(BulkAppointmentRequest request, BulkAppointmentResult result) {
+        boolean byIds = request.getIds() != null && !request.getIds().isEmpty();
+        boolean byWindow = request.getDoctorId() != null && request.getFrom() != null && request.getTo() != null;
+        if (byIds == byWindow) {
+            throw new IllegalArgumentException("Give either ids, or doctorId with from and to");
+        }
+
+        List<AppointmentSlot> targets;
+        if (byIds) {
+            Set<Long> ids = new LinkedHashSet<>(request.getIds());
+            if (ids.size() > MAX_BULK_SIZE) {
+                throw new IllegalArgumentException("At most " + MAX_BULK_SIZE + " appointments per request");
+            }
+            targets = appointmentRepository.findSlotsByIdsForUpdate(ids);
+            Set<Long> found = targets.stream().map(AppointmentSlot::getId).collect(Collectors.toSet());
+            ids.stream()
+                    .filter(id -> !found.contains(id))
+                    .forEach(id -> addItem(result, id, BulkAppointmentResult.NOT_FOUND, "Appointment not found"));
+        } else {
+            if (!request.getFrom().isBefore(request.getTo())) {
+                throw new IllegalArgumentException("from must be before to");
+            }
+            targets = appointmentRepository.findDoctorSlotsForUpdate(request.getDoctorId(),
+                    request.getFrom(), request.getTo());
+            if (targets.size() > MAX_BULK_SIZE) {
+                throw new IllegalArgumentException("Window contains more than " + MAX_BULK_SIZE + " appointments");
+            }
+        }
+        return targets;
+    }
+
+    /**
+     * Drop the slots whose shifted time overlaps another SCHEDULED appointment of the same doctor or patient,
+     * recording a CONFLICT item for each. All candidates are checked against a single query.
+     * A rejected candidate stays where it is, so the check is repeated against the rejected candidates
+     * until no further candidate is dropped.
+     */
+    private List<AppointmentSlot> withoutConflicts(List<AppointmentSlot> slots, int shiftMinutes,
+                                                   BulkAppointmentResult result) {
+        if (slots.isEmpty()) {
+            return slots;
+        }
+
+        Set<Long> doctorIds = slots.stream().map(AppointmentSlot::getDoctorId).collect(Collectors.toSet());
+        Set<Long> patientIds = slots.stream().map(AppointmentSlot::getPatientId).collect(Collectors.toSet());
+        LocalDateTime from = slots.stream().map(slot -> slot.getAppointmentDateTime().plusMinutes(shiftMinutes))
+                .min(Comparator.naturalOrder()).get().minus(CONFLICT_LOOKBACK);
+        LocalDateTime to = slots.stream().map(slot -> endOf(slot).plusMinutes(shiftMinutes))
+                .max(Comparator.naturalOrder()).get();
+        // Current times of everything in range, including the candidates themselves
+        List<AppointmentSlot> scheduled = appointmentRepository.findScheduledSlots(doctorIds, patientIds, from, to);
+
+        List<AppointmentSlot> free = slots;
+        boolean dropped = true;
+        while (dropped) {
+            // Moving appointments keep their relative times, so they are only checked against the rows staying put
+            Set<Long> moving = free.stream().map(AppointmentSlot::getId).collect(Collectors.toSet());
+            List<AppointmentSlot> staying = scheduled.stream()
+                    .filter(other -> !moving.contains(other.getId()))
+                    .collect(Collectors.toList());
+
+            List<AppointmentSlot> next = new ArrayList<>(free.size());
+            for (AppointmentSlot slot : free) {
+                LocalDateTime start = slot.getAppointmentDateTime().plusMinutes(shiftMinutes);
+                LocalDateTime end = endOf(slot).plusMinutes(shiftMinutes);
+                Optional<AppointmentSlot> clash = staying.stream()
+                        .filter(other -> other.getDoctorId().equals(slot.getDoctorId())
+                                || other.getPatientId().equals(slot.getPatientId()))
+                        .filter(other -> other.getAppointmentDateTime().isBefore(end) && start.isBefore(endOf(other)))
+                        .findFirst();
+                if (clash.isPresent()) {
+                    addItem(result, slot.getId(), BulkAppointmentResult.CONFLICT,
+                            "Overlaps appointment " + clash.get().getId());
+                } else {
+                    next.add(slot);
+                }
+            }
+            dropped = next.size() < free.size();
+            free = next;
+        }
+        return free;
+    }
+
+    private LocalDateTime endOf(AppointmentSlot slot) {
+        int duration = slot.getDurationMinutes() == null ? DEFAULT_DURATION_MINUTES : slot.getDurationMinutes();
+        return slot.getAppointmentDateTime().plusMinutes(duration);
+    }
+
+    private void addItem(BulkAppointmentResult result, Long appointmentId, String outcome, String message) {
+        result.getItems().add(new BulkAppointmentResult.Item(appointmentId, outcome, message));
+    }
+
+    /**
+     * Publish one change event per updated appointment of a bulk change.
+     */
+    private void publishBulkEvents(Collection<AppointmentSlot> slots, String action, int shiftMinutes, String newStatus) {
+        String type = BulkAppointmentRequest.CANCEL.equals(action) ? AppointmentEvent.CANCELLED
+                : BulkAppointmentRequest.COMPLETE.equals(action) ? AppointmentEvent.STATUS_CHANGED
+                : AppointmentEvent.UPDATED;
+        publishSlotEvents(slots, type, shiftMinutes, newStatus);
+    }
+
+    /**
+     * Publish one change event per updated appointment, loading patient names in one query.
+     * Listeners receive the events after the surrounding transaction commits, so callers
+     * outside this service (such as the sweeper) must call it inside their own transaction.
+     *
+     * @param slots the updated appointments, as read before the update
+     * @param type the change type
+     * @param shiftMinutes minutes the appointments were moved by
+     * @param newStatus the status after the update
+     */
+    public void publishSlotEvents(Collection<AppointmentSlot> slots, String type, int shiftMinutes, String newStatus) {
+        Map<Long, String> patientNames = new HashMap<>();
+        Set<Long> patientIds = slots.stream().map(AppointmentSlot::getPatientId).collect(Collectors.toSet());
+        for (Object[] row : patientRepository.findNamesByIds(patientIds)) {
+            patientNames.put((Long) row[0], (String) row[1]);
+        }
+        for (AppointmentSlot slot : slots) {
+            eventPublisher.publishEvent(new AppointmentEvent(type, slot.getId(), slot.getDoctorId(),
+                    slot.getPatientId(), patientNames.get(slot.getPatientId()),
+                    slot.getAppointmentDateTime().plusMinutes(shiftMinutes), slot.getDurationMinutes(), newStatus));
+        }
+    }
+
+    /**
+     * Check the patient of a SCHEDULED appointment in. The sweeper completes checked-in
+     * appointments once they are over and marks the others NO_SHOW.
+     *
+     * @param id the appointment ID
+     * @param restrictToDoctorId when set, only this doctor's appointment can be checked in
+     * @return the checked-in appointment, or empty if not found (or not the doctor's own)
+     * @throws IllegalStateException if the appointment is no longer SCHEDULED
+     */
+    @Bulkhead(WorkloadClass.BOOKING)
+    public Optional<Appointment> checkIn(Long id, Long restrictToDoctorId) {
+        return shardService.inClinic(clinicOf(id), () -> transactionTemplate.execute(status -> {
+            Optional<Appointment> appointment = appointmentRepository.findById(id)
+                    .filter(found -> restrictToDoctorId == null || restrictToDoctorId.equals(found.getDoctor().getId()));
+            if (appointment.isEmpty()) {
+                return appointment;
+            }
+            if (!"SCHEDULED".equals(appointment.get().getStatus())) {
+                throw new IllegalStateException("Only scheduled appointments can be checked in");
+            }
+            if (appointmentRepository.markCheckedIn(id, LocalDateTime.now()) == 0) {
+                return appointmentRepository.findById(id);
+            }
+            Optional<Appointment> checkedIn = appointmentRepository.findById(id);
+            checkedIn.ifPresent(updated -> publishEvent(AppointmentEvent.UPDATED, updated));
+            return checkedIn;
+        }));
     }
 
     /**
      * Delete appointment by ID.
+     * Its prescriptions are removed from MongoDB by the outbox relay.
+     * Runs on the appointment's shard.
      *
      * @param id the appointment ID
      */
+    @Bulkhead(WorkloadClass.BOOKING)
     public void deleteAppointment(Long id) {
-        appointmentRepository.deleteById(id);
+        shardService.inClinic(clinicOf(id), () -> transactionTemplate.execute(status -> {
+            appointmentRepository.findById(id).ifPresent(appointment -> {
+                appointmentRepository.delete(appointment);
+                publishEvent(AppointmentEvent.DELETED, appointment);
+            });
+            outboxService.record(OutboxService.APPOINTMENT, id, OutboxService.DELETED, Map.of());
+            return null;
+        }));
+    }
+
+    /**
+     * Get the clinic of an appointment, looking on every shard when the request does not belong to a clinic.
+     *
+     * @param id the appointment ID
+     * @return the appointment's clinic, or null if it has none or does not exist
+     */
+    private Long clinicOf(Long id) {
+        return shardService.findAny(() -> appointmentRepository.findById(id)).map(Appointment::getClinicId).orElse(null);
     }
 
     /**
      * Get appointments by doctor ID.
+     * Runs on every shard when the request does not belong to a clinic.
      *
      * @param doctorId the doctor ID
      * @return List of appointments
      */
+    @Bulkhead(WorkloadClass.INTERACTIVE)
+    @Transactional(readOnly = true)
     public List<Appointment> getAppointmentsByDoctorId(Long doctorId) {
-        return appointmentRepository.findByDoctorId(doctorId);
+        return shardService.scatterGather(() -> appointmentRepository.findByDoctorId(doctorId));
     }
 
     /**
      * Get appointments by patient ID.
+     * Runs on every shard when the request does not belong to a clinic.
      *
      * @param patientId the patient ID
      * @return List of appointments
      */
+    @Bulkhead(WorkloadClass.INTERACTIVE)
+    @Transactional(readOnly = true)
     public List<Appointment> getAppointmentsByPatientId(Long patientId) {
-        return appointmentRepository.findByPatientId(patientId);
+        return shardService.scatterGather(() -> appointmentRepository.findByPatientId(patientId));
     }
 
     /**
      * Get appointments by status.
+     * Runs on every shard when the request does not belong to a clinic.
      *
      * @param status the status
      * @return List of appointments
      */
+    @Bulkhead(WorkloadClass.REPORTING)
+    @Transactional(readOnly = true)
     public List<Appointment> getAppointmentsByStatus(String status) {
-        return appointmentRepository.findByStatus(status);
+        return shardService.scatterGather(() -> appointmentRepository.findByStatus(status));
     }
 
     /**
      * Get appointments in date range.
+     * Runs on every shard when the request does not belong to a clinic.
      *
      * @param start the start date
      * @param end the end date
      * @return List of appointments
      */
+    @Bulkhead(WorkloadClass.REPORTING)
+    @Transactional(readOnly = true)
     public List<Appointment> getAppointmentsByDateRange(LocalDateTime start, LocalDateTime end) {
-        return appointmentRepository.findByAppointmentDateTimeBetween(start, end);
+        return shardService.scatterGather(() -> appointmentRepository.findByAppointmentDateTimeBetween(start, end));
     }
 
     /**
      * Create appointment from DTO.
+     * The appointment belongs to the doctor's clinic and is written to that clinic's shard.
+     * A SCHEDULED appointment must lie within the doctor's availability.
      *
      * @param dto the appointment DTO
      * @return saved appointment
+     * @throws IllegalArgumentException if a SCHEDULED appointment is outside the doctor's availability
      * @throws RuntimeException if doctor or patient not found
      */
+    @Bulkhead(WorkloadClass.BOOKING)
     public Appointment createAppointment(AppointmentDto dto) {
-        Doctor doctor = doctorRepository.findById(dto.getDoctorId())
+        // Booking only needs the doctor and patient as references, so they come from the lookup caches
+        Doctor doctor = doctorService.getDoctorById(dto.getDoctorId())
                 .orElseThrow(() -> new RuntimeException("Doctor not found with id: " + dto.getDoctorId()));
 
-        Patient patient = patientRepository.findById(dto.getPatientId())
+        Patient patient = patientService.getPatientById(dto.getPatientId())
                 .orElseThrow(() -> new RuntimeException("Patient not found with id: " + dto.getPatientId()));
 
+        if ("SCHEDULED".equals(dto.getStatus()) && !doctorAvailabilityService.isAvailable(doctor.getId(),
+                dto.getAppointmentDateTime(), dto.getDurationMinutes())) {
+            throw new IllegalArgumentException("Doctor is not available at " + dto.getAppointmentDateTime());
+        }
+
         Appointment appointment = new Appointment();
         appointment.setDoctor(doctor);
         appointment.setPatient(patient);
+        appointment.setClinicId(doctor.getClinicId());
         appointment.setAppointmentDateTime(dto.getAppointmentDateTime());
         appointment.setDurationMinutes(dto.getDurationMinutes());
         appointment.setStatus(dto.getStatus());
@@ -134,11 +532,28 @@ public class AppointmentService {
         appointment.setNotes(dto.getNotes());
         appointment.setCreatedAt(LocalDateTime.now());
 
-        return appointmentRepository.save(appointment);
+        return shardService.inClinic(doctor.getClinicId(), () -> transactionTemplate.execute(status -> {
+            Appointment saved = appointmentRepository.save(appointment);
+            publishEvent(AppointmentEvent.BOOKED, saved);
+            return saved;
+        }));
+    }
+
+    /**
+     * Publish an appointment change; listeners receive it after the surrounding transaction commits.
+     *
+     * @param type the change type
+     * @param appointment the changed appointment
+     */
+    private void publishEvent(String type, Appointment appointment) {
+        eventPublisher.publishEvent(new AppointmentEvent(type, appointment.getId(),
+                appointment.getDoctor().getId(), appointment.getPatient().getId(), appointment.getPatient().getName(),
+                appointment.getAppointmentDateTime(), appointment.getDurationMinutes(), appointment.getStatus()));
     }
 
     /**
      * Convert Appointment to AppointmentDto.
+     * Reason and notes are left out so list queries never load them; see getAppointmentDetails.
      *
      * @param appointment the appointment
      * @return AppointmentDto
@@ -154,21 +569,162 @@ public class AppointmentService {
         dto.setAppointmentDateTime(appointment.getAppointmentDateTime());
         dto.setDurationMinutes(appointment.getDurationMinutes());
         dto.setStatus(appointment.getStatus());
-        dto.setReason(appointment.getReason());
-        dto.setNotes(appointment.getNotes());
+        dto.setCheckedInAt(appointment.getCheckedInAt());
+        dto.setSeriesId(appointment.getSeriesId());
+        dto.setOccurrenceIndex(appointment.getOccurrenceIndex());
         return dto;
     }
 
+    /**
+     * Convert ArchivedAppointment to AppointmentDto.
+     * Reason and notes are left out so list queries never load them; see getAppointmentDetails.
+     *
+     * @param appointment the archived appointment
+     * @return AppointmentDto
+     */
+    public AppointmentDto toDto(ArchivedAppointment appointment) {
+        AppointmentDto dto = new AppointmentDto();
+        dto.setId(appointment.getId());
+        dto.setDoctorId(appointment.getDoctor().getId());
+        dto.setPatientId(appointment.getPatient().getId());
+        dto.setDoctorName(appointment.getDoctor().getName());
+        dto.setPatientName(appointment.getPatient().getName());
+        dto.setDoctorSpecialty(appointment.getDoctor().getSpecialty());
+        dto.setAppointmentDateTime(appointment.getAppointmentDateTime());
+        dto.setDurationMinutes(appointment.getDurationMinutes());
+        dto.setStatus(appointment.getStatus());
+        return dto;
+    }
+
+    /**
+     * Get a page of a patient's appointment history across current and archived appointments.
+     *
+     * @param patientId the patient ID
+     * @param before only return appointments before this time (null for the first page)
+     * @param beforeId also return appointments at exactly {@code before} with a lower ID (null for none)
+     * @param size the page size
+     * @return page of appointments, newest first
+     */
+    @Bulkhead(WorkloadClass.INTERACTIVE)
+    @Transactional(readOnly = true)
+    public AppointmentHistoryPage getPatientHistory(Long patientId, LocalDateTime before, Long beforeId, int size) {
+        LocalDateTime bound = before == null ? RANGE_END : before;
+        long idBound = beforeId == null ? 0L : beforeId;
+        Pageable page = PageRequest.of(0, size);
+        return mergeHistory(
+                shardService.scatterGather(() -> appointmentRepository.findPatientHistory(patientId, bound, idBound, page)),
+                shardService.scatterGather(() -> archivedAppointmentRepository.findPatientHistory(patientId, bound, idBound, page)),
+                size);
+    }
+
+    /**
+     * Get a page of a doctor's appointment history across current and archived appointments.
+     *
+     * @param doctorId the doctor ID
+     * @param before only return appointments before this time (null for the first page)
+     * @param beforeId also return appointments at exactly {@code before} with a lower ID (null for none)
+     * @param size the page size
+     * @return page of appointments, newest first
+     */
+    @Bulkhead(WorkloadClass.INTERACTIVE)
+    @Transactional(readOnly = true)
+    public AppointmentHistoryPage getDoctorHistory(Long doctorId, LocalDateTime before, Long beforeId, int size) {
+        LocalDateTime bound = before == null ? RANGE_END : before;
+        long idBound = beforeId == null ? 0L : beforeId;
+        Pageable page = PageRequest.of(0, size);
+        return mergeHistory(
+                shardService.scatterGather(() -> appointmentRepository.findDoctorHistory(doctorId, bound, idBound, page)),
+                shardService.scatterGather(() -> archivedAppointmentRepository.findDoctorHistory(doctorId, bound, idBound, page)),
+                size);
+    }
+
+    /**
+     * Merge one page from each store (and each shard) into a single newest-first page.
+     * Every input page is limited to size, so the merged page is exact.
+     */
+    private AppointmentHistoryPage mergeHistory(List<Appointment> hot, List<ArchivedAppointment> archived, int size) {
+        List<AppointmentDto> merged = new ArrayList<>(hot.size() + archived.size());
+        hot.forEach(a -> merged.add(toDto(a)));
+        archived.forEach(a -> merged.add(toDto(a)));
+        merged.sort(NEWEST_FIRST);
+
+        List<AppointmentDto> items = merged.size() > size ? new ArrayList<>(merged.subList(0, size)) : merged;
+        AppointmentDto last = !items.isEmpty() && items.size() == size ? items.get(items.size() - 1) : null;
+        return new AppointmentHistoryPage(items, last == null ? null : last.getAppointmentDateTime(),
+                last == null ? null : last.getId());
+    }
+
+    /**
+     * Get appointments by doctor, optionally bounded by date so MySQL only reads the matching partitions.
+     * A query with an end date is a calendar query and also returns the occurrences of appointment
+     * series in range that are not materialized yet; these have a series ID but no ID.
+     *
+     * @param doctorId the doctor ID
+     * @param from the start date (null for unbounded)
+     * @param to the end date (null for unbounded)
+     * @return List of appointment DTOs
+     */
+    @Bulkhead(WorkloadClass.INTERACTIVE)
+    @Transactional(readOnly = true)
+    public List<AppointmentDto> getAppointmentsByDoctor(Long doctorId, LocalDateTime from, LocalDateTime to) {
+        if (from == null && to == null) {
+            return getAppointmentsByDoctorId(doctorId).stream().map(this::toDto).collect(Collectors.toList());
+        }
+        LocalDateTime start = from == null ? RANGE_START : from;
+        List<AppointmentDto> appointments = getAppointmentsByDoctorAndDateRange(doctorId, start,
+                to == null ? RANGE_END : to);
+        if (to != null) {
+            List<AppointmentDto> pending = appointmentSeriesService.getPendingOccurrencesForDoctor(doctorId, start, to);
+            if (!pending.isEmpty()) {
+                appointments.addAll(pending);
+                appointments.sort(Comparator.comparing(AppointmentDto::getAppointmentDateTime));
+            }
+        }
+        return appointments;
+    }
+
+    /**
+     * Get appointments by patient, optionally bounded by date so MySQL only reads the matching partitions.
+     * A query with an end date is a calendar query and also returns the occurrences of appointment
+     * series in range that are not materialized yet; these have a series ID but no ID.
+     *
+     * @param patientId the patient ID
+     * @param from the start date (null for unbounded)
+     * @param to the end date (null for unbounded)
+     * @return List of appointment DTOs
+     */
+    @Bulkhead(WorkloadClass.INTERACTIVE)
+    @Transactional(readOnly = true)
+    public List<AppointmentDto> getAppointmentsByPatient(Long patientId, LocalDateTime from, LocalDateTime to) {
+        if (from == null && to == null) {
+            return getAppointmentsByPatientId(patientId).stream().map(this::toDto).collect(Collectors.toList());
+        }
+        LocalDateTime start = from == null ? RANGE_START : from;
+        List<AppointmentDto> appointments = getAppointmentsByPatientAndDateRange(patientId, start,
+                to == null ? RANGE_END : to);
+        if (to != null) {
+            List<AppointmentDto> pending = appointmentSeriesService.getPendingOccurrencesForPatient(patientId, start, to);
+            if (!pending.isEmpty()) {
+                appointments.addAll(pending);
+                appointments.sort(Comparator.comparing(AppointmentDto::getAppointmentDateTime));
+            }
+        }
+        return appointments;
+    }
+
     /**
      * Get appointments by doctor and date range.
+     * Runs on every shard when the request does not belong to a clinic.
      *
      * @param doctorId the doctor ID
      * @param start the start date
      * @param end the end date
      * @return List of appointment DTOs
      */
+    @Bulkhead(WorkloadClass.INTERACTIVE)
+    @Transactional(readOnly = true)
     public List<AppointmentDto> getAppointmentsByDoctorAndDateRange(Long doctorId, LocalDateTime start, LocalDateTime end) {
-        return appointmentRepository.findByDoctorAndDateRange(doctorId, start, end)
+        return shardService.scatterGather(() -> appointmentRepository.findByDoctorAndDateRange(doctorId, start, end))
                 .stream()
                 .map(this::toDto)
                 .collect(Collectors.toList());
@@ -176,14 +732,17 @@ public class AppointmentService {
 
     /**
      * Get appointments by patient and date range.
+     * Runs on every shard when the request does not belong to a clinic.
      *
      * @param patientId the patient ID
      * @param start the start date
      * @param end the end date
      * @return List of appointment DTOs
      */
+    @Bulkhead(WorkloadClass.INTERACTIVE)
+    @Transactional(readOnly = true)
     public List<AppointmentDto> getAppointmentsByPatientAndDateRange(Long patientId, LocalDateTime start, LocalDateTime end) {
-        return appointmentRepository.findByPatientAndDateRange(patientId, start, end)
+        return shardService.scatterGather(() -> appointmentRepository.findByPatientAndDateRange(patientId, start, end))
                 .stream()
                 .map(this::toDto)
                 .collect(Collectors.toList());
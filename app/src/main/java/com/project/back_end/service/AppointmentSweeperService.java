@@ -0,0 +1,182 @@
+package com.project.back_end.service;
+
+import com.project.back_end.config.TenantContext;
+import com.project.back_end.dto.AppointmentEvent;
+import com.project.back_end.dto.AppointmentSlot;
+import com.project.back_end.repository.AppointmentRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Service closing out appointments whose end time has passed while still SCHEDULED.
+ * Appointments the doctor checked the patient in for are completed; the others are
+ * marked NO_SHOW, so completion and revenue reports only count visits that took place.
+ * Runs on one instance at a time (guarded by a job lease renewed after every chunk) and
+ * updates rows with set-based UPDATEs in bounded chunks, each chunk in its own short
+ * transaction. An appointment event is published per closed appointment.
+ *
+ * <p>Metrics: {@code appointment.sweeper.rows} (rows closed),
+ * {@code appointment.sweeper.lag} (seconds since the oldest overdue appointment ended,
+ * measured before each run) and {@code appointment.sweeper.run} (run duration).</p>
+ */
+@Service
+public class AppointmentSweeperService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AppointmentSweeperService.class);
+    private static final String LEASE_NAME = "appointment-sweeper";
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private JobLeaseService jobLeaseService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ShardService shardService;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Value("${appointment.sweeper.enabled:true}")
+    private boolean enabled;
+
+    @Value("${appointment.sweeper.attended-status:COMPLETED}")
+    private String attendedStatus;
+
+    @Value("${appointment.sweeper.absent-status:NO_SHOW}")
+    private String absentStatus;
+
+    @Value("${appointment.sweeper.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${appointment.sweeper.max-chunks-per-run:200}")
+    private int maxChunksPerRun;
+
+    @Value("${appointment.sweeper.lease-seconds:240}")
+    private long leaseSeconds;
+
+    private final Counter rowsCounter;
+    private final Timer runTimer;
+    private final AtomicLong lagSeconds = new AtomicLong();
+
+    public AppointmentSweeperService(MeterRegistry meterRegistry) {
+        this.rowsCounter = Counter.builder("appointment.sweeper.rows")
+                .description("Overdue appointments moved to a terminal status")
+                .register(meterRegistry);
+        this.runTimer = Timer.builder("appointment.sweeper.run")
+                .description("Duration of sweeper runs")
+                .register(meterRegistry);
+        meterRegistry.gauge("appointment.sweeper.lag", lagSeconds);
+    }
+
+    /**
+     * Close overdue SCHEDULED appointments.
+     */
+    @Scheduled(cron = "${appointment.sweeper.cron:0 */5 * * * *}")
+    public void sweepOverdueAppointments() {
+        if (!enabled || !jobLeaseService.tryAcquire(LEASE_NAME, Duration.ofSeconds(leaseSeconds))) {
+            return;
+        }
+        AtomicBoolean leaseHeld = new AtomicBoolean(true);
+        try {
+            runTimer.record(() -> shardService.forEachShard(() -> sweep(leaseHeld)));
+        } catch (RuntimeException e) {
+            logger.warn("Appointment sweeper run failed: {}", e.getMessage());
+        } finally {
+            jobLeaseService.release(LEASE_NAME);
+        }
+    }
+
+    private void sweep(AtomicBoolean leaseHeld) {
+        if (!leaseHeld.get()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime oldestEnd = appointmentRepository.findOldestOverdueScheduledEnd(now);
+        lagSeconds.set(oldestEnd == null ? 0 : Duration.between(oldestEnd, now).getSeconds());
+
+        long total = 0;
+        for (int chunk = 0; chunk < maxChunksPerRun; chunk++) {
+            List<AppointmentSlot> closed = transactionTemplate.execute(status -> closeChunk(now));
+            int rows = closed == null ? 0 : closed.size();
+            rowsCounter.increment(rows);
+            total += rows;
+            if (rows < chunkSize) {
+                break;
+            }
+            if (!renewLease()) {
+                logger.warn("Appointment sweeper lost its lease; stopping this run");
+                leaseHeld.set(false);
+                break;
+            }
+        }
+        if (total > 0) {
+            logger.info("Appointment sweeper moved {} overdue appointments to {} or {}", total, attendedStatus, absentStatus);
+        }
+    }
+
+    /**
+     * Lock one chunk of overdue appointments, move checked-in ones to the attended status
+     * and the rest to the absent status, and publish their events, which listeners receive
+     * once the chunk commits.
+     */
+    private List<AppointmentSlot> closeChunk(LocalDateTime now) {
+        List<AppointmentSlot> slots = appointmentRepository.findOverdueScheduledForUpdate(now, PageRequest.of(0, chunkSize));
+        if (slots.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Long> ids = slots.stream().map(AppointmentSlot::getId).collect(Collectors.toList());
+        Set<Long> checkedIn = new HashSet<>(appointmentRepository.findCheckedInIds(ids));
+        Map<Boolean, List<AppointmentSlot>> byAttendance = slots.stream()
+                .collect(Collectors.partitioningBy(slot -> checkedIn.contains(slot.getId())));
+        close(byAttendance.get(true), attendedStatus);
+        close(byAttendance.get(false), absentStatus);
+        return slots;
+    }
+
+    private void close(List<AppointmentSlot> slots, String status) {
+        if (slots.isEmpty()) {
+            return;
+        }
+        List<Long> ids = slots.stream().map(AppointmentSlot::getId).collect(Collectors.toList());
+        appointmentRepository.updateScheduledStatus(ids, status);
+        appointmentService.publishSlotEvents(slots, AppointmentEvent.STATUS_CHANGED, 0, status);
+    }
+
+    /**
+     * Extend the lease for another lease period. The lease lives on the default shard,
+     * so the shard selected by forEachShard is cleared while renewing.
+     */
+    private boolean renewLease() {
+        String shard = TenantContext.getShard();
+        TenantContext.setShard(null);
+        try {
+            return jobLeaseService.tryAcquire(LEASE_NAME, Duration.ofSeconds(leaseSeconds));
+        } finally {
+            TenantContext.setShard(shard);
+        }
+    }
+}
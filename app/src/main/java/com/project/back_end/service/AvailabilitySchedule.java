@@ -0,0 +1,230 @@
+package com.project.back_end.service;
+
+import com.project.back_end.model.DoctorAvailability;
+import com.project.back_end.model.DoctorAvailabilityOverride;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.TextStyle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compiled availability of one doctor.
+ * Each day of the week, and each date with overrides, is held as bookable windows in
+ * minutes of the day, sorted by start, plus the same windows merged into disjoint
+ * intervals. Checking whether a time range is covered is a binary search over the merged
+ * intervals. Instances are immutable and therefore thread-safe.
+ */
+public final class AvailabilitySchedule {
+
+    private static final int[] NONE = new int[0];
+
+    // Per day: windows as {start, end, slot} triples and merged coverage as {start, end} pairs
+    private final int[][] weeklyWindows = new int[7][];
+    private final int[][] weeklyCoverage = new int[7][];
+    private final Map<LocalDate, int[]> dateWindows = new HashMap<>();
+    private final Map<LocalDate, int[]> dateCoverage = new HashMap<>();
+
+    /**
+     * Compile a schedule.
+     *
+     * @param rules the doctor's weekly rules
+     * @param overrides the doctor's date overrides
+     */
+    public AvailabilitySchedule(List<DoctorAvailability> rules, List<DoctorAvailabilityOverride> overrides) {
+        List<List<int[]>> byDay = new ArrayList<>(7);
+        for (int day = 0; day < 7; day++) {
+            byDay.add(new ArrayList<>());
+        }
+        for (DoctorAvailability rule : rules) {
+            byDay.get(rule.getDayOfWeek() - 1).add(window(rule.getStartTime(), rule.getEndTime(), rule.getSlotMinutes()));
+        }
+        for (int day = 0; day < 7; day++) {
+            weeklyWindows[day] = flatten(byDay.get(day));
+            weeklyCoverage[day] = merge(byDay.get(day));
+        }
+
+        Map<LocalDate, List<int[]>> byDate = new HashMap<>();
+        for (DoctorAvailabilityOverride override : overrides) {
+            List<int[]> windows = byDate.computeIfAbsent(override.getDate(), date -> new ArrayList<>());
+            if (!override.isDayOff()) {
+                windows.add(window(override.getStartTime(), override.getEndTime(), override.getSlotMinutes()));
+            }
+        }
+        byDate.forEach((date, windows) -> {
+            dateWindows.put(date, flatten(windows));
+            dateCoverage.put(date, merge(windows));
+        });
+    }
+
+    /**
+     * Check whether the doctor is available for the whole of [start, end) on a date.
+     *
+     * @param date the date
+     * @param start the start time
+     * @param end the end time (exclusive)
+     * @return true if the range is within the doctor's availability
+     */
+    public boolean covers(LocalDate date, LocalTime start, LocalTime end) {
+        return covers(coverageOn(date), minutes(start), minutes(end));
+    }
+
+    /**
+     * Check whether the weekly rules cover [start, end) on at least one day of the week.
+     *
+     * @param start the start time
+     * @param end the end time (exclusive)
+     * @return true if some weekday covers the range
+     */
+    public boolean coversOnAnyDay(LocalTime start, LocalTime end) {
+        int from = minutes(start);
+        int to = minutes(end);
+        for (int[] coverage : weeklyCoverage) {
+            if (covers(coverage, from, to)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Get the slots on a date.
+     *
+     * @param date the date
+     * @return slots in order of start time, one per start time
+     */
+    public List<Slot> slots(LocalDate date) {
+        int[] windows = dateWindows.containsKey(date)
+                ? dateWindows.get(date)
+                : weeklyWindows[date.getDayOfWeek().getValue() - 1];
+        // Overlapping windows may produce the same start; the first window's slot wins
+        TreeMap<Integer, Slot> slots = new TreeMap<>();
+        for (int i = 0; i < windows.length; i += 3) {
+            int length = windows[i + 2];
+            for (int start = windows[i]; start + length <= windows[i + 1]; start += length) {
+                slots.putIfAbsent(start, new Slot(time(start), time(start + length)));
+            }
+        }
+        return new ArrayList<>(slots.values());
+    }
+
+    /**
+     * Describe the weekly availability, e.g. "Mon 09:00-12:00".
+     *
+     * @return one entry per merged interval, Monday first
+     */
+    public List<String> describeWeek() {
+        List<String> description = new ArrayList<>();
+        for (int day = 0; day < 7; day++) {
+            String name = DayOfWeek.of(day + 1).getDisplayName(TextStyle.SHORT, Locale.ENGLISH);
+            int[] coverage = weeklyCoverage[day];
+            for (int i = 0; i < coverage.length; i += 2) {
+                description.add(name + " " + format(coverage[i]) + "-" + format(coverage[i + 1]));
+            }
+        }
+        return description;
+    }
+
+    private int[] coverageOn(LocalDate date) {
+        int[] coverage = dateCoverage.get(date);
+        return coverage != null ? coverage : weeklyCoverage[date.getDayOfWeek().getValue() - 1];
+    }
+
+    /**
+     * Binary search for the last interval starting at or before from; merged intervals are
+     * disjoint, so the range is covered only if that interval also reaches to.
+     */
+    private static boolean covers(int[] coverage, int from, int to) {
+        int low = 0;
+        int high = coverage.length / 2 - 1;
+        int found = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (coverage[mid * 2] <= from) {
+                found = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return found >= 0 && coverage[found * 2 + 1] >= to;
+    }
+
+    private static int[] window(LocalTime start, LocalTime end, Integer slotMinutes) {
+        return new int[]{minutes(start), minutes(end), slotMinutes == null ? 30 : slotMinutes};
+    }
+
+    private static int[] flatten(List<int[]> windows) {
+        if (windows.isEmpty()) {
+            return NONE;
+        }
+        windows.sort(Comparator.comparingInt(window -> window[0]));
+        int[] flat = new int[windows.size() * 3];
+        for (int i = 0; i < windows.size(); i++) {
+            System.arraycopy(windows.get(i), 0, flat, i * 3, 3);
+        }
+        return flat;
+    }
+
+    private static int[] merge(List<int[]> windows) {
+        if (windows.isEmpty()) {
+            return NONE;
+        }
+        List<int[]> sorted = new ArrayList<>(windows);
+        sorted.sort(Comparator.comparingInt(window -> window[0]));
+        int[] merged = new int[sorted.size() * 2];
+        int count = 0;
+        for (int[] window : sorted) {
+            if (count > 0 && window[0] <= merged[count * 2 - 1]) {
+                merged[count * 2 - 1] = Math.max(merged[count * 2 - 1], window[1]);
+            } else {
+                merged[count * 2] = window[0];
+                merged[count * 2 + 1] = window[1];
+                count++;
+            }
+        }
+        return Arrays.copyOf(merged, count * 2);
+    }
+
+    private static int minutes(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+
+    private static LocalTime time(int minutes) {
+        return minutes >= 24 * 60 ? LocalTime.MAX : LocalTime.of(minutes / 60, minutes % 60);
+    }
+
+    private static String format(int minutes) {
+        return String.format("%02d:%02d", minutes / 60, minutes % 60);
+    }
+
+    /**
+     * One bookable slot.
+     */
+    public static final class Slot {
+
+        private final LocalTime start;
+        private final LocalTime end;
+
+        Slot(LocalTime start, LocalTime end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        public LocalTime getStart() {
+            return start;
+        }
+
+        public LocalTime getEnd() {
+            return end;
+        }
+    }
+}
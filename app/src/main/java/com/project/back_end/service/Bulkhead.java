@@ -0,0 +1,25 @@
+package com.project.back_end.service;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a service method (or every public method of a service class) as belonging to a
+ * workload class. Calls are admitted by BulkheadAspect within that class's concurrency limit;
+ * an annotation on the method overrides the one on the class.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface Bulkhead {
+
+    /**
+     * The workload class of the call.
+     *
+     * @return workload class
+     */
+    WorkloadClass value();
+}
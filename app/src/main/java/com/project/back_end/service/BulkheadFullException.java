@@ -0,0 +1,23 @@
+package com.project.back_end.service;
+
+/**
+ * Thrown when a call cannot enter its bulkhead within the configured wait time.
+ */
+public class BulkheadFullException extends RuntimeException {
+
+    private final WorkloadClass workloadClass;
+
+    public BulkheadFullException(WorkloadClass workloadClass, String message) {
+        super(message);
+        this.workloadClass = workloadClass;
+    }
+
+    /**
+     * Get the workload class whose bulkhead was full.
+     *
+     * @return workload class
+     */
+    public WorkloadClass getWorkloadClass() {
+        return workloadClass;
+    }
+}
@@ -0,0 +1,146 @@
+package com.project.back_end.service;
+
+import com.project.back_end.config.TenantContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service holding one semaphore bulkhead per workload class and, when
+ * {@code bulkhead.per-tenant.enabled=true}, one per workload class and clinic.
+ * A call waits at most {@code bulkhead.<class>.max-wait-ms} for a permit and is otherwise
+ * rejected with BulkheadFullException.
+ *
+ * <p>Metrics (tagged with {@code workload}): {@code bulkhead.active}, {@code bulkhead.available},
+ * {@code bulkhead.wait} (time spent queueing) and {@code bulkhead.rejected}
+ * (additionally tagged {@code scope=class|tenant}).</p>
+ */
+@Service
+public class BulkheadRegistry {
+
+    private final Map<WorkloadClass, Compartment> compartments = new EnumMap<>(WorkloadClass.class);
+    private final Map<String, Semaphore> tenantSemaphores = new ConcurrentHashMap<>();
+    private final boolean perTenant;
+
+    public BulkheadRegistry(Environment environment, MeterRegistry meterRegistry) {
+        this.perTenant = environment.getProperty("bulkhead.per-tenant.enabled", Boolean.class, false);
+        for (WorkloadClass workload : WorkloadClass.values()) {
+            String prefix = "bulkhead." + workload.key() + ".";
+            Compartment compartment = new Compartment(
+                    environment.getProperty(prefix + "max-concurrent", Integer.class, 10),
+                    environment.getProperty(prefix + "max-wait-ms", Long.class, 500L),
+                    environment.getProperty(prefix + "per-tenant-max-concurrent", Integer.class, 5),
+                    Timer.builder("bulkhead.wait").tag("workload", workload.key())
+                            .description("Time spent waiting to enter the bulkhead").register(meterRegistry),
+                    Counter.builder("bulkhead.rejected").tag("workload", workload.key()).tag("scope", "class")
+                            .description("Calls rejected because the bulkhead was full").register(meterRegistry),
+                    Counter.builder("bulkhead.rejected").tag("workload", workload.key()).tag("scope", "tenant")
+                            .description("Calls rejected because the bulkhead was full").register(meterRegistry));
+            compartments.put(workload, compartment);
+            Gauge.builder("bulkhead.active", compartment, c -> c.maxConcurrent - c.semaphore.availablePermits())
+                    .tag("workload", workload.key()).register(meterRegistry);
+            Gauge.builder("bulkhead.available", compartment, c -> c.semaphore.availablePermits())
+                    .tag("workload", workload.key()).register(meterRegistry);
+        }
+    }
+
+    /**
+     * Enter the bulkhead of a workload class (and of the current clinic, if per-tenant bulkheads are on).
+     *
+     * @param workload the workload class
+     * @return permit to close when the call completes
+     * @throws BulkheadFullException if no permit became available within the wait time
+     */
+    public Permit acquire(WorkloadClass workload) {
+        Compartment compartment = compartments.get(workload);
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(compartment.maxWaitMillis);
+
+        Semaphore tenant = null;
+        Long clinicId = TenantContext.getClinicId();
+        if (perTenant && clinicId != null) {
+            tenant = tenantSemaphores.computeIfAbsent(workload.key() + ":" + clinicId,
+                    key -> new Semaphore(compartment.perTenantMaxConcurrent));
+            if (!tryAcquire(tenant, deadline)) {
+                compartment.tenantRejected.increment();
+                throw new BulkheadFullException(workload,
+                        "Too many concurrent " + workload.key() + " requests for clinic " + clinicId);
+            }
+        }
+
+        if (!tryAcquire(compartment.semaphore, deadline)) {
+            if (tenant != null) {
+                tenant.release();
+            }
+            compartment.rejected.increment();
+            throw new BulkheadFullException(workload, "Too many concurrent " + workload.key() + " requests");
+        }
+        compartment.waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return new Permit(compartment.semaphore, tenant);
+    }
+
+    private boolean tryAcquire(Semaphore semaphore, long deadline) {
+        try {
+            return semaphore.tryAcquire(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Permit held for the duration of one call.
+     */
+    public static final class Permit implements AutoCloseable {
+
+        private final Semaphore semaphore;
+        private final Semaphore tenant;
+
+        private Permit(Semaphore semaphore, Semaphore tenant) {
+            this.semaphore = semaphore;
+            this.tenant = tenant;
+        }
+
+        @Override
+        public void close() {
+            semaphore.release();
+            if (tenant != null) {
+                tenant.release();
+            }
+        }
+    }
+
+    /**
+     * Limits, semaphore and meters of one workload class.
+     */
+    private static final class Compartment {
+
+        private final int maxConcurrent;
+        private final long maxWaitMillis;
+        private final int perTenantMaxConcurrent;
+        private final Semaphore semaphore;
+        private final Timer waitTimer;
+        private final Counter rejected;
+        private final Counter tenantRejected;
+
+        private Compartment(int maxConcurrent, long maxWaitMillis, int perTenantMaxConcurrent,
+                            Timer waitTimer, Counter rejected, Counter tenantRejected) {
+            this.maxConcurrent = maxConcurrent;
+            this.maxWaitMillis = maxWaitMillis;
+            this.perTenantMaxConcurrent = perTenantMaxConcurrent;
+            this.semaphore = new Semaphore(maxConcurrent, true);
+            this.waitTimer = waitTimer;
+            this.rejected = rejected;
+            this.tenantRejected = tenantRejected;
+        }
+    }
+}
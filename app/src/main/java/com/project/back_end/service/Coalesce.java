@@ -0,0 +1,25 @@
+package com.project.back_end.service;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a read-only service method whose concurrent calls with equal arguments (in the same
+ * clinic and shard) may share one execution and its result. Calls are coalesced by
+ * CoalescingAspect; callers must not modify the shared result.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Coalesce {
+
+    /**
+     * The name used for the method's {@code coalesce.<name>.*} properties and metrics.
+     *
+     * @return coalescing name
+     */
+    String value();
+}
@@ -0,0 +1,300 @@
+package com.project.back_end.service;
+
+import com.project.back_end.config.TenantContext;
+import com.project.back_end.dto.DoctorAvailabilityDto;
+import com.project.back_end.model.Appointment;
+import com.project.back_end.model.DoctorAvailability;
+import com.project.back_end.model.DoctorAvailabilityOverride;
+import com.project.back_end.repository.AppointmentRepository;
+import com.project.back_end.repository.DoctorAvailabilityOverrideRepository;
+import com.project.back_end.repository.DoctorAvailabilityRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Service for doctors' weekly availability and date overrides.
+ * The rules are stored one row per window and compiled into an {@link AvailabilitySchedule}
+ * per doctor. The compiled schedules of all doctors are kept in memory and rebuilt after a
+ * local change or once they are older than {@code app.availability.refresh-seconds}, so
+ * availability queries need no database access.
+ */
+@Service
+public class DoctorAvailabilityService {
+
+    private static final int MAX_SLOT_MINUTES = 480;
+
+    @Autowired
+    private DoctorAvailabilityRepository availabilityRepository;
+
+    @Autowired
+    private DoctorAvailabilityOverrideRepository overrideRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private ShardService shardService;
+
+    @Value("${app.availability.refresh-seconds:60}")
+    private long refreshSeconds;
+
+    private volatile Snapshot snapshot;
+
+    /**
+     * Check whether a doctor is available for a whole appointment.
+     * Booking calls this before writing a SCHEDULED appointment.
+     *
+     * @param doctorId the doctor ID
+     * @param start the appointment start
+     * @param durationMinutes the appointment length, or null for the default 30 minutes
+     * @return true if the appointment lies within the doctor's availability
+     */
+    public boolean isAvailable(Long doctorId, LocalDateTime start, Integer durationMinutes) {
+        AvailabilitySchedule schedule = schedules().get(doctorId);
+        LocalDateTime end = start.plusMinutes(durationMinutes == null ? 30 : durationMinutes);
+        return schedule != null && end.toLocalDate().equals(start.toLocalDate())
+                && schedule.covers(start.toLocalDate(), start.toLocalTime(), end.toLocalTime());
+    }
+
+    /**
+     * Find the doctors available for the whole of [start, end).
+     *
+     * @param date the date, or null to accept any day of the week
+     * @param start the start time
+     * @param end the end time (exclusive)
+     * @return IDs of the available doctors
+     */
+    public Set<Long> findAvailableDoctorIds(LocalDate date, LocalTime start, LocalTime end) {
+        Set<Long> doctorIds = new HashSet<>();
+        schedules().forEach((doctorId, schedule) -> {
+            if (date == null ? schedule.coversOnAnyDay(start, end) : schedule.covers(date, start, end)) {
+                doctorIds.add(doctorId);
+            }
+        });
+        return doctorIds;
+    }
+
+    /**
+     * Describe a doctor's weekly availability for display.
+     *
+     * @param doctorId the doctor ID
+     * @return entries such as "Mon 09:00-12:00"
+     */
+    public List<String> describeWeek(Long doctorId) {
+        AvailabilitySchedule schedule = schedules().get(doctorId);
+        return schedule == null ? List.of() : schedule.describeWeek();
+    }
+
+    /**
+     * Get the free slots of a doctor on a date: the scheduled slots that are in the future and
+     * do not overlap a SCHEDULED appointment.
+     *
+     * @param doctorId the doctor ID
+     * @param date the date
+     * @return slot start times in order
+     */
+    @Transactional(readOnly = true)
+    public List<LocalDateTime> getOpenSlots(Long doctorId, LocalDate date) {
+        AvailabilitySchedule schedule = schedules().get(doctorId);
+        if (schedule == null) {
+            return List.of();
+        }
+        List<AvailabilitySchedule.Slot> slots = schedule.slots(date);
+        if (slots.isEmpty()) {
+            return List.of();
+        }
+
+        // Appointments last less than a day, so one starting the day before may still overlap
+        List<Appointment> booked = appointmentRepository.findByDoctorAndDateRange(doctorId,
+                        date.minusDays(1).atStartOfDay(), date.plusDays(1).atStartOfDay())
+                .stream()
+                .filter(appointment -> "SCHEDULED".equals(appointment.getStatus()))
+                .collect(Collectors.toList());
+        LocalDateTime now = LocalDateTime.now();
+        return slots.stream()
+                .filter(slot -> date.atTime(slot.getStart()).isAfter(now))
+                .filter(slot -> booked.stream().noneMatch(appointment ->
+                        overlaps(appointment, date.atTime(slot.getStart()), date.atTime(slot.getEnd()))))
+                .map(slot -> date.atTime(slot.getStart()))
+                .collect(Collectors.toList());
+    }
+
+    private boolean overlaps(Appointment appointment, LocalDateTime start, LocalDateTime end) {
+        LocalDateTime appointmentEnd = appointment.getEndTime() != null
+                ? appointment.getEndTime()
+                : appointment.getAppointmentDateTime().plusMinutes(30);
+        return appointment.getAppointmentDateTime().isBefore(end) && appointmentEnd.isAfter(start);
+    }
+
+    /**
+     * Get a doctor's weekly rules and upcoming overrides.
+     *
+     * @param doctorId the doctor ID
+     * @return availability DTO
+     */
+    @Transactional(readOnly = true)
+    public DoctorAvailabilityDto getAvailability(Long doctorId) {
+        DoctorAvailabilityDto dto = new DoctorAvailabilityDto();
+        for (DoctorAvailability rule : availabilityRepository.findByDoctorIdOrderByDayOfWeekAscStartTimeAsc(doctorId)) {
+            dto.getWeekly().add(new DoctorAvailabilityDto.Rule(DayOfWeek.of(rule.getDayOfWeek()),
+                    rule.getStartTime(), rule.getEndTime(), rule.getSlotMinutes()));
+        }
+        for (DoctorAvailabilityOverride override : overrideRepository
+                .findByDoctorIdAndDateGreaterThanEqualOrderByDateAscStartTimeAsc(doctorId, LocalDate.now())) {
+            dto.getOverrides().add(new DoctorAvailabilityDto.DateOverride(override.getDate(),
+                    override.getStartTime(), override.getEndTime(), override.getSlotMinutes()));
+        }
+        return dto;
+    }
+
+    /**
+     * Replace a doctor's weekly rules and upcoming overrides.
+     * Past overrides are kept; the in-memory schedules are rebuilt after commit.
+     *
+     * @param doctorId the doctor ID
+     * @param dto the new availability
+     * @return the stored availability
+     * @throws IllegalArgumentException if a window ends before it starts or has an invalid slot length
+     */
+    @Transactional
+    public DoctorAvailabilityDto replaceAvailability(Long doctorId, DoctorAvailabilityDto dto) {
+        LocalDate today = LocalDate.now();
+        for (DoctorAvailabilityDto.Rule rule : dto.getWeekly()) {
+            validateWindow(rule.getStartTime(), rule.getEndTime(), rule.getSlotMinutes());
+        }
+        for (DoctorAvailabilityDto.DateOverride override : dto.getOverrides()) {
+            if (override.getDate().isBefore(today)) {
+                throw new IllegalArgumentException("Override date " + override.getDate() + " is in the past");
+            }
+            if (override.getStartTime() != null || override.getEndTime() != null) {
+                validateWindow(override.getStartTime(), override.getEndTime(), override.getSlotMinutes());
+            }
+        }
+
+        availabilityRepository.deleteByDoctorId(doctorId);
+        overrideRepository.deleteUpcoming(doctorId, today);
+        availabilityRepository.saveAll(dto.getWeekly().stream()
+                .map(rule -> new DoctorAvailability(null, doctorId, rule.getDayOfWeek().getValue(),
+                        rule.getStartTime(), rule.getEndTime(), slotMinutes(rule.getSlotMinutes())))
+                .collect(Collectors.toList()));
+        overrideRepository.saveAll(dto.getOverrides().stream()
+                .map(override -> new DoctorAvailabilityOverride(null, doctorId, override.getDate(),
+                        override.getStartTime(), override.getEndTime(), slotMinutes(override.getSlotMinutes())))
+                .collect(Collectors.toList()));
+
+        invalidateAfterCommit();
+        return getAvailability(doctorId);
+    }
+
+    private void validateWindow(LocalTime start, LocalTime end, Integer slotMinutes) {
+        if (start == null || end == null || !start.isBefore(end)) {
+            throw new IllegalArgumentException("Availability window must have a start before its end");
+        }
+        int slot = slotMinutes(slotMinutes);
+        if (slot < 5 || slot > MAX_SLOT_MINUTES) {
+            throw new IllegalArgumentException("Slot length must be between 5 and " + MAX_SLOT_MINUTES + " minutes");
+        }
+    }
+
+    private int slotMinutes(Integer slotMinutes) {
+        return slotMinutes == null ? 30 : slotMinutes;
+    }
+
+    private void invalidateAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    snapshot = null;
+                }
+            });
+        } else {
+            snapshot = null;
+        }
+    }
+
+    /**
+     * Get the compiled schedules of all doctors, rebuilding them when missing or stale.
+     * Only overrides from today on are loaded.
+     */
+    private Map<Long, AvailabilitySchedule> schedules() {
+        Snapshot current = snapshot;
+        if (current != null && !current.isOlderThan(refreshSeconds)) {
+            return current.schedules;
+        }
+        synchronized (this) {
+            current = snapshot;
+            if (current == null || current.isOlderThan(refreshSeconds)) {
+                current = new Snapshot(compileAll());
+                snapshot = current;
+            }
+            return current.schedules;
+        }
+    }
+
+    /**
+     * Compile the schedules of every doctor on every shard.
+     * The snapshot is shared by all tenants, so the tenant of the request that triggers the
+     * rebuild is cleared while querying; otherwise scatterGather would only read its shard.
+     */
+    private Map<Long, AvailabilitySchedule> compileAll() {
+        Long clinicId = TenantContext.getClinicId();
+        String shard = TenantContext.getShard();
+        TenantContext.clear();
+        try {
+            return compileAllShards();
+        } finally {
+            TenantContext.setClinicId(clinicId);
+            TenantContext.setShard(shard);
+        }
+    }
+
+    private Map<Long, AvailabilitySchedule> compileAllShards() {
+        LocalDate today = LocalDate.now();
+        Map<Long, List<DoctorAvailability>> rules = shardService.scatterGather(availabilityRepository::findAll)
+                .stream()
+                .collect(Collectors.groupingBy(DoctorAvailability::getDoctorId));
+        Map<Long, List<DoctorAvailabilityOverride>> overrides = shardService
+                .scatterGather(() -> overrideRepository.findByDateGreaterThanEqual(today))
+                .stream()
+                .collect(Collectors.groupingBy(DoctorAvailabilityOverride::getDoctorId));
+
+        Set<Long> doctorIds = new HashSet<>(rules.keySet());
+        doctorIds.addAll(overrides.keySet());
+        Map<Long, AvailabilitySchedule> schedules = new HashMap<>();
+        for (Long doctorId : doctorIds) {
+            schedules.put(doctorId, new AvailabilitySchedule(rules.getOrDefault(doctorId, List.of()),
+                    overrides.getOrDefault(doctorId, List.of())));
+        }
+        return schedules;
+    }
+
+    private static final class Snapshot {
+
+        private final Map<Long, AvailabilitySchedule> schedules;
+        private final long builtAtMillis = System.currentTimeMillis();
+
+        private Snapshot(Map<Long, AvailabilitySchedule> schedules) {
+            this.schedules = schedules;
+        }
+
+        private boolean isOlderThan(long seconds) {
+            return System.currentTimeMillis() - builtAtMillis > seconds * 1000;
+        }
+    }
+}
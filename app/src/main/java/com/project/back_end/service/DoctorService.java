@@ -1,12 +1,24 @@
 package com.project.back_end.service;
 
+import com.project.back_end.config.TenantContext;
+import com.project.back_end.dto.DoctorCardDto;
 import com.project.back_end.model.Doctor;
+import com.project.back_end.repository.AppointmentRepository;
+import com.project.back_end.repository.AppointmentSeriesRepository;
 import com.project.back_end.repository.DoctorRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Service class for Doctor-related business logic.
@@ -15,95 +27,262 @@ import java.util.Optional;
 @Service
 public class DoctorService {
 
+    private static final Set<String> PATCHABLE_FIELDS = Set.of("name", "specialty", "email", "phone",
+            "qualifications", "experienceYears", "consultationFee", "isActive");
+
     @Autowired
     private DoctorRepository doctorRepository;
 
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private AppointmentSeriesRepository appointmentSeriesRepository;
+
+    @Autowired
+    private MergePatchService mergePatchService;
+
+    @Autowired
+    private ShardService shardService;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private LookupCaches lookupCaches;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private DoctorAvailabilityService doctorAvailabilityService;
+
+    @Autowired
+    private RegistrationFilterService registrationFilterService;
+
     /**
      * Get all doctors.
+     * Runs on every shard when the request does not belong to a clinic.
      *
      * @return List of all doctors
      */
+    @Coalesce("doctors")
+    @Transactional(readOnly = true)
     public List<Doctor> getAllDoctors() {
-        return doctorRepository.findAll();
+        return shardService.scatterGather(doctorRepository::findAll);
+    }
+
+    /**
+     * Get all doctors as public card read models.
+     * Loads only the card columns; available times come from the compiled availability schedules.
+     * Runs on every shard when the request does not belong to a clinic.
+     *
+     * @param withAvailableTimes whether to fill in available times
+     * @return List of doctor cards
+     */
+    @Coalesce("doctor-cards")
+    @Transactional(readOnly = true)
+    public List<DoctorCardDto> getDoctorCards(boolean withAvailableTimes) {
+        List<DoctorCardDto> cards = shardService.scatterGather(doctorRepository::findAllCards);
+        if (withAvailableTimes) {
+            cards.forEach(card -> card.setAvailableTimes(doctorAvailabilityService.describeWeek(card.getId())));
+        }
+        return cards;
+    }
+
+    /**
+     * Convert doctors to public card read models with their available times.
+     *
+     * @param doctors the doctors
+     * @return List of doctor cards
+     */
+    public List<DoctorCardDto> toCards(List<Doctor> doctors) {
+        return doctors.stream().map(doctor -> {
+            DoctorCardDto card = DoctorCardDto.from(doctor);
+            card.setAvailableTimes(doctorAvailabilityService.describeWeek(doctor.getId()));
+            return card;
+        }).collect(Collectors.toList());
     }
 
     /**
      * Get doctor by ID.
+     * Looks on every shard when the request does not belong to a clinic.
      *
      * @param id the doctor ID
      * @return Optional containing the doctor if found
      */
     public Optional<Doctor> getDoctorById(Long id) {
-        return doctorRepository.findById(id);
+        // Loads run in a read-write transaction so they read the primary, not a lagging replica
+        return lookupCaches.doctorsById().get(id, key -> shardService.findAny(() ->
+                transactionTemplate.execute(status -> doctorRepository.findById(key))));
     }
 
     /**
      * Get doctor by username.
+     * Looks on every shard when the request does not belong to a clinic, so doctors can log in
+     * without naming their clinic.
      *
      * @param username the username
      * @return Optional containing the doctor if found
      */
     public Optional<Doctor> getDoctorByUsername(String username) {
-        return doctorRepository.findByUsername(username);
+        TwoLevelCache<String, Long> ids = lookupCaches.doctorIdsByUsername();
+        Function<String, Optional<Long>> loader = key -> shardService.findAny(() ->
+                transactionTemplate.execute(status -> doctorRepository.findIdByUsername(key)));
+        Optional<Long> id = ids.get(username, loader);
+        if (id.isEmpty()) {
+            return Optional.empty();
+        }
+        Optional<Doctor> doctor = getDoctorById(id.get());
+        if (doctor.isPresent() && username.equals(doctor.get().getUsername())) {
+            return doctor;
+        }
+        // The cached ID belongs to a doctor that was deleted or renamed; look the username up again
+        ids.invalidate(username);
+        return ids.get(username, loader).flatMap(this::getDoctorById)
+                .filter(found -> username.equals(found.getUsername()));
     }
 
     /**
      * Save or update doctor.
+     * A name change is propagated to the doctor's prescriptions through the outbox.
+     * A doctor saved without a clinic keeps its current clinic, or gets the request's clinic when new.
+     * The doctor is written to its clinic's shard, whatever clinic the request belongs to.
      *
      * @param doctor the doctor to save
      * @return saved doctor
      */
     public Doctor saveDoctor(Doctor doctor) {
-        return doctorRepository.save(doctor);
+        Optional<Doctor> previous = doctor.getId() == null ? Optional.empty() : shardService.findAny(() ->
+                transactionTemplate.execute(status -> doctorRepository.findById(doctor.getId())));
+        String previousName = previous.map(Doctor::getName).orElse(null);
+        if (doctor.getClinicId() == null) {
+            doctor.setClinicId(previous.map(Doctor::getClinicId).orElse(TenantContext.getClinicId()));
+        }
+        return shardService.inClinic(doctor.getClinicId(), () -> transactionTemplate.execute(status -> {
+            Doctor saved = doctorRepository.save(doctor);
+            registrationFilterService.addDoctorUsername(saved.getUsername());
+            lookupCaches.doctorsById().invalidate(saved.getId());
+            previous.map(Doctor::getUsername).ifPresent(lookupCaches.doctorIdsByUsername()::invalidate);
+            if (previousName != null && !previousName.equals(saved.getName())) {
+                outboxService.record(OutboxService.DOCTOR, saved.getId(), OutboxService.RENAMED,
+                        Map.of("name", saved.getName()));
+            }
+            return saved;
+        }));
+    }
+
+    /**
+     * Apply a JSON merge patch to a doctor as a single versioned UPDATE on the doctor's shard.
+     *
+     * @param id the doctor ID
+     * @param expectedVersion the version the client last read
+     * @param patch the changed fields
+     * @return the new version
+     */
+    public long patchDoctor(Long id, Long expectedVersion, Map<String, Object> patch) {
+        return shardService.inClinic(clinicOf(id), () -> transactionTemplate.execute(status -> {
+            long version = mergePatchService.apply(Doctor.class, id, expectedVersion, patch, PATCHABLE_FIELDS);
+            lookupCaches.doctorsById().invalidate(id);
+            if (patch.get("name") != null) {
+                outboxService.record(OutboxService.DOCTOR, id, OutboxService.RENAMED, Map.of("name", patch.get("name")));
+            }
+            return version;
+        }));
     }
 
     /**
      * Delete doctor by ID.
+     * The doctor's prescriptions are removed from MongoDB by the outbox relay.
+     * The appointment table has no foreign keys (it may be partitioned), so a doctor
+     * with appointments is refused here instead of by the database. A doctor with
+     * appointment series is refused as well, before the series foreign key fails.
+     * Runs on the doctor's shard, which also holds the doctor's appointments.
      *
      * @param id the doctor ID
+     * @throws IllegalStateException if the doctor still has appointments or appointment series
      */
     public void deleteDoctor(Long id) {
-        doctorRepository.deleteById(id);
+        shardService.inClinic(clinicOf(id), () -> transactionTemplate.execute(status -> {
+            if (appointmentRepository.existsByDoctorId(id)) {
+                throw new IllegalStateException("Doctor has appointments and cannot be deleted");
+            }
+            if (appointmentSeriesRepository.existsByDoctorId(id)) {
+                throw new IllegalStateException("Doctor has appointment series and cannot be deleted");
+            }
+            doctorRepository.deleteById(id);
+            lookupCaches.doctorsById().invalidate(id);
+            outboxService.record(OutboxService.DOCTOR, id, OutboxService.DELETED, Map.of());
+            return null;
+        }));
+    }
+
+    /**
+     * Get the clinic of a doctor, looking on every shard when the request does not belong to a clinic.
+     *
+     * @param id the doctor ID
+     * @return the doctor's clinic, or null if the doctor has none or does not exist
+     */
+    private Long clinicOf(Long id) {
+        return getDoctorById(id).map(Doctor::getClinicId).orElse(null);
     }
 
     /**
      * Find doctors by specialty.
+     * Runs on every shard when the request does not belong to a clinic.
      *
      * @param specialty the specialty
      * @return List of doctors
      */
+    @Coalesce("doctors-by-specialty")
+    @Transactional(readOnly = true)
     public List<Doctor> findBySpecialty(String specialty) {
-        return doctorRepository.findBySpecialty(specialty);
+        return shardService.scatterGather(() -> doctorRepository.findBySpecialty(specialty));
     }
 
     /**
      * Search doctors by name.
+     * Runs on every shard when the request does not belong to a clinic.
      *
      * @param name the search term
      * @return List of doctors
      */
+    @Coalesce("doctor-search")
+    @Transactional(readOnly = true)
     public List<Doctor> searchByName(String name) {
-        return doctorRepository.findByNameContainingIgnoreCase(name);
+        return shardService.scatterGather(() -> doctorRepository.findByNameContainingIgnoreCase(name));
     }
 
     /**
      * Find active doctors.
+     * Runs on every shard when the request does not belong to a clinic.
      *
      * @return List of active doctors
      */
+    @Coalesce("active-doctors")
+    @Transactional(readOnly = true)
     public List<Doctor> findActiveDoctors() {
-        return doctorRepository.findByIsActive(true);
+        return shardService.scatterGather(() -> doctorRepository.findByIsActive(true));
     }
 
     /**
-     * Find doctors by specialty and available time.
+     * Find active doctors available for a whole time range, optionally of one specialty.
+     * Availability is answered from the compiled schedules; only the matching doctors are loaded.
      *
-     * @param specialty the specialty
-     * @param timeSlot the time slot
+     * @param specialty the specialty (null for any)
+     * @param date the date, or null for any day of the week
+     * @param start the start time
+     * @param end the end time (exclusive)
      * @return List of doctors
      */
-    public List<Doctor> findBySpecialtyAndTime(String specialty, String timeSlot) {
-        return doctorRepository.findBySpecialtyAndAvailableTime(specialty, timeSlot);
+    @Coalesce("available-doctors")
+    @Transactional(readOnly = true)
+    public List<Doctor> findAvailable(String specialty, LocalDate date, LocalTime start, LocalTime end) {
+        Set<Long> doctorIds = doctorAvailabilityService.findAvailableDoctorIds(date, start, end);
+        if (doctorIds.isEmpty()) {
+            return List.of();
+        }
+        return shardService.scatterGather(() -> doctorRepository.findActiveByIdInAndSpecialty(doctorIds, specialty));
     }
 
     /**
@@ -114,7 +293,7 @@ public class DoctorService {
      * @return Optional containing the doctor if authenticated
      */
     public Optional<Doctor> authenticate(String username, String password) {
-        Optional<Doctor> doctor = doctorRepository.findByUsername(username);
+        Optional<Doctor> doctor = getDoctorByUsername(username);
         if (doctor.isPresent() && doctor.get().getPassword().equals(password)) {
             return doctor;
         }
@@ -122,12 +301,17 @@ public class DoctorService {
     }
 
     /**
-     * Check if doctor exists by username.
+     * Check if doctor exists by username in any clinic.
+     * Usernames the registration filter has never seen are answered without a query;
+     * the others are looked up on every shard, as usernames are unique across clinics.
      *
      * @param username the username
      * @return true if exists
      */
     public boolean existsByUsername(String username) {
-        return doctorRepository.existsByUsername(username);
+        if (!registrationFilterService.mightHaveDoctorUsername(username)) {
+            return false;
+        }
+        return shardService.existsOnAnyShard(() -> doctorRepository.existsByUsername(username));
     }
 }
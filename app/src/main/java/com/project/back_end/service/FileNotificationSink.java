@@ -0,0 +1,53 @@
+package com.project.back_end.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.back_end.dto.Notification;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Notification sink that appends notifications to a local file as JSON lines.
+ * Each batch is written with a single append.
+ */
+@Service
+@ConditionalOnProperty(name = "notification.sink", havingValue = "file")
+public class FileNotificationSink implements NotificationSink {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${notification.sink.file:notifications.jsonl}")
+    private Path file;
+
+    /**
+     * Append a batch of notifications to the file.
+     *
+     * @param notifications the notifications to deliver
+     */
+    @Override
+    public synchronized void deliver(List<Notification> notifications) {
+        StringBuilder lines = new StringBuilder();
+        try {
+            for (Notification notification : notifications) {
+                lines.append(objectMapper.writeValueAsString(notification)).append('\n');
+            }
+            Files.writeString(file, lines, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Notification is not serializable", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write notifications to " + file, e);
+        }
+    }
+}
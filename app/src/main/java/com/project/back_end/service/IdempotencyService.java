@@ -0,0 +1,174 @@
+package com.project.back_end.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Service for replaying responses of retried write requests.
+ * Keeps a bounded, time-limited store of recent Idempotency-Key values and the
+ * response produced for each, so a retry returns the original result instead of
+ * executing the write again. Each key is bound to a hash of its request body; reusing
+ * a key for a different body is rejected with 422.
+ */
+@Service
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${idempotency.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${idempotency.ttl-minutes:60}")
+    private long ttlMinutes;
+
+    // Insertion order equals creation order, so expired entries are always at the head
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+
+    /**
+     * Execute a write once per idempotency key.
+     * The first request for a key runs the action; concurrent and later duplicates wait
+     * for and replay its response. Failed or non-2xx responses are not kept, so the
+     * client can retry them.
+     *
+     * @param scope the operation the key belongs to (e.g. "appointments")
+     * @param key the Idempotency-Key header value, may be null
+     * @param request the request body the key is bound to
+     * @param action the write to execute
+     * @return the response of the first execution, or 422 if the key was used for a different body
+     */
+    public ResponseEntity<?> execute(String scope, String key, Object request, Supplier<ResponseEntity<?>> action) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+
+        String storeKey = scope + ":" + key;
+        byte[] requestHash = hash(request);
+        Entry entry;
+        boolean owner = false;
+        synchronized (entries) {
+            purgeExpired();
+            entry = entries.get(storeKey);
+            if (entry == null) {
+                entry = new Entry(requestHash);
+                entries.put(storeKey, entry);
+                owner = true;
+                evictOverflow();
+            }
+        }
+
+        if (!owner) {
+            if (!Arrays.equals(entry.requestHash, requestHash)) {
+                return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY)
+                        .body(HEADER + " was already used for a different request");
+            }
+            return replay(entry);
+        }
+
+        try {
+            ResponseEntity<?> response = action.get();
+            if (!response.getStatusCode().is2xxSuccessful()) {
+                forget(storeKey, entry);
+            }
+            entry.response.complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            forget(storeKey, entry);
+            entry.response.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Get the number of keys currently held.
+     *
+     * @return number of stored keys
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private ResponseEntity<?> replay(Entry entry) {
+        ResponseEntity<?> original;
+        try {
+            original = entry.response.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+        return ResponseEntity.status(original.getStatusCode())
+                .headers(original.getHeaders())
+                .header(REPLAYED_HEADER, "true")
+                .body(original.getBody());
+    }
+
+    private void forget(String storeKey, Entry entry) {
+        synchronized (entries) {
+            entries.remove(storeKey, entry);
+        }
+    }
+
+    private void purgeExpired() {
+        long cutoff = System.currentTimeMillis() - ttlMinutes * 60_000L;
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        while (it.hasNext() && it.next().getValue().createdAt < cutoff) {
+            it.remove();
+        }
+    }
+
+    /**
+     * Drop the oldest completed entries beyond maxEntries. Pending entries are kept, so a
+     * concurrent duplicate still waits for the running write instead of executing it again.
+     */
+    private void evictOverflow() {
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        while (entries.size() > maxEntries && it.hasNext()) {
+            if (it.next().getValue().response.isDone()) {
+                it.remove();
+            }
+        }
+    }
+
+    private byte[] hash(Object request) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Cannot fingerprint request: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Stored state for one key: creation time, request body hash and the (possibly pending) response.
+     */
+    private static final class Entry {
+        private final long createdAt = System.currentTimeMillis();
+        private final byte[] requestHash;
+        private final CompletableFuture<ResponseEntity<?>> response = new CompletableFuture<>();
+
+        private Entry(byte[] requestHash) {
+            this.requestHash = requestHash;
+        }
+    }
+}
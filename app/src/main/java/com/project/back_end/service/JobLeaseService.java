@@ -0,0 +1,68 @@
+package com.project.back_end.service;
+
+import com.project.back_end.repository.JobLeaseRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Service for database-backed job leases.
+ * Ensures a scheduled job runs on only one instance of a multi-node deployment.
+ */
+@Service
+public class JobLeaseService {
+
+    @Autowired
+    private JobLeaseRepository jobLeaseRepository;
+
+    private final String instanceId = resolveHostName() + ":" + UUID.randomUUID();
+
+    /**
+     * Try to acquire or renew a lease.
+     *
+     * @param name the job name
+     * @param duration how long the lease is held unless renewed or released
+     * @return true if this instance holds the lease
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public boolean tryAcquire(String name, Duration duration) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime until = now.plus(duration);
+        return jobLeaseRepository.tryTakeOver(name, instanceId, until, now) == 1
+                || jobLeaseRepository.insertIfAbsent(name, instanceId, until) == 1;
+    }
+
+    /**
+     * Release a lease held by this instance so another instance may take it right away.
+     *
+     * @param name the job name
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void release(String name) {
+        jobLeaseRepository.release(name, instanceId, LocalDateTime.now());
+    }
+
+    /**
+     * Get this instance's lease owner ID.
+     *
+     * @return instance ID
+     */
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    private static String resolveHostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "unknown-host";
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.project.back_end.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process stand-in for a shared cache tier, for single-instance setups and tests.
+ * Values are held by reference; callers store copies they do not modify.
+ */
+@Component
+@ConditionalOnProperty(name = "cache.l2.type", havingValue = "local")
+public class LocalSharedCacheTier implements SharedCacheTier {
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    @Override
+    public Object get(String cacheName, String key) {
+        String entryKey = cacheName + "|" + key;
+        Entry entry = entries.get(entryKey);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAtMillis <= System.currentTimeMillis()) {
+            entries.remove(entryKey, entry);
+            return null;
+        }
+        return entry.value;
+    }
+
+    @Override
+    public void put(String cacheName, String key, Object value, Duration ttl) {
+        entries.put(cacheName + "|" + key, new Entry(value, System.currentTimeMillis() + ttl.toMillis()));
+    }
+
+    @Override
+    public void evict(String cacheName, String key) {
+        entries.remove(cacheName + "|" + key);
+    }
+
+    private record Entry(Object value, long expiresAtMillis) {
+    }
+}
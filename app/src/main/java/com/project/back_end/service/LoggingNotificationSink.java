@@ -0,0 +1,33 @@
+package com.project.back_end.service;
+
+import com.project.back_end.dto.Notification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Notification sink that writes notifications to the application log.
+ * Default sink, intended for development and testing.
+ */
+@Service
+@ConditionalOnProperty(name = "notification.sink", havingValue = "log", matchIfMissing = true)
+public class LoggingNotificationSink implements NotificationSink {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoggingNotificationSink.class);
+
+    /**
+     * Log a batch of notifications.
+     *
+     * @param notifications the notifications to deliver
+     */
+    @Override
+    public void deliver(List<Notification> notifications) {
+        for (Notification notification : notifications) {
+            logger.info("[{}] to patient {}: {}", notification.getType(), notification.getPatientId(),
+                    notification.getMessage());
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.project.back_end.service;
+
+import com.project.back_end.config.ShardRouter;
+import com.project.back_end.model.Doctor;
+import com.project.back_end.model.Patient;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.UnaryOperator;
+
+/**
+ * Two-level caches for the doctor and patient lookups done on every login and booking.
+ * Entities are cached by ID; usernames map to IDs, so a change to an entity only has to
+ * invalidate its ID. Keys are scoped by shard. Cached patients leave out the lazily loaded
+ * address and medical history, which callers read through the patient details query.
+ */
+@Component
+public class LookupCaches {
+
+    private final TwoLevelCache<Long, Doctor> doctorsById;
+    private final TwoLevelCache<String, Long> doctorIdsByUsername;
+    private final TwoLevelCache<Long, Patient> patientsById;
+    private final TwoLevelCache<String, Long> patientIdsByUsername;
+
+    @Autowired
+    public LookupCaches(MeterRegistry meterRegistry,
+                        ShardRouter shardRouter,
+                        @Autowired(required = false) SharedCacheTier sharedTier,
+                        @Value("${cache.lookup.max-size:10000}") int maxSize,
+                        @Value("${cache.lookup.ttl-seconds:30}") long ttlSeconds,
+                        @Value("${cache.l2.ttl-seconds:300}") long sharedTtlSeconds) {
+        Duration ttl = Duration.ofSeconds(ttlSeconds);
+        Duration sharedTtl = Duration.ofSeconds(sharedTtlSeconds);
+        UnaryOperator<Doctor> copyDoctor = doctor -> {
+            Doctor copy = new Doctor();
+            BeanUtils.copyProperties(doctor, copy);
+            return copy;
+        };
+        UnaryOperator<Patient> copyPatient = patient -> {
+            Patient copy = new Patient();
+            BeanUtils.copyProperties(patient, copy, "address", "medicalHistory");
+            return copy;
+        };
+
+        this.doctorsById = new TwoLevelCache<>("doctor.id", maxSize, ttl, sharedTier, sharedTtl,
+                shardRouter::currentShard, copyDoctor, meterRegistry);
+        this.doctorIdsByUsername = new TwoLevelCache<>("doctor.username", maxSize, ttl, sharedTier, sharedTtl,
+                shardRouter::currentShard, UnaryOperator.identity(), meterRegistry);
+        this.patientsById = new TwoLevelCache<>("patient.id", maxSize, ttl, sharedTier, sharedTtl,
+                shardRouter::currentShard, copyPatient, meterRegistry);
+        this.patientIdsByUsername = new TwoLevelCache<>("patient.username", maxSize, ttl, sharedTier, sharedTtl,
+                shardRouter::currentShard, UnaryOperator.identity(), meterRegistry);
+    }
+
+    /**
+     * Get the doctor-by-ID cache.
+     *
+     * @return cache of doctors keyed by ID
+     */
+    public TwoLevelCache<Long, Doctor> doctorsById() {
+        return doctorsById;
+    }
+
+    /**
+     * Get the doctor username cache.
+     *
+     * @return cache of doctor IDs keyed by username
+     */
+    public TwoLevelCache<String, Long> doctorIdsByUsername() {
+        return doctorIdsByUsername;
+    }
+
+    /**
+     * Get the patient-by-ID cache.
+     *
+     * @return cache of patients keyed by ID
+     */
+    public TwoLevelCache<Long, Patient> patientsById() {
+        return patientsById;
+    }
+
+    /**
+     * Get the patient username cache.
+     *
+     * @return cache of patient IDs keyed by username
+     */
+    public TwoLevelCache<String, Long> patientIdsByUsername() {
+        return patientIdsByUsername;
+    }
+}
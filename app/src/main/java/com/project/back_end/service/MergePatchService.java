@@ -0,0 +1,118 @@
+package com.project.back_end.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Service applying JSON merge patches (RFC 7396) to versioned JPA entities.
+ * Each patch becomes a single column-targeted
+ * {@code UPDATE ... SET <patched columns>, version = version + 1 WHERE id = ? AND version = ?}
+ * statement, without loading the entity first.
+ */
+@Service
+public class MergePatchService {
+
+    public static final String MEDIA_TYPE = "application/merge-patch+json";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    /**
+     * Resolve the version a patch is based on.
+     * Prefers an If-Match header (ETag form, e.g. {@code "3"}) and falls back to a
+     * {@code version} field in the patch body, which is removed from the patch.
+     *
+     * @param ifMatch the If-Match header value, may be null
+     * @param patch the patch body
+     * @return the expected version, or null if the client supplied none
+     * @throws NumberFormatException if the supplied version is not a number
+     */
+    public static Long resolveVersion(String ifMatch, Map<String, Object> patch) {
+        Object bodyVersion = patch.remove("version");
+        if (ifMatch != null && !ifMatch.isBlank()) {
+            return Long.valueOf(ifMatch.replace("W/", "").replace("\"", "").trim());
+        }
+        return bodyVersion == null ? null : Long.valueOf(bodyVersion.toString());
+    }
+
+    /**
+     * Apply a merge patch to an entity guarded by its version.
+     *
+     * @param type the entity class (must have {@code id} and {@code version} attributes)
+     * @param id the entity ID
+     * @param expectedVersion the version the client last read
+     * @param patch attribute names mapped to new values; null removes the value
+     * @param patchable attribute names the caller allows to change
+     * @return the entity's new version
+     * @throws IllegalArgumentException if the patch is empty, names an attribute that is not
+     *         patchable, or a value fails validation
+     * @throws EntityNotFoundException if no entity exists with the ID
+     * @throws ObjectOptimisticLockingFailureException if the entity was changed since expectedVersion
+     */
+    @Transactional
+    public <T> long apply(Class<T> type, Long id, Long expectedVersion,
+                          Map<String, Object> patch, Set<String> patchable) {
+        if (patch.isEmpty()) {
+            throw new IllegalArgumentException("Patch contains no changes");
+        }
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<T> update = cb.createCriteriaUpdate(type);
+        Root<T> root = update.from(type);
+
+        for (Map.Entry<String, Object> change : patch.entrySet()) {
+            String attribute = change.getKey();
+            if (!patchable.contains(attribute)) {
+                throw new IllegalArgumentException("Field cannot be patched: " + attribute);
+            }
+            Path<Object> path = root.get(attribute);
+            Object value = change.getValue() == null
+                    ? null
+                    : objectMapper.convertValue(change.getValue(), path.getJavaType());
+
+            Set<ConstraintViolation<T>> violations = validator.validateValue(type, attribute, value);
+            if (!violations.isEmpty()) {
+                throw new IllegalArgumentException(violations.iterator().next().getMessage());
+            }
+            update.set(path, value);
+        }
+
+        Path<Long> version = root.get("version");
+        update.set(version, cb.sum(version, 1L));
+        update.where(cb.equal(root.get("id"), id), cb.equal(version, expectedVersion));
+
+        int updated = entityManager.createQuery(update).executeUpdate();
+        if (updated == 0) {
+            Long count = entityManager.createQuery(
+                            "SELECT COUNT(e) FROM " + type.getSimpleName() + " e WHERE e.id = :id", Long.class)
+                    .setParameter("id", id)
+                    .getSingleResult();
+            if (count == 0) {
+                throw new EntityNotFoundException(type.getSimpleName() + " not found with id: " + id);
+            }
+            throw new ObjectOptimisticLockingFailureException(type, id);
+        }
+        return expectedVersion + 1;
+    }
+}
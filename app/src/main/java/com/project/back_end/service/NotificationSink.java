@@ -0,0 +1,20 @@
+package com.project.back_end.service;
+
+import com.project.back_end.dto.Notification;
+
+import java.util.List;
+
+/**
+ * Destination for outgoing notifications.
+ * Implementations receive notifications in batches and are selected with the
+ * {@code notification.sink} property.
+ */
+public interface NotificationSink {
+
+    /**
+     * Deliver a batch of notifications.
+     *
+     * @param notifications the notifications to deliver
+     */
+    void deliver(List<Notification> notifications);
+}
@@ -0,0 +1,159 @@
+package com.project.back_end.service;
+
+import com.project.back_end.config.TenantContext;
+import com.project.back_end.model.OutboxEvent;
+import com.project.back_end.model.Prescription;
+import com.project.back_end.repository.OutboxEventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Service relaying outbox events to the MongoDB prescriptions collection.
+ * Pending events are drained in batches; each batch becomes one ordered bulk write
+ * against {@code prescriptions} and is deleted from the outbox only after that write
+ * succeeds. All operations are idempotent, so a batch retried after a failure is safe.
+ *
+ * <p>Events must be applied in creation order (two renames of an aggregate, or a rename
+ * and a delete), so a single relay drains the outbox: the instance holding the
+ * {@code outbox-relay} job lease, renewed after every batch.</p>
+ */
+@Service
+public class OutboxRelayService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelayService.class);
+    private static final String LEASE_NAME = "outbox-relay";
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ShardService shardService;
+
+    @Autowired
+    private JobLeaseService jobLeaseService;
+
+    @Value("${outbox.relay.batch-size:500}")
+    private int batchSize;
+
+    @Value("${outbox.relay.lease-seconds:60}")
+    private long leaseSeconds;
+
+    /**
+     * Drain pending outbox events.
+     */
+    @Scheduled(fixedDelayString = "${outbox.relay.interval-ms:1000}")
+    public void relayPendingEvents() {
+        // The lease is kept between runs, so the same instance keeps relaying until it stops
+        if (!jobLeaseService.tryAcquire(LEASE_NAME, Duration.ofSeconds(leaseSeconds))) {
+            return;
+        }
+        AtomicBoolean leaseHeld = new AtomicBoolean(true);
+        // Each shard's outbox is relayed to that shard's MongoDB database
+        shardService.forEachShard(() -> {
+            if (!leaseHeld.get()) {
+                return;
+            }
+            try {
+                Integer relayed;
+                do {
+                    relayed = transactionTemplate.execute(status -> relayBatch());
+                } while (relayed != null && relayed == batchSize && renewLease(leaseHeld));
+            } catch (RuntimeException e) {
+                logger.warn("Outbox relay failed, will retry: {}", e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Extend the relay lease. The lease lives on the default shard, so the shard selected
+     * by forEachShard is cleared while renewing.
+     */
+    private boolean renewLease(AtomicBoolean leaseHeld) {
+        String shard = TenantContext.getShard();
+        TenantContext.setShard(null);
+        try {
+            if (!jobLeaseService.tryAcquire(LEASE_NAME, Duration.ofSeconds(leaseSeconds))) {
+                logger.warn("Outbox relay lost its lease; stopping this run");
+                leaseHeld.set(false);
+            }
+            return leaseHeld.get();
+        } finally {
+            TenantContext.setShard(shard);
+        }
+    }
+
+    private int relayBatch() {
+        List<OutboxEvent> events = outboxEventRepository.lockNextBatch(PageRequest.of(0, batchSize));
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.ORDERED, Prescription.class);
+        int operations = 0;
+        for (OutboxEvent event : events) {
+            if (addOperation(bulk, event)) {
+                operations++;
+            }
+        }
+        if (operations > 0) {
+            bulk.execute();
+        }
+
+        outboxEventRepository.deleteAllInBatch(events);
+        logger.debug("Relayed {} outbox events", events.size());
+        return events.size();
+    }
+
+    private boolean addOperation(BulkOperations bulk, OutboxEvent event) {
+        Map<String, Object> payload = outboxService.readPayload(event);
+        String key = event.getAggregateType() + "_" + event.getEventType();
+        switch (key) {
+            case "DOCTOR_RENAMED":
+                bulk.updateMulti(Query.query(Criteria.where("doctorId").is(event.getAggregateId())),
+                        Update.update("doctorName", payload.get("name")));
+                break;
+            case "PATIENT_RENAMED":
+                bulk.updateMulti(Query.query(Criteria.where("patientId").is(event.getAggregateId())),
+                        Update.update("patientName", payload.get("name")));
+                break;
+            case "APPOINTMENT_DELETED":
+                bulk.remove(Query.query(Criteria.where("appointmentId").is(event.getAggregateId())));
+                break;
+            case "DOCTOR_DELETED":
+                bulk.remove(Query.query(Criteria.where("doctorId").is(event.getAggregateId())));
+                break;
+            case "PATIENT_DELETED":
+                bulk.remove(Query.query(Criteria.where("patientId").is(event.getAggregateId())));
+                break;
+            default:
+                logger.warn("Skipping unknown outbox event {} ({})", event.getId(), key);
+                return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,72 @@
+package com.project.back_end.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.back_end.model.OutboxEvent;
+import com.project.back_end.repository.OutboxEventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+
+/**
+ * Service for writing transactional outbox events.
+ * Events must be recorded inside the transaction that makes the MySQL change, so the
+ * change and its event commit or roll back together.
+ */
+@Service
+public class OutboxService {
+
+    public static final String APPOINTMENT = "APPOINTMENT";
+    public static final String DOCTOR = "DOCTOR";
+    public static final String PATIENT = "PATIENT";
+
+    public static final String RENAMED = "RENAMED";
+    public static final String DELETED = "DELETED";
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Record an event in the caller's transaction.
+     *
+     * @param aggregateType the changed aggregate (APPOINTMENT, DOCTOR, PATIENT)
+     * @param aggregateId the changed aggregate ID
+     * @param eventType the kind of change (RENAMED, DELETED)
+     * @param payload event data, may be empty
+     * @return saved event
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public OutboxEvent record(String aggregateType, Long aggregateId, String eventType, Map<String, Object> payload) {
+        OutboxEvent event = new OutboxEvent();
+        event.setAggregateType(aggregateType);
+        event.setAggregateId(aggregateId);
+        event.setEventType(eventType);
+        try {
+            event.setPayload(objectMapper.writeValueAsString(payload));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Outbox payload is not serializable", e);
+        }
+        return outboxEventRepository.save(event);
+    }
+
+    /**
+     * Read an event's payload.
+     *
+     * @param event the event
+     * @return payload as a map
+     */
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> readPayload(OutboxEvent event) {
+        try {
+            return event.getPayload() == null ? Map.of() : objectMapper.readValue(event.getPayload(), Map.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Corrupt outbox payload for event " + event.getId(), e);
+        }
+    }
+}
@@ -1,12 +1,22 @@
 package com.project.back_end.service;
 
+import com.project.back_end.config.TenantContext;
+import com.project.back_end.dto.PatientDetailsDto;
+import com.project.back_end.dto.PatientSummaryDto;
 import com.project.back_end.model.Patient;
+import com.project.back_end.repository.AppointmentRepository;
+import com.project.back_end.repository.AppointmentSeriesRepository;
 import com.project.back_end.repository.PatientRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 
 /**
  * Service class for Patient-related business logic.
@@ -15,74 +25,231 @@ import java.util.Optional;
 @Service
 public class PatientService {
 
+    private static final Set<String> PATCHABLE_FIELDS = Set.of("name", "email", "phone", "dateOfBirth",
+            "gender", "address", "bloodGroup", "medicalHistory", "emergencyContact", "isActive");
+
     @Autowired
     private PatientRepository patientRepository;
 
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private AppointmentSeriesRepository appointmentSeriesRepository;
+
+    @Autowired
+    private MergePatchService mergePatchService;
+
+    @Autowired
+    private ShardService shardService;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private LookupCaches lookupCaches;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private RegistrationFilterService registrationFilterService;
+
     /**
      * Get all patients.
+     * Runs on every shard when the request does not belong to a clinic.
      *
      * @return List of all patients
      */
+    @Bulkhead(WorkloadClass.REPORTING)
+    @Transactional(readOnly = true)
     public List<Patient> getAllPatients() {
-        return patientRepository.findAll();
+        return shardService.scatterGather(patientRepository::findAll);
+    }
+
+    /**
+     * Get all patients as summary read models.
+     * Runs on every shard when the request does not belong to a clinic.
+     *
+     * @return List of patient summaries
+     */
+    @Bulkhead(WorkloadClass.REPORTING)
+    @Transactional(readOnly = true)
+    public List<PatientSummaryDto> getPatientSummaries() {
+        return shardService.scatterGather(patientRepository::findAllSummaries);
     }
 
     /**
      * Get patient by ID.
+     * Looks on every shard when the request does not belong to a clinic.
      *
      * @param id the patient ID
      * @return Optional containing the patient if found
      */
     public Optional<Patient> getPatientById(Long id) {
-        return patientRepository.findById(id);
+        // Loads run in a read-write transaction so they read the primary, not a lagging replica
+        return lookupCaches.patientsById().get(id, key -> shardService.findAny(() ->
+                transactionTemplate.execute(status -> patientRepository.findById(key))));
+    }
+
+    /**
+     * Get a patient's address and medical history, which are not loaded with the patient.
+     * Looks on every shard when the request does not belong to a clinic.
+     *
+     * @param id the patient ID
+     * @return Optional containing the details if found
+     */
+    @Transactional(readOnly = true)
+    public Optional<PatientDetailsDto> getPatientDetails(Long id) {
+        return shardService.findAny(() -> patientRepository.findDetailsById(id));
     }
 
     /**
      * Get patient by username.
+     * Looks on every shard when the request does not belong to a clinic, so patients can log in
+     * without naming their clinic.
      *
      * @param username the username
      * @return Optional containing the patient if found
      */
     public Optional<Patient> getPatientByUsername(String username) {
-        return patientRepository.findByUsername(username);
+        TwoLevelCache<String, Long> ids = lookupCaches.patientIdsByUsername();
+        Function<String, Optional<Long>> loader = key -> shardService.findAny(() ->
+                transactionTemplate.execute(status -> patientRepository.findIdByUsername(key)));
+        Optional<Long> id = ids.get(username, loader);
+        if (id.isEmpty()) {
+            return Optional.empty();
+        }
+        Optional<Patient> patient = getPatientById(id.get());
+        if (patient.isPresent() && username.equals(patient.get().getUsername())) {
+            return patient;
+        }
+        // The cached ID belongs to a patient that was deleted or renamed; look the username up again
+        ids.invalidate(username);
+        return ids.get(username, loader).flatMap(this::getPatientById)
+                .filter(found -> username.equals(found.getUsername()));
     }
 
     /**
      * Save or update patient.
+     * A name change is propagated to the patient's prescriptions through the outbox.
+     * A patient saved without a clinic keeps its current clinic, or gets the request's clinic when new.
+     * An update without address or medical history keeps the stored values.
+     * The patient is written to its clinic's shard, whatever clinic the request belongs to.
      *
      * @param patient the patient to save
      * @return saved patient
      */
     public Patient savePatient(Patient patient) {
-        return patientRepository.save(patient);
+        Optional<Patient> previous = patient.getId() == null ? Optional.empty() : shardService.findAny(() ->
+                transactionTemplate.execute(status -> patientRepository.findById(patient.getId())));
+        String previousName = previous.map(Patient::getName).orElse(null);
+        if (patient.getClinicId() == null) {
+            patient.setClinicId(previous.map(Patient::getClinicId).orElse(TenantContext.getClinicId()));
+        }
+        return shardService.inClinic(patient.getClinicId(), () -> transactionTemplate.execute(status -> {
+            if (previous.isPresent() && (patient.getAddress() == null || patient.getMedicalHistory() == null)) {
+                patientRepository.findDetailsById(patient.getId()).ifPresent(details -> {
+                    if (patient.getAddress() == null) {
+                        patient.setAddress(details.getAddress());
+                    }
+                    if (patient.getMedicalHistory() == null) {
+                        patient.setMedicalHistory(details.getMedicalHistory());
+                    }
+                });
+            }
+            Patient saved = patientRepository.save(patient);
+            registrationFilterService.addPatientUsername(saved.getUsername());
+            registrationFilterService.addPatientEmail(saved.getEmail());
+            lookupCaches.patientsById().invalidate(saved.getId());
+            previous.map(Patient::getUsername).ifPresent(lookupCaches.patientIdsByUsername()::invalidate);
+            if (previousName != null && !previousName.equals(saved.getName())) {
+                outboxService.record(OutboxService.PATIENT, saved.getId(), OutboxService.RENAMED,
+                        Map.of("name", saved.getName()));
+            }
+            return saved;
+        }));
+    }
+
+    /**
+     * Apply a JSON merge patch to a patient as a single versioned UPDATE on the patient's shard.
+     *
+     * @param id the patient ID
+     * @param expectedVersion the version the client last read
+     * @param patch the changed fields
+     * @return the new version
+     */
+    public long patchPatient(Long id, Long expectedVersion, Map<String, Object> patch) {
+        return shardService.inClinic(clinicOf(id), () -> transactionTemplate.execute(status -> {
+            long version = mergePatchService.apply(Patient.class, id, expectedVersion, patch, PATCHABLE_FIELDS);
+            lookupCaches.patientsById().invalidate(id);
+            if (patch.get("email") instanceof String email) {
+                registrationFilterService.addPatientEmail(email);
+            }
+            if (patch.get("name") != null) {
+                outboxService.record(OutboxService.PATIENT, id, OutboxService.RENAMED, Map.of("name", patch.get("name")));
+            }
+            return version;
+        }));
     }
 
     /**
      * Delete patient by ID.
+     * The patient's prescriptions are removed from MongoDB by the outbox relay.
+     * The appointment table has no foreign keys (it may be partitioned), so a patient
+     * with appointments is refused here instead of by the database. A patient with
+     * appointment series is refused as well, before the series foreign key fails.
+     * Runs on the patient's shard.
      *
      * @param id the patient ID
+     * @throws IllegalStateException if the patient still has appointments or appointment series
      */
     public void deletePatient(Long id) {
-        patientRepository.deleteById(id);
+        shardService.inClinic(clinicOf(id), () -> transactionTemplate.execute(status -> {
+            if (appointmentRepository.existsByPatientId(id)) {
+                throw new IllegalStateException("Patient has appointments and cannot be deleted");
+            }
+            if (appointmentSeriesRepository.existsByPatientId(id)) {
+                throw new IllegalStateException("Patient has appointment series and cannot be deleted");
+            }
+            patientRepository.deleteById(id);
+            lookupCaches.patientsById().invalidate(id);
+            outboxService.record(OutboxService.PATIENT, id, OutboxService.DELETED, Map.of());
+            return null;
+        }));
+    }
+
+    /**
+     * Get the clinic of a patient, looking on every shard when the request does not belong to a clinic.
+     *
+     * @param id the patient ID
+     * @return the patient's clinic, or null if the patient has none or does not exist
+     */
+    private Long clinicOf(Long id) {
+        return getPatientById(id).map(Patient::getClinicId).orElse(null);
     }
 
     /**
      * Search patients by name.
+     * Runs on every shard when the request does not belong to a clinic.
      *
      * @param name the search term
      * @return List of patients
      */
+    @Transactional(readOnly = true)
     public List<Patient> searchByName(String name) {
-        return patientRepository.findByNameContainingIgnoreCase(name);
+        return shardService.scatterGather(() -> patientRepository.findByNameContainingIgnoreCase(name));
     }
 
     /**
      * Find active patients.
+     * Runs on every shard when the request does not belong to a clinic.
      *
      * @return List of active patients
      */
+    @Transactional(readOnly = true)
     public List<Patient> findActivePatients() {
-        return patientRepository.findByIsActive(true);
+        return shardService.scatterGather(() -> patientRepository.findByIsActive(true));
     }
 
     /**
@@ -93,7 +260,7 @@ public class PatientService {
      * @return Optional containing the patient if authenticated
      */
     public Optional<Patient> authenticate(String username, String password) {
-        Optional<Patient> patient = patientRepository.findByUsername(username);
+        Optional<Patient> patient = getPatientByUsername(username);
         if (patient.isPresent() && patient.get().getPassword().equals(password)) {
             return patient;
         }
@@ -101,22 +268,32 @@ public class PatientService {
     }
 
     /**
-     * Check if patient exists by username.
+     * Check if patient exists by username in any clinic.
+     * Usernames the registration filter has never seen are answered without a query;
+     * the others are looked up on every shard, as usernames are unique across clinics.
      *
      * @param username the username
      * @return true if exists
      */
     public boolean existsByUsername(String username) {
-        return patientRepository.existsByUsername(username);
+        if (!registrationFilterService.mightHavePatientUsername(username)) {
+            return false;
+        }
+        return shardService.existsOnAnyShard(() -> patientRepository.existsByUsername(username));
     }
 
     /**
-     * Check if patient exists by email.
+     * Check if patient exists by email in any clinic.
+     * Emails the registration filter has never seen are answered without a query;
+     * the others are looked up on every shard, as emails are unique across clinics.
      *
      * @param email the email
      * @return true if exists
      */
     public boolean existsByEmail(String email) {
-        return patientRepository.existsByEmail(email);
+        if (!registrationFilterService.mightHavePatientEmail(email)) {
+            return false;
+        }
+        return shardService.existsOnAnyShard(() -> patientRepository.existsByEmail(email));
     }
 }
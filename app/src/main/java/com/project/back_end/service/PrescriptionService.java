@@ -1,5 +1,6 @@
 package com.project.back_end.service;
 
+import com.project.back_end.config.TenantContext;
 import com.project.back_end.model.Prescription;
 import com.project.back_end.repository.PrescriptionRepository;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,13 +19,19 @@ public class PrescriptionService {
     @Autowired
     private PrescriptionRepository prescriptionRepository;
 
+    @Autowired
+    private ShardService shardService;
+
     /**
      * Get all prescriptions.
+     * Runs on every shard when the request does not belong to a clinic.
      *
      * @return List of all prescriptions
      */
+    @Coalesce("prescriptions")
+    @Bulkhead(WorkloadClass.REPORTING)
     public List<Prescription> getAllPrescriptions() {
-        return prescriptionRepository.findAll();
+        return shardService.scatterGather(prescriptionRepository::findAll);
     }
 
     /**
@@ -33,17 +40,23 @@ public class PrescriptionService {
      * @param id the prescription ID
      * @return Optional containing the prescription if found
      */
+    @Bulkhead(WorkloadClass.INTERACTIVE)
     public Optional<Prescription> getPrescriptionById(String id) {
         return prescriptionRepository.findById(id);
     }
 
     /**
      * Save or update prescription.
+     * A prescription without a clinic is assigned the request's clinic.
      *
      * @param prescription the prescription to save
      * @return saved prescription
      */
+    @Bulkhead(WorkloadClass.BOOKING)
     public Prescription savePrescription(Prescription prescription) {
+        if (prescription.getClinicId() == null) {
+            prescription.setClinicId(TenantContext.getClinicId());
+        }
         return prescriptionRepository.save(prescription);
     }
 
@@ -52,6 +65,7 @@ public class PrescriptionService {
      *
      * @param id the prescription ID
      */
+    @Bulkhead(WorkloadClass.BOOKING)
     public void deletePrescription(String id) {
         prescriptionRepository.deleteById(id);
     }
@@ -62,6 +76,8 @@ public class PrescriptionService {
      * @param patientId the patient ID
      * @return List of prescriptions
      */
+    @Coalesce("prescriptions-by-patient")
+    @Bulkhead(WorkloadClass.INTERACTIVE)
     public List<Prescription> getPrescriptionsByPatientId(Long patientId) {
         return prescriptionRepository.findByPatientId(patientId);
     }
@@ -72,6 +88,8 @@ public class PrescriptionService {
      * @param doctorId the doctor ID
      * @return List of prescriptions
      */
+    @Coalesce("prescriptions-by-doctor")
+    @Bulkhead(WorkloadClass.INTERACTIVE)
     public List<Prescription> getPrescriptionsByDoctorId(Long doctorId) {
         return prescriptionRepository.findByDoctorId(doctorId);
     }
@@ -82,6 +100,8 @@ public class PrescriptionService {
      * @param appointmentId the appointment ID
      * @return List of prescriptions
      */
+    @Coalesce("prescriptions-by-appointment")
+    @Bulkhead(WorkloadClass.INTERACTIVE)
     public List<Prescription> getPrescriptionsByAppointmentId(Long appointmentId) {
         return prescriptionRepository.findByAppointmentId(appointmentId);
     }
@@ -92,6 +112,8 @@ public class PrescriptionService {
      * @param patientName the patient name
      * @return List of prescriptions
      */
+    @Coalesce("prescription-search")
+    @Bulkhead(WorkloadClass.REPORTING)
     public List<Prescription> searchByPatientName(String patientName) {
         return prescriptionRepository.findByPatientNameContainingIgnoreCase(patientName);
     }
@@ -0,0 +1,243 @@
+package com.project.back_end.service;
+
+import com.project.back_end.repository.DoctorRepository;
+import com.project.back_end.repository.PatientRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.text.Normalizer;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Service keeping Bloom filters of the doctor usernames, patient usernames and patient emails
+ * in use, so registration can skip the uniqueness queries for values that are definitely free.
+ * The filters are built from every shard at startup and rebuilt every
+ * {@code registration.filter.rebuild-ms} (values are never removed from a filter, and other
+ * instances' registrations only arrive with a rebuild); local writes are added as they happen.
+ * Until the first build, and when disabled, every value counts as possibly taken.
+ *
+ * <p>A value the filter reports as possibly taken is looked up on every shard. A value the filter
+ * misses (written on another instance since the last rebuild) is still refused by the unique
+ * constraint when it was written to the same shard. Unique constraints are per shard, so two
+ * registrations of the same value racing in different clinics' shards are not caught.</p>
+ *
+ * <p>Metrics: {@code registration.filter.checks} tagged {@code result=free} (query skipped)
+ * or {@code maybe-taken} (query needed).</p>
+ */
+@Service
+public class RegistrationFilterService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RegistrationFilterService.class);
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    private final DoctorRepository doctorRepository;
+    private final PatientRepository patientRepository;
+    private final ShardService shardService;
+    private final boolean enabled;
+    private final double falsePositiveRate;
+    private final int batchSize;
+    private final Counter free;
+    private final Counter maybeTaken;
+
+    private volatile Filters current;
+    private volatile Filters building;
+
+    public RegistrationFilterService(DoctorRepository doctorRepository,
+                                     PatientRepository patientRepository,
+                                     ShardService shardService,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${registration.filter.enabled:true}") boolean enabled,
+                                     @Value("${registration.filter.false-positive-rate:0.01}") double falsePositiveRate,
+                                     @Value("${registration.filter.batch-size:5000}") int batchSize) {
+        this.doctorRepository = doctorRepository;
+        this.patientRepository = patientRepository;
+        this.shardService = shardService;
+        this.enabled = enabled;
+        this.falsePositiveRate = falsePositiveRate;
+        this.batchSize = batchSize;
+        this.free = checks(meterRegistry, "free");
+        this.maybeTaken = checks(meterRegistry, "maybe-taken");
+    }
+
+    /**
+     * Check whether a doctor username may be in use.
+     *
+     * @param username the username
+     * @return false if no doctor has the username
+     */
+    public boolean mightHaveDoctorUsername(String username) {
+        return check(Filters::doctorUsernames, username);
+    }
+
+    /**
+     * Check whether a patient username may be in use.
+     *
+     * @param username the username
+     * @return false if no patient has the username
+     */
+    public boolean mightHavePatientUsername(String username) {
+        return check(Filters::patientUsernames, username);
+    }
+
+    /**
+     * Check whether a patient email may be in use.
+     *
+     * @param email the email
+     * @return false if no patient has the email
+     */
+    public boolean mightHavePatientEmail(String email) {
+        return check(Filters::patientEmails, email);
+    }
+
+    /**
+     * Record a doctor username as taken.
+     *
+     * @param username the username
+     */
+    public void addDoctorUsername(String username) {
+        add(username, Filters::doctorUsernames);
+    }
+
+    /**
+     * Record a patient username as taken.
+     *
+     * @param username the username
+     */
+    public void addPatientUsername(String username) {
+        add(username, Filters::patientUsernames);
+    }
+
+    /**
+     * Record a patient email as taken.
+     *
+     * @param email the email
+     */
+    public void addPatientEmail(String email) {
+        add(email, Filters::patientEmails);
+    }
+
+    /**
+     * Rebuild the filters from every shard.
+     * The previous filters stay in use until the new ones are complete.
+     */
+    @Scheduled(fixedDelayString = "${registration.filter.rebuild-ms:3600000}",
+            initialDelayString = "${registration.filter.initial-delay-ms:0}")
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        long started = System.currentTimeMillis();
+        long doctors = shardService.scatterGather(() -> List.of(doctorRepository.count())).stream()
+                .mapToLong(Long::longValue).sum();
+        long patients = shardService.scatterGather(() -> List.of(patientRepository.count())).stream()
+                .mapToLong(Long::longValue).sum();
+
+        // Sized for twice the current rows, so the rate holds until the next rebuild
+        Filters next = new Filters(new BloomFilter(Math.max(1000, doctors * 2), falsePositiveRate),
+                new BloomFilter(Math.max(10000, patients * 2), falsePositiveRate),
+                new BloomFilter(Math.max(10000, patients * 2), falsePositiveRate));
+        AtomicBoolean failed = new AtomicBoolean();
+        building = next;
+        try {
+            shardService.forEachShard(() -> {
+                try {
+                    loadShard(next);
+                } catch (RuntimeException e) {
+                    failed.set(true);
+                    throw e;
+                }
+            });
+        } finally {
+            building = null;
+        }
+
+        if (failed.get()) {
+            logger.warn("Registration filters not rebuilt because a shard failed to load; keeping the previous ones");
+            return;
+        }
+        current = next;
+        logger.info("Built registration filters for {} doctors and {} patients in {} ms",
+                doctors, patients, System.currentTimeMillis() - started);
+    }
+
+    private void loadShard(Filters filters) {
+        long afterId = 0;
+        List<Object[]> rows;
+        do {
+            rows = doctorRepository.findUsernamesAfter(afterId, PageRequest.of(0, batchSize));
+            for (Object[] row : rows) {
+                afterId = (Long) row[0];
+                put(filters.doctorUsernames(), (String) row[1]);
+            }
+        } while (rows.size() == batchSize);
+
+        afterId = 0;
+        do {
+            rows = patientRepository.findIdentifiersAfter(afterId, PageRequest.of(0, batchSize));
+            for (Object[] row : rows) {
+                afterId = (Long) row[0];
+                put(filters.patientUsernames(), (String) row[1]);
+                put(filters.patientEmails(), (String) row[2]);
+            }
+        } while (rows.size() == batchSize);
+    }
+
+    private boolean check(Function<Filters, BloomFilter> field, String value) {
+        Filters filters = current;
+        if (!enabled || filters == null || value == null) {
+            return true;
+        }
+        if (field.apply(filters).mightContain(normalize(value))) {
+            maybeTaken.increment();
+            return true;
+        }
+        free.increment();
+        return false;
+    }
+
+    private void add(String value, Function<Filters, BloomFilter> field) {
+        if (value == null) {
+            return;
+        }
+        String normalized = normalize(value);
+        Filters filters = current;
+        if (filters != null) {
+            field.apply(filters).put(normalized);
+        }
+        // A rebuild in progress may already have passed this row
+        Filters pending = building;
+        if (pending != null) {
+            field.apply(pending).put(normalized);
+        }
+    }
+
+    private void put(BloomFilter filter, String value) {
+        if (value != null) {
+            filter.put(normalize(value));
+        }
+    }
+
+    // MySQL's default collation compares case- and accent-insensitively, so the filters must too
+    private String normalize(String value) {
+        String decomposed = Normalizer.normalize(value.strip(), Normalizer.Form.NFD);
+        return COMBINING_MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    private Counter checks(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("registration.filter.checks").tag("result", result)
+                .description("Uniqueness pre-checks answered by the registration filters").register(meterRegistry);
+    }
+
+    private record Filters(BloomFilter doctorUsernames, BloomFilter patientUsernames, BloomFilter patientEmails) {
+    }
+}
@@ -0,0 +1,135 @@
+package com.project.back_end.service;
+
+import com.project.back_end.config.TenantContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Service sharing one in-flight execution between concurrent identical calls (single flight).
+ * The first call for a key executes; calls arriving while it runs wait for its result, or its
+ * exception, instead of querying again. A waiting call that does not get the result within
+ * {@code coalesce.<name>.max-wait-ms} runs on its own. Coalescing is switched per name with
+ * {@code coalesce.<name>.enabled}; both settings fall back to {@code coalesce.enabled} and
+ * {@code coalesce.max-wait-ms}.
+ *
+ * <p>Metrics (tagged with {@code name}): {@code coalesce.calls} with {@code result=executed}
+ * (ran the call), {@code joined} (shared another call's result) or {@code timeout} (gave up
+ * waiting), and the gauge {@code coalesce.in.flight}.</p>
+ */
+@Service
+public class RequestCoalescer {
+
+    private final Environment environment;
+    private final MeterRegistry meterRegistry;
+    private final Map<Key, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, Group> groups = new ConcurrentHashMap<>();
+
+    public RequestCoalescer(Environment environment, MeterRegistry meterRegistry) {
+        this.environment = environment;
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("coalesce.in.flight", inFlight, Map::size)
+                .description("Distinct coalesced calls currently executing").register(meterRegistry);
+    }
+
+    /**
+     * Run a call, or wait for an identical call already running.
+     *
+     * @param name the coalescing name
+     * @param method the called method
+     * @param args the call arguments
+     * @param call runs the method
+     * @return the result of this call or of the identical call it joined
+     * @throws Throwable whatever the executed call threw
+     */
+    public Object execute(String name, Method method, Object[] args, Call call) throws Throwable {
+        Group group = groups.computeIfAbsent(name, this::group);
+        if (!group.enabled()) {
+            return call.proceed();
+        }
+
+        Key key = new Key(method, Arrays.asList(args), TenantContext.getClinicId(), TenantContext.getShard());
+        CompletableFuture<Object> own = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(key, own);
+        if (running != null) {
+            return join(group, running, call);
+        }
+
+        group.executed().increment();
+        try {
+            Object result = call.proceed();
+            own.complete(result);
+            return result;
+        } catch (Throwable e) {
+            own.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, own);
+        }
+    }
+
+    private Object join(Group group, CompletableFuture<Object> running, Call call) throws Throwable {
+        try {
+            Object result = running.get(group.maxWaitMillis(), TimeUnit.MILLISECONDS);
+            group.joined().increment();
+            return result;
+        } catch (ExecutionException e) {
+            group.joined().increment();
+            throw e.getCause();
+        } catch (TimeoutException e) {
+            group.timedOut().increment();
+            return call.proceed();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for a coalesced call");
+        }
+    }
+
+    private Group group(String name) {
+        String prefix = "coalesce." + name + ".";
+        boolean enabled = environment.getProperty(prefix + "enabled", Boolean.class,
+                environment.getProperty("coalesce.enabled", Boolean.class, true));
+        long maxWaitMillis = environment.getProperty(prefix + "max-wait-ms", Long.class,
+                environment.getProperty("coalesce.max-wait-ms", Long.class, 5000L));
+        return new Group(enabled, maxWaitMillis, calls(name, "executed"), calls(name, "joined"),
+                calls(name, "timeout"));
+    }
+
+    private Counter calls(String name, String result) {
+        return Counter.builder("coalesce.calls").tag("name", name).tag("result", result)
+                .description("Calls to coalesced methods by outcome").register(meterRegistry);
+    }
+
+    /**
+     * The coalesced method invocation.
+     */
+    @FunctionalInterface
+    public interface Call {
+
+        /**
+         * Run the method.
+         *
+         * @return the method's result
+         * @throws Throwable whatever the method threw
+         */
+        Object proceed() throws Throwable;
+    }
+
+    private record Key(Method method, List<Object> args, Long clinicId, String shard) {
+    }
+
+    private record Group(boolean enabled, long maxWaitMillis, Counter executed, Counter joined, Counter timedOut) {
+    }
+}
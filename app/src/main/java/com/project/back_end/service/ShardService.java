@@ -0,0 +1,211 @@
+package com.project.back_end.service;
+
+import com.project.back_end.config.ShardRouter;
+import com.project.back_end.config.ShardingProperties;
+import com.project.back_end.config.TenantContext;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Service running work across shards.
+ * Cross-shard queries are scattered to every shard on a bounded pool
+ * ({@code app.sharding.max-parallelism} threads) and the results are concatenated; repository
+ * calls made on the pool threads run in their own transactions on the task's shard. With sharding disabled, or when the request already
+ * belongs to a clinic, work simply runs on the current thread. Writes run in the clinic of the
+ * entity they change (see inClinic), so they land on the shard its reads find it on.
+ */
+@Service
+public class ShardService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardService.class);
+
+    private final ShardRouter shardRouter;
+    private final ShardingProperties properties;
+    private final ThreadPoolExecutor executor;
+
+    @Autowired
+    public ShardService(ShardRouter shardRouter, ShardingProperties properties) {
+        this.shardRouter = shardRouter;
+        this.properties = properties;
+
+        int threads = Math.max(1, properties.getMaxParallelism());
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(threads * 32), runnable -> {
+                    Thread thread = new Thread(runnable, "shard-query-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Run a query on every shard and concatenate the results.
+     *
+     * @param query the query; it runs on pool threads, outside the caller's transaction
+     * @return combined results
+     * @throws RuntimeException if a shard fails or does not answer within app.sharding.scatter-timeout-seconds
+     */
+    public <T> List<T> scatterGather(Supplier<List<T>> query) {
+        List<String> shards = shardRouter.getShardNames();
+        if (shards.isEmpty() || TenantContext.getClinicId() != null || TenantContext.getShard() != null) {
+            return query.get();
+        }
+
+        // Pool threads log under the caller's correlation ID
+        Map<String, String> mdc = MDC.getCopyOfContextMap();
+        List<Future<List<T>>> futures = new ArrayList<>(shards.size());
+        for (String shard : shards) {
+            futures.add(executor.submit(() -> withMdc(mdc, () -> onShard(shard, query))));
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(properties.getScatterTimeoutSeconds());
+        List<T> results = new ArrayList<>();
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                List<T> shardResults = futures.get(i).get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                if (shardResults != null) {
+                    results.addAll(shardResults);
+                }
+            } catch (TimeoutException e) {
+                futures.forEach(future -> future.cancel(true));
+                throw new RuntimeException("Shard query timed out on shard " + shards.get(i));
+            } catch (ExecutionException e) {
+                futures.forEach(future -> future.cancel(true));
+                throw new RuntimeException("Shard query failed on shard " + shards.get(i) + ": "
+                        + e.getCause().getMessage(), e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futures.forEach(future -> future.cancel(true));
+                throw new RuntimeException("Shard query interrupted");
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Look up a single entity on every shard and return it from the shard that has it.
+     * Entity IDs are unique across shards, so at most one shard answers a lookup by ID.
+     *
+     * @param query the lookup; it runs on pool threads, outside the caller's transaction
+     * @return the entity, or empty if no shard has it
+     */
+    public <T> Optional<T> findAny(Supplier<Optional<T>> query) {
+        return scatterGather(() -> query.get().map(Collections::singletonList).orElse(Collections.emptyList()))
+                .stream()
+                .findFirst();
+    }
+
+    /**
+     * Check a condition on every shard, even when the request belongs to a clinic.
+     * Used for values that must be unique across clinics, since each shard's unique
+     * constraints only cover its own rows.
+     *
+     * @param check the check; it runs on pool threads, outside the caller's transaction
+     * @return true if the check holds on any shard
+     */
+    public boolean existsOnAnyShard(Supplier<Boolean> check) {
+        Long clinicId = TenantContext.getClinicId();
+        String shard = TenantContext.getShard();
+        TenantContext.clear();
+        try {
+            return scatterGather(() -> Collections.singletonList(Boolean.TRUE.equals(check.get()))).contains(true);
+        } finally {
+            TenantContext.setClinicId(clinicId);
+            TenantContext.setShard(shard);
+        }
+    }
+
+    /**
+     * Run work in a clinic, whatever clinic the request belongs to, so its database work goes to
+     * that clinic's shard. Transactions must start inside the work: one that is already open stays
+     * on the shard it was opened on.
+     *
+     * @param clinicId the clinic, or null to run in the request's own clinic
+     * @param work the work
+     * @return the work's result
+     */
+    public <T> T inClinic(Long clinicId, Supplier<T> work) {
+        if (clinicId == null) {
+            return work.get();
+        }
+        Long previousClinicId = TenantContext.getClinicId();
+        String previousShard = TenantContext.getShard();
+        TenantContext.setClinicId(clinicId);
+        TenantContext.setShard(null);
+        try {
+            return work.get();
+        } finally {
+            TenantContext.setClinicId(previousClinicId);
+            TenantContext.setShard(previousShard);
+        }
+    }
+
+    /**
+     * Run a task once per shard, one shard after another (used by scheduled jobs).
+     * A failure on one shard is logged and does not stop the others.
+     *
+     * @param task the task
+     */
+    public void forEachShard(Runnable task) {
+        List<String> shards = shardRouter.getShardNames();
+        if (shards.isEmpty()) {
+            task.run();
+            return;
+        }
+        for (String shard : shards) {
+            try {
+                onShard(shard, () -> {
+                    task.run();
+                    return null;
+                });
+            } catch (RuntimeException e) {
+                logger.warn("Task failed on shard {}: {}", shard, e.getMessage());
+            }
+        }
+    }
+
+    private <T> T onShard(String shard, Supplier<T> work) {
+        String previous = TenantContext.getShard();
+        TenantContext.setShard(shard);
+        try {
+            return work.get();
+        } finally {
+            TenantContext.setShard(previous);
+        }
+    }
+
+    private <T> T withMdc(Map<String, String> mdc, Supplier<T> work) {
+        if (mdc != null) {
+            MDC.setContextMap(mdc);
+        }
+        try {
+            return work.get();
+        } finally {
+            MDC.clear();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
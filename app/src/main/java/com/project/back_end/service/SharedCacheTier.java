@@ -0,0 +1,38 @@
+package com.project.back_end.service;
+
+import java.time.Duration;
+
+/**
+ * Shared (second-level) tier behind the per-node lookup caches, e.g. a Redis or Memcached
+ * client. Implementations are selected with the {@code cache.l2.type} property; with no
+ * implementation the caches run with their per-node tier only.
+ */
+public interface SharedCacheTier {
+
+    /**
+     * Get a value.
+     *
+     * @param cacheName the cache name
+     * @param key the key, unique within the cache
+     * @return the value, or null if absent or expired
+     */
+    Object get(String cacheName, String key);
+
+    /**
+     * Store a value.
+     *
+     * @param cacheName the cache name
+     * @param key the key, unique within the cache
+     * @param value the value
+     * @param ttl how long the value may be served
+     */
+    void put(String cacheName, String key, Object value, Duration ttl);
+
+    /**
+     * Remove a value.
+     *
+     * @param cacheName the cache name
+     * @param key the key, unique within the cache
+     */
+    void evict(String cacheName, String key);
+}
@@ -0,0 +1,119 @@
+package com.project.back_end.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Hashed timer wheel for scheduling many in-memory timers cheaply.
+ * Timers are hashed into buckets by their tick; advancing the wheel only visits the
+ * buckets for the elapsed ticks. Timers further away than one revolution stay in their
+ * bucket until their tick comes round. Instances are thread-safe.
+ *
+ * @param <T> the timer payload type
+ */
+public class TimeWheel<T> {
+
+    private final long tickMillis;
+    private final List<List<Timer<T>>> buckets;
+    private long lastTick;
+    private int size;
+
+    /**
+     * Create a wheel.
+     *
+     * @param tickMillis resolution of the wheel in milliseconds
+     * @param bucketCount number of buckets (one revolution = tickMillis * bucketCount)
+     * @param nowMillis current time in milliseconds
+     */
+    public TimeWheel(long tickMillis, int bucketCount, long nowMillis) {
+        this.tickMillis = tickMillis;
+        this.buckets = new ArrayList<>(bucketCount);
+        for (int i = 0; i < bucketCount; i++) {
+            buckets.add(new ArrayList<>());
+        }
+        this.lastTick = nowMillis / tickMillis;
+    }
+
+    /**
+     * Schedule a timer. Timers already due fire on the next advance.
+     *
+     * @param fireAtMillis when the timer fires
+     * @param payload the timer payload
+     */
+    public synchronized void schedule(long fireAtMillis, T payload) {
+        long tick = Math.max(fireAtMillis / tickMillis, lastTick + 1);
+        buckets.get((int) (tick % buckets.size())).add(new Timer<>(tick, payload));
+        size++;
+    }
+
+    /**
+     * Remove pending timers matching a predicate.
+     *
+     * @param filter selects timers to remove
+     * @return number of timers removed
+     */
+    public synchronized int cancel(Predicate<T> filter) {
+        int removed = 0;
+        for (List<Timer<T>> bucket : buckets) {
+            int before = bucket.size();
+            bucket.removeIf(timer -> filter.test(timer.payload));
+            removed += before - bucket.size();
+        }
+        size -= removed;
+        return removed;
+    }
+
+    /**
+     * Advance the wheel to the given time and collect every timer that became due.
+     *
+     * @param nowMillis current time in milliseconds
+     * @return payloads of due timers
+     */
+    public synchronized List<T> advance(long nowMillis) {
+        long nowTick = nowMillis / tickMillis;
+        List<T> due = new ArrayList<>();
+        // Visit each bucket at most once even if the wheel was not advanced for a long time
+        long ticksToVisit = Math.min(nowTick - lastTick, buckets.size());
+        for (long t = nowTick - ticksToVisit + 1; t <= nowTick; t++) {
+            List<Timer<T>> bucket = buckets.get((int) (t % buckets.size()));
+            bucket.removeIf(timer -> {
+                if (timer.tick <= nowTick) {
+                    due.add(timer.payload);
+                    return true;
+                }
+                return false;
+            });
+        }
+        lastTick = Math.max(lastTick, nowTick);
+        size -= due.size();
+        return due;
+    }
+
+    /**
+     * Remove all pending timers.
+     */
+    public synchronized void clear() {
+        buckets.forEach(List::clear);
+        size = 0;
+    }
+
+    /**
+     * Get the number of pending timers.
+     *
+     * @return pending timer count
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    private static final class Timer<T> {
+        private final long tick;
+        private final T payload;
+
+        private Timer(long tick, T payload) {
+            this.tick = tick;
+            this.payload = payload;
+        }
+    }
+}
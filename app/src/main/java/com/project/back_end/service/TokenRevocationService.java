@@ -0,0 +1,87 @@
+package com.project.back_end.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Service holding the IDs (jti) of revoked tokens that have not yet expired.
+ * Checks are a hash lookup in memory, so revocation adds no database access per request.
+ * Revocations are written through to the shared TokenRevocationStore, when one is configured,
+ * and other instances' revocations are pulled from it every {@code token.revocation.sync-ms}.
+ * Entries are pruned once their token has expired, as the expiry check rejects it anyway.
+ *
+ * <p>Metrics: {@code token.revocations} (revoked tokens held) and {@code token.revocation.rejected}
+ * (requests refused because their token was revoked).</p>
+ */
+@Service
+public class TokenRevocationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    private final Map<String, Instant> revoked = new ConcurrentHashMap<>();
+    private final TokenRevocationStore store;
+    private final Counter rejected;
+
+    @Autowired
+    public TokenRevocationService(@Autowired(required = false) TokenRevocationStore store,
+                                  MeterRegistry meterRegistry) {
+        this.store = store;
+        this.rejected = Counter.builder("token.revocation.rejected")
+                .description("Requests refused because their token was revoked").register(meterRegistry);
+        Gauge.builder("token.revocations", revoked, Map::size)
+                .description("Revoked tokens not yet expired").register(meterRegistry);
+    }
+
+    /**
+     * Revoke a token.
+     *
+     * @param tokenId the token's jti
+     * @param expiresAt when the token expires
+     */
+    public void revoke(String tokenId, Instant expiresAt) {
+        revoked.put(tokenId, expiresAt);
+        if (store != null) {
+            store.add(tokenId, expiresAt);
+        }
+    }
+
+    /**
+     * Check whether a token has been revoked.
+     *
+     * @param tokenId the token's jti, or null for tokens issued without one
+     * @return true if revoked
+     */
+    public boolean isRevoked(String tokenId) {
+        if (tokenId == null || !revoked.containsKey(tokenId)) {
+            return false;
+        }
+        rejected.increment();
+        return true;
+    }
+
+    /**
+     * Pull revocations made on other instances and drop expired entries.
+     */
+    @Scheduled(fixedDelayString = "${token.revocation.sync-ms:5000}")
+    public void sync() {
+        Instant now = Instant.now();
+        if (store != null) {
+            try {
+                revoked.putAll(store.findActive(now));
+            } catch (RuntimeException e) {
+                logger.warn("Could not read revoked tokens from the shared store: {}", e.getMessage());
+            }
+        }
+        revoked.values().removeIf(expiresAt -> !expiresAt.isAfter(now));
+    }
+}
@@ -0,0 +1,29 @@
+package com.project.back_end.service;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Shared store of revoked token IDs, through which revocations reach every instance, e.g. a
+ * Redis set or a database table. Implementations are selected with the
+ * {@code token.revocation.store} property; with no implementation a revocation only applies
+ * on the instance that made it.
+ */
+public interface TokenRevocationStore {
+
+    /**
+     * Record a revoked token.
+     *
+     * @param tokenId the token's jti
+     * @param expiresAt when the token expires; the entry is not needed after that
+     */
+    void add(String tokenId, Instant expiresAt);
+
+    /**
+     * Get the revoked tokens that have not yet expired.
+     *
+     * @param now the current time
+     * @return expiry time by token ID
+     */
+    Map<String, Instant> findActive(Instant now);
+}
@@ -4,16 +4,19 @@ import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 
 /**
  * Service for JWT token generation and validation.
  * Handles authentication tokens for admin, doctor, and patient roles.
+ * Every token carries a random ID (jti) so it can be revoked before it expires.
  */
 @Service
 public class TokenService {
@@ -23,26 +26,36 @@ public class TokenService {
 
     private final SecretKey key;
 
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
     public TokenService() {
         this.key = Keys.hmacShaKeyFor(SECRET_KEY.getBytes());
     }
 
     /**
      * Generate JWT token for a user.
+     * The clinic of the authenticated user, if any, is carried as the clinicId claim; it must
+     * come from the stored user, never from the request, because TenantFilter trusts the claim.
      *
      * @param userId the user ID
      * @param username the username
      * @param role the user role (ADMIN, DOCTOR, PATIENT)
+     * @param clinicId the user's clinic, or null for users not bound to a clinic
      * @return JWT token string
      */
-    public String generateToken(Long userId, String username, String role) {
+    public String generateToken(Long userId, String username, String role, Long clinicId) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("userId", userId);
         claims.put("username", username);
         claims.put("role", role);
+        if (clinicId != null) {
+            claims.put("clinicId", clinicId);
+        }
 
         return Jwts.builder()
                 .setClaims(claims)
+                .setId(UUID.randomUUID().toString())
                 .setSubject(username)
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
@@ -52,20 +65,39 @@ public class TokenService {
 
     /**
      * Validate JWT token.
+     * A revoked token is invalid.
      *
      * @param token the JWT token
      * @return true if valid, false otherwise
      */
     public boolean validateToken(String token) {
         try {
-            Jwts.parser()
-                    .verifyWith(key)
-                    .build()
-                    .parseSignedClaims(token);
-            return true;
+            Claims claims = extractClaims(token);
+            return !tokenRevocationService.isRevoked(claims.getId());
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /**
+     * Revoke a token, e.g. on logout. Tokens issued without an ID cannot be revoked and
+     * stay valid until they expire.
+     *
+     * @param token the JWT token
+     * @return true if the token was revoked, false if it is invalid or has no ID
+     */
+    public boolean revokeToken(String token) {
+        Claims claims;
+        try {
+            claims = extractClaims(token);
         } catch (Exception e) {
             return false;
         }
+        if (claims.getId() == null) {
+            return false;
+        }
+        tokenRevocationService.revoke(claims.getId(), claims.getExpiration().toInstant());
+        return true;
     }
 
     /**
@@ -116,6 +148,20 @@ public class TokenService {
         return (Long) userId;
     }
 
+    /**
+     * Extract clinic ID from token.
+     *
+     * @param token the JWT token
+     * @return clinic ID, or null if the token carries none
+     */
+    public Long extractClinicId(String token) {
+        Object clinicId = extractClaims(token).get("clinicId");
+        if (clinicId instanceof Integer) {
+            return ((Integer) clinicId).longValue();
+        }
+        return (Long) clinicId;
+    }
+
     /**
      * Check if token is expired.
      *
@@ -0,0 +1,220 @@
+package com.project.back_end.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Read-through cache with a per-node tier (L1) and an optional shared tier (L2).
+ * L1 is a size-bounded LRU map whose entries expire after a TTL, which also bounds how long
+ * a change made on another node can be served stale. Absent values are not cached. Values
+ * are copied on the way in and out, so callers may modify what they get. Keys are scoped
+ * (e.g. by shard) so equal keys in different scopes do not collide. Instances are thread-safe.
+ *
+ * <p>Metrics, tagged with the cache name: {@code cache.gets} (result hit or miss, tier l1
+ * or l2), {@code cache.evictions} (cause size, expired or invalidated), {@code cache.load}
+ * (loader latency), {@code cache.size} and {@code cache.hit.ratio}.</p>
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public class TwoLevelCache<K, V> {
+
+    private final String name;
+    private final int maxSize;
+    private final long ttlNanos;
+    private final Duration sharedTtl;
+    private final SharedCacheTier sharedTier;
+    private final Supplier<String> scope;
+    private final UnaryOperator<V> copier;
+    private final LinkedHashMap<String, Entry<V>> entries;
+
+    private final Counter l1Hits;
+    private final Counter l2Hits;
+    private final Counter misses;
+    private final Counter sizeEvictions;
+    private final Counter expiredEvictions;
+    private final Counter invalidations;
+    private final Timer loadTimer;
+
+    /**
+     * Create a cache.
+     *
+     * @param name the cache name, used for metrics and L2 keys
+     * @param maxSize maximum number of L1 entries
+     * @param ttl L1 entry lifetime
+     * @param sharedTier the L2 tier, or null for L1 only
+     * @param sharedTtl L2 entry lifetime
+     * @param scope supplies the current key scope, or null when unscoped
+     * @param copier copies values; must not return the instance it is given for mutable values
+     * @param meterRegistry registry for the cache metrics
+     */
+    public TwoLevelCache(String name, int maxSize, Duration ttl, SharedCacheTier sharedTier, Duration sharedTtl,
+                         Supplier<String> scope, UnaryOperator<V> copier, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.sharedTier = sharedTier;
+        this.sharedTtl = sharedTtl;
+        this.scope = scope;
+        this.copier = copier;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+
+        this.l1Hits = gets(meterRegistry, "hit", "l1");
+        this.l2Hits = gets(meterRegistry, "hit", "l2");
+        this.misses = gets(meterRegistry, "miss", "none");
+        this.sizeEvictions = evictions(meterRegistry, "size");
+        this.expiredEvictions = evictions(meterRegistry, "expired");
+        this.invalidations = evictions(meterRegistry, "invalidated");
+        this.loadTimer = Timer.builder("cache.load").tag("cache", name)
+                .description("Time to load values missing from both cache tiers")
+                .register(meterRegistry);
+        Gauge.builder("cache.size", this, TwoLevelCache::size).tag("cache", name).register(meterRegistry);
+        Gauge.builder("cache.hit.ratio", this, TwoLevelCache::hitRatio).tag("cache", name).register(meterRegistry);
+    }
+
+    /**
+     * Get a value, loading and caching it if neither tier has it.
+     *
+     * @param key the key
+     * @param loader loads the value on a miss; an empty result is not cached
+     * @return a copy of the value, or empty if the loader found none
+     */
+    @SuppressWarnings("unchecked")
+    public Optional<V> get(K key, Function<K, Optional<V>> loader) {
+        String scopedKey = scopedKey(key);
+        V cached = getLocal(scopedKey);
+        if (cached != null) {
+            l1Hits.increment();
+            return Optional.of(copier.apply(cached));
+        }
+        if (sharedTier != null) {
+            V shared = (V) sharedTier.get(name, scopedKey);
+            if (shared != null) {
+                l2Hits.increment();
+                putLocal(scopedKey, shared);
+                return Optional.of(copier.apply(shared));
+            }
+        }
+
+        misses.increment();
+        long started = System.nanoTime();
+        Optional<V> loaded = loader.apply(key);
+        loadTimer.record(Duration.ofNanos(System.nanoTime() - started));
+        if (loaded.isEmpty()) {
+            return loaded;
+        }
+        V value = copier.apply(loaded.get());
+        putLocal(scopedKey, value);
+        if (sharedTier != null) {
+            sharedTier.put(name, scopedKey, value, sharedTtl);
+        }
+        return Optional.of(copier.apply(value));
+    }
+
+    /**
+     * Remove a key from both tiers now and again after the surrounding transaction commits,
+     * so a read between the write and the commit cannot leave the old value cached.
+     *
+     * @param key the key
+     */
+    public void invalidate(K key) {
+        String scopedKey = scopedKey(key);
+        evict(scopedKey);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(scopedKey);
+                }
+            });
+        }
+    }
+
+    /**
+     * Get the share of gets answered by either tier.
+     *
+     * @return hit ratio between 0 and 1, or 0 before the first get
+     */
+    public double hitRatio() {
+        double hits = l1Hits.count() + l2Hits.count();
+        double total = hits + misses.count();
+        return total == 0 ? 0 : hits / total;
+    }
+
+    /**
+     * Get the number of L1 entries, including expired ones not yet removed.
+     *
+     * @return L1 size
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private synchronized V getLocal(String scopedKey) {
+        Entry<V> entry = entries.get(scopedKey);
+        if (entry == null) {
+            return null;
+        }
+        if (System.nanoTime() - entry.createdNanos >= ttlNanos) {
+            entries.remove(scopedKey);
+            expiredEvictions.increment();
+            return null;
+        }
+        return entry.value;
+    }
+
+    private synchronized void putLocal(String scopedKey, V value) {
+        entries.put(scopedKey, new Entry<>(value, System.nanoTime()));
+        if (entries.size() > maxSize) {
+            // Access order: the first entry is the least recently used
+            Iterator<Map.Entry<String, Entry<V>>> eldest = entries.entrySet().iterator();
+            eldest.next();
+            eldest.remove();
+            sizeEvictions.increment();
+        }
+    }
+
+    private void evict(String scopedKey) {
+        boolean removed;
+        synchronized (this) {
+            removed = entries.remove(scopedKey) != null;
+        }
+        if (removed) {
+            invalidations.increment();
+        }
+        if (sharedTier != null) {
+            sharedTier.evict(name, scopedKey);
+        }
+    }
+
+    private String scopedKey(K key) {
+        String currentScope = scope == null ? null : scope.get();
+        return currentScope == null ? String.valueOf(key) : currentScope + ":" + key;
+    }
+
+    private Counter gets(MeterRegistry meterRegistry, String result, String tier) {
+        return Counter.builder("cache.gets").tag("cache", name).tag("result", result).tag("tier", tier)
+                .register(meterRegistry);
+    }
+
+    private Counter evictions(MeterRegistry meterRegistry, String cause) {
+        return Counter.builder("cache.evictions").tag("cache", name).tag("cause", cause)
+                .register(meterRegistry);
+    }
+
+    private record Entry<V>(V value, long createdNanos) {
+    }
+}
@@ -0,0 +1,561 @@
+package com.project.back_end.service;
+
+import com.project.back_end.config.TenantContext;
+import com.project.back_end.dto.AppointmentDto;
+import com.project.back_end.dto.AppointmentEvent;
+import com.project.back_end.dto.Notification;
+import com.project.back_end.dto.WaitlistEntryDto;
+import com.project.back_end.model.Appointment;
+import com.project.back_end.model.Doctor;
+import com.project.back_end.model.Patient;
+import com.project.back_end.model.WaitlistEntry;
+import com.project.back_end.repository.AppointmentRepository;
+import com.project.back_end.repository.DoctorRepository;
+import com.project.back_end.repository.PatientRepository;
+import com.project.back_end.repository.WaitlistEntryRepository;
+import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Service keeping per-doctor waitlists and backfilling cancelled slots from them.
+ * Waiting patients are held in memory in one priority queue per doctor (highest priority,
+ * then earliest joined, first), so a cancellation is offered to the next eligible patient
+ * as soon as it commits. An offer holds the slot for {@code waitlist.offer-hold-minutes};
+ * holds are timers in a second-resolution time wheel, and an expired or declined offer
+ * moves on to the next patient. Entries are persisted, and the queues are rebuilt from
+ * MySQL at startup and every {@code waitlist.resync-ms}, which also picks up entries
+ * created on other instances. Offers are claimed with conditional updates, so two
+ * instances never offer the same entry or re-offer the same expired hold.
+ */
+@Service
+public class WaitlistService {
+
+    private static final Logger logger = LoggerFactory.getLogger(WaitlistService.class);
+    private static final long TICK_MILLIS = 1000;
+    private static final Comparator<Candidate> OFFER_ORDER = Comparator.comparingInt(Candidate::priority).reversed()
+            .thenComparing(Candidate::createdAt)
+            .thenComparing(Candidate::id);
+
+    @Autowired
+    private WaitlistEntryRepository waitlistRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private DoctorAvailabilityService doctorAvailabilityService;
+
+    @Autowired
+    private NotificationSink notificationSink;
+
+    @Autowired
+    private ShardService shardService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${waitlist.enabled:true}")
+    private boolean enabled;
+
+    @Value("${waitlist.offer-hold-minutes:15}")
+    private long holdMinutes;
+
+    @Value("${waitlist.min-notice-minutes:60}")
+    private long minNoticeMinutes;
+
+    private final Map<Long, PriorityQueue<Candidate>> queues = new ConcurrentHashMap<>();
+    private final Map<Long, Offer> offers = new ConcurrentHashMap<>();
+    // One revolution covers an hour; longer holds wait for their round
+    private final TimeWheel<Long> holds = new TimeWheel<>(TICK_MILLIS, 3600, System.currentTimeMillis());
+
+    /**
+     * Put a patient on a doctor's waitlist.
+     *
+     * @param dto the entry DTO
+     * @return saved entry
+     * @throws IllegalArgumentException if the doctor or patient does not exist or the window is empty
+     * @throws IllegalStateException if the patient is already waiting for the doctor
+     */
+    @Bulkhead(WorkloadClass.BOOKING)
+    @Transactional
+    public WaitlistEntry join(WaitlistEntryDto dto) {
+        if (!dto.getEarliest().isBefore(dto.getLatest())) {
+            throw new IllegalArgumentException("Earliest acceptable start must be before the latest");
+        }
+        Doctor doctor = doctorRepository.findById(dto.getDoctorId())
+                .orElseThrow(() -> new IllegalArgumentException("Doctor not found with id: " + dto.getDoctorId()));
+        if (!patientRepository.existsById(dto.getPatientId())) {
+            throw new IllegalArgumentException("Patient not found with id: " + dto.getPatientId());
+        }
+        if (waitlistRepository.existsOpen(dto.getDoctorId(), dto.getPatientId())) {
+            throw new IllegalStateException("Patient is already on this doctor's waitlist");
+        }
+
+        WaitlistEntry entry = new WaitlistEntry();
+        entry.setDoctorId(dto.getDoctorId());
+        entry.setPatientId(dto.getPatientId());
+        entry.setEarliest(dto.getEarliest());
+        entry.setLatest(dto.getLatest());
+        entry.setPriority(dto.getPriority() == null ? 0 : dto.getPriority());
+        entry.setClinicId(doctor.getClinicId());
+        entry.setCreatedAt(LocalDateTime.now());
+
+        WaitlistEntry saved = waitlistRepository.save(entry);
+        afterCommit(() -> enqueue(Candidate.of(saved)));
+        return saved;
+    }
+
+    /**
+     * Get waitlist entry by ID.
+     *
+     * @param id the entry ID
+     * @return Optional containing the entry if found
+     */
+    @Bulkhead(WorkloadClass.INTERACTIVE)
+    @Transactional(readOnly = true)
+    public Optional<WaitlistEntry> getEntryById(Long id) {
+        return waitlistRepository.findById(id);
+    }
+
+    /**
+     * Get a patient's waitlist entries.
+     *
+     * @param patientId the patient ID
+     * @return List of entries, newest first
+     */
+    @Bulkhead(WorkloadClass.INTERACTIVE)
+    @Transactional(readOnly = true)
+    public List<WaitlistEntry> getEntriesByPatientId(Long patientId) {
+        return waitlistRepository.findByPatientIdOrderByCreatedAtDesc(patientId);
+    }
+
+    /**
+     * Take a patient off the waitlist. A slot held for the entry is offered to the next patient.
+     *
+     * @param id the entry ID
+     * @throws EntityNotFoundException if the entry does not exist
+     * @throws IllegalStateException if the entry is no longer waiting
+     */
+    @Bulkhead(WorkloadClass.BOOKING)
+    @Transactional
+    public void leave(Long id) {
+        WaitlistEntry entry = findOpenEntry(id);
+        Slot heldSlot = "OFFERED".equals(entry.getStatus()) ? Slot.offeredTo(entry) : null;
+        entry.setStatus("CANCELLED");
+        waitlistRepository.save(entry);
+
+        Candidate candidate = Candidate.of(entry);
+        afterCommit(() -> {
+            dequeue(candidate);
+            if (heldSlot != null) {
+                withdrawOffer(id);
+                offerSlot(heldSlot, Set.of(entry.getPatientId()));
+            }
+        });
+    }
+
+    /**
+     * Decline the slot offered to an entry. The entry keeps its place in the queue and the
+     * slot is offered to the next patient.
+     *
+     * @param id the entry ID
+     * @throws EntityNotFoundException if the entry does not exist
+     * @throws IllegalStateException if the entry has no open offer
+     */
+    @Bulkhead(WorkloadClass.BOOKING)
+    @Transactional
+    public void decline(Long id) {
+        WaitlistEntry entry = findOpenEntry(id);
+        if (!"OFFERED".equals(entry.getStatus())) {
+            throw new IllegalStateException("Waitlist entry has no open offer");
+        }
+        Slot heldSlot = Slot.offeredTo(entry);
+        clearOffer(entry);
+        entry.setStatus("WAITING");
+        waitlistRepository.save(entry);
+
+        Candidate candidate = Candidate.of(entry);
+        afterCommit(() -> {
+            withdrawOffer(id);
+            enqueue(candidate);
+            offerSlot(heldSlot, Set.of(entry.getPatientId()));
+        });
+    }
+
+    /**
+     * Accept the slot offered to an entry and book it.
+     * Booking is not held against other channels, so the slot is re-checked for the doctor
+     * and the patient, and against the doctor's current availability, before the appointment is created.
+     *
+     * @param id the entry ID
+     * @return the booked appointment
+     * @throws EntityNotFoundException if the entry does not exist
+     * @throws IllegalStateException if the offer has expired, the slot is no longer free or the
+     *         doctor is no longer available then
+     */
+    @Bulkhead(WorkloadClass.BOOKING)
+    @Transactional
+    public Appointment accept(Long id) {
+        WaitlistEntry entry = findOpenEntry(id);
+        if (!"OFFERED".equals(entry.getStatus()) || !entry.getOfferExpiresAt().isAfter(LocalDateTime.now())) {
+            throw new IllegalStateException("Waitlist entry has no open offer");
+        }
+        Slot slot = Slot.offeredTo(entry);
+        if (!isFree(slot, entry.getPatientId())) {
+            throw new IllegalStateException("The offered slot is no longer free");
+        }
+        if (!doctorAvailabilityService.isAvailable(entry.getDoctorId(), slot.start(), slot.durationMinutes())) {
+            throw new IllegalStateException("The doctor is no longer available for the offered slot");
+        }
+
+        AppointmentDto dto = new AppointmentDto();
+        dto.setDoctorId(entry.getDoctorId());
+        dto.setPatientId(entry.getPatientId());
+        dto.setAppointmentDateTime(slot.start());
+        dto.setDurationMinutes(slot.durationMinutes());
+        dto.setReason("Booked from waitlist");
+        Appointment appointment = appointmentService.createAppointment(dto);
+
+        entry.setStatus("BOOKED");
+        entry.setAppointmentId(appointment.getId());
+        waitlistRepository.save(entry);
+        afterCommit(() -> withdrawOffer(id));
+        return appointment;
+    }
+
+    /**
+     * Offer a slot freed by a cancellation or deletion to the doctor's waitlist once the change commits.
+     *
+     * @param event the appointment change
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppointmentEvent(AppointmentEvent event) {
+        if (!enabled || event.getAppointmentDateTime() == null || !queues.containsKey(event.getDoctorId())) {
+            return;
+        }
+        boolean freed = AppointmentEvent.CANCELLED.equals(event.getType())
+                || (AppointmentEvent.DELETED.equals(event.getType()) && "SCHEDULED".equals(event.getStatus()));
+        if (freed) {
+            Slot slot = new Slot(event.getDoctorId(), event.getAppointmentDateTime(),
+                    event.getDurationMinutes() == null ? 30 : event.getDurationMinutes(), TenantContext.getClinicId());
+            offerSlot(slot, event.getPatientId() == null ? Set.of() : Set.of(event.getPatientId()));
+        }
+    }
+
+    /**
+     * End holds that ran out since the last tick and offer their slots to the next patient.
+     */
+    @Scheduled(fixedDelay = TICK_MILLIS)
+    public void expireHolds() {
+        if (!enabled) {
+            return;
+        }
+        for (Long entryId : holds.advance(System.currentTimeMillis())) {
+            Offer offer = offers.remove(entryId);
+            if (offer == null) {
+                continue;
+            }
+            try {
+                inClinic(offer.slot().clinicId(), () -> {
+                    // Zero rows means the offer was accepted, declined or expired elsewhere
+                    int released = inNewTransaction(() -> waitlistRepository.releaseOffer(entryId, offer.slot().start()));
+                    if (released == 1) {
+                        enqueue(offer.candidate());
+                        Set<Long> excluded = new HashSet<>(offer.excludedPatientIds());
+                        excluded.add(offer.candidate().patientId());
+                        offerSlot(offer.slot(), excluded);
+                    }
+                });
+            } catch (RuntimeException e) {
+                logger.warn("Failed to expire waitlist offer {}: {}", entryId, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Expire entries whose window has passed and rebuild the queues and holds from MySQL.
+     */
+    @Scheduled(fixedDelayString = "${waitlist.resync-ms:60000}", initialDelayString = "${waitlist.initial-delay-ms:10000}")
+    public void resync() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        shardService.forEachShard(() -> inNewTransaction(() -> waitlistRepository.expirePassed(now)));
+        List<WaitlistEntry> open = shardService.scatterGather(() -> waitlistRepository.findOpen(now));
+
+        Map<Long, PriorityQueue<Candidate>> rebuilt = new HashMap<>();
+        for (WaitlistEntry entry : open) {
+            Candidate candidate = Candidate.of(entry);
+            if ("WAITING".equals(entry.getStatus())) {
+                rebuilt.computeIfAbsent(entry.getDoctorId(), id -> new PriorityQueue<>(OFFER_ORDER)).add(candidate);
+            } else if (offers.putIfAbsent(entry.getId(), new Offer(candidate, Slot.offeredTo(entry), Set.of())) == null) {
+                holds.schedule(toMillis(entry.getOfferExpiresAt()), entry.getId());
+            }
+        }
+        queues.keySet().retainAll(rebuilt.keySet());
+        queues.putAll(rebuilt);
+        logger.debug("Waitlist resynced: {} open entries, {} offers held", open.size(), offers.size());
+    }
+
+    /**
+     * Get the number of slots currently held for waiting patients.
+     *
+     * @return held offer count
+     */
+    public int getHeldOfferCount() {
+        return holds.size();
+    }
+
+    /**
+     * Offer a slot to the first eligible patient whose entry can still be claimed.
+     * Runs after the freeing change has committed, in its own transaction.
+     *
+     * @param slot the freed slot
+     * @param excludedPatientIds patients not to offer the slot to
+     */
+    private void offerSlot(Slot slot, Set<Long> excludedPatientIds) {
+        LocalDateTime now = LocalDateTime.now();
+        PriorityQueue<Candidate> queue = queues.get(slot.doctorId());
+        if (queue == null || slot.start().isBefore(now.plusMinutes(minNoticeMinutes))) {
+            return;
+        }
+        inClinic(slot.clinicId(), () -> {
+            if (!inNewTransaction(() -> isFree(slot, null))) {
+                return;
+            }
+            LocalDateTime expiresAt = now.plusMinutes(holdMinutes);
+            Candidate candidate;
+            while ((candidate = pollEligible(queue, slot, excludedPatientIds, now)) != null) {
+                Candidate claimed = candidate;
+                Notification notification = inNewTransaction(() -> claim(claimed, slot, expiresAt));
+                if (notification != null) {
+                    offers.put(claimed.id(), new Offer(claimed, slot, excludedPatientIds));
+                    holds.schedule(toMillis(expiresAt), claimed.id());
+                    notificationSink.deliver(List.of(notification));
+                    return;
+                }
+                // Entry was offered, cancelled or expired elsewhere; it stays out of the queue
+            }
+        });
+    }
+
+    /**
+     * Take the best-placed candidate whose window contains the slot off the queue.
+     * Candidates passed over stay queued; those whose window has ended are dropped.
+     */
+    private Candidate pollEligible(PriorityQueue<Candidate> queue, Slot slot, Set<Long> excludedPatientIds,
+                                   LocalDateTime now) {
+        synchronized (queue) {
+            List<Candidate> skipped = new ArrayList<>();
+            Candidate found = null;
+            Candidate candidate;
+            while (found == null && (candidate = queue.poll()) != null) {
+                if (candidate.latest().isBefore(now)) {
+                    continue;
+                }
+                if (excludedPatientIds.contains(candidate.patientId())
+                        || slot.start().isBefore(candidate.earliest()) || slot.start().isAfter(candidate.latest())) {
+                    skipped.add(candidate);
+                } else {
+                    found = candidate;
+                }
+            }
+            queue.addAll(skipped);
+            return found;
+        }
+    }
+
+    private Notification claim(Candidate candidate, Slot slot, LocalDateTime expiresAt) {
+        if (waitlistRepository.claimOffer(candidate.id(), slot.start(), slot.durationMinutes(), expiresAt) == 0) {
+            return null;
+        }
+        Patient patient = patientRepository.findById(candidate.patientId()).orElse(null);
+        String doctorName = doctorRepository.findById(slot.doctorId()).map(Doctor::getName).orElse(null);
+        String message = String.format("A slot with %s on %s is held for you until %s", doctorName, slot.start(),
+                expiresAt);
+        return new Notification("WAITLIST_OFFER", null, candidate.patientId(),
+                patient == null ? null : patient.getName(), patient == null ? null : patient.getEmail(),
+                doctorName, slot.start(), message);
+    }
+
+    /**
+     * Check that no SCHEDULED appointment of the doctor, or of the patient if given, overlaps the slot.
+     */
+    private boolean isFree(Slot slot, Long patientId) {
+        LocalDateTime end = slot.start().plusMinutes(slot.durationMinutes());
+        // Appointments last less than a day, so one starting the day before may still overlap
+        return appointmentRepository.findScheduledSlots(List.of(slot.doctorId()),
+                        patientId == null ? List.of() : List.of(patientId), slot.start().minusDays(1), end)
+                .stream()
+                .noneMatch(other -> other.getAppointmentDateTime().isBefore(end)
+                        && other.getAppointmentDateTime().plusMinutes(other.getDurationMinutes() == null
+                        ? 30 : other.getDurationMinutes()).isAfter(slot.start()));
+    }
+
+    private WaitlistEntry findOpenEntry(Long id) {
+        WaitlistEntry entry = waitlistRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Waitlist entry not found with id: " + id));
+        if (!"WAITING".equals(entry.getStatus()) && !"OFFERED".equals(entry.getStatus())) {
+            throw new IllegalStateException("Waitlist entry is " + entry.getStatus());
+        }
+        return entry;
+    }
+
+    private void clearOffer(WaitlistEntry entry) {
+        entry.setOfferDateTime(null);
+        entry.setOfferDurationMinutes(null);
+        entry.setOfferExpiresAt(null);
+    }
+
+    private void enqueue(Candidate candidate) {
+        PriorityQueue<Candidate> queue = queues.computeIfAbsent(candidate.doctorId(),
+                id -> new PriorityQueue<>(OFFER_ORDER));
+        synchronized (queue) {
+            queue.removeIf(queued -> queued.id().equals(candidate.id()));
+            queue.add(candidate);
+        }
+    }
+
+    private void dequeue(Candidate candidate) {
+        PriorityQueue<Candidate> queue = queues.get(candidate.doctorId());
+        if (queue != null) {
+            synchronized (queue) {
+                queue.removeIf(queued -> queued.id().equals(candidate.id()));
+            }
+        }
+    }
+
+    private void withdrawOffer(Long entryId) {
+        if (offers.remove(entryId) != null) {
+            holds.cancel(entryId::equals);
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Run work in a transaction of its own; after-commit callbacks must not join the finished one.
+     */
+    private <T> T inNewTransaction(Supplier<T> work) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return template.execute(status -> work.get());
+    }
+
+    /**
+     * Run work on the slot's clinic shard; scheduled callers carry no clinic of their own.
+     */
+    private void inClinic(Long clinicId, Runnable work) {
+        Long previous = TenantContext.getClinicId();
+        if (clinicId != null) {
+            TenantContext.setClinicId(clinicId);
+        }
+        try {
+            work.run();
+        } finally {
+            TenantContext.setClinicId(previous);
+        }
+    }
+
+    private static long toMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Convert WaitlistEntry to WaitlistEntryDto.
+     *
+     * @param entry the entry
+     * @return WaitlistEntryDto
+     */
+    public WaitlistEntryDto toDto(WaitlistEntry entry) {
+        WaitlistEntryDto dto = new WaitlistEntryDto();
+        dto.setId(entry.getId());
+        dto.setDoctorId(entry.getDoctorId());
+        dto.setPatientId(entry.getPatientId());
+        dto.setEarliest(entry.getEarliest());
+        dto.setLatest(entry.getLatest());
+        dto.setPriority(entry.getPriority());
+        dto.setStatus(entry.getStatus());
+        dto.setOfferDateTime(entry.getOfferDateTime());
+        dto.setOfferDurationMinutes(entry.getOfferDurationMinutes());
+        dto.setOfferExpiresAt(entry.getOfferExpiresAt());
+        dto.setAppointmentId(entry.getAppointmentId());
+        return dto;
+    }
+
+    /**
+     * A waiting entry as kept in a doctor's queue.
+     */
+    private record Candidate(Long id, Long doctorId, Long patientId, int priority, LocalDateTime createdAt,
+                             LocalDateTime earliest, LocalDateTime latest) {
+
+        private static Candidate of(WaitlistEntry entry) {
+            return new Candidate(entry.getId(), entry.getDoctorId(), entry.getPatientId(), entry.getPriority(),
+                    entry.getCreatedAt(), entry.getEarliest(), entry.getLatest());
+        }
+    }
+
+    /**
+     * A freed slot of a doctor.
+     */
+    private record Slot(Long doctorId, LocalDateTime start, int durationMinutes, Long clinicId) {
+
+        private static Slot offeredTo(WaitlistEntry entry) {
+            return new Slot(entry.getDoctorId(), entry.getOfferDateTime(),
+                    entry.getOfferDurationMinutes() == null ? 30 : entry.getOfferDurationMinutes(), entry.getClinicId());
+        }
+    }
+
+    /**
+     * A slot held for a candidate, with the patients it was already offered to or freed by.
+     */
+    private record Offer(Candidate candidate, Slot slot, Set<Long> excludedPatientIds) {
+    }
+}
@@ -0,0 +1,27 @@
+package com.project.back_end.service;
+
+/**
+ * Workload classes isolated from each other by bulkheads.
+ * Each class has its own concurrency limit, so a burst in one cannot take the database
+ * connections the others need.
+ */
+public enum WorkloadClass {
+
+    /** Appointment and prescription writes. */
+    BOOKING,
+
+    /** Single-record and per-user lookups behind the dashboards. */
+    INTERACTIVE,
+
+    /** Clinic-wide listings, statistics and exports. */
+    REPORTING;
+
+    /**
+     * Get the property key segment for this class (e.g. "booking").
+     *
+     * @return lower-case name
+     */
+    public String key() {
+        return name().toLowerCase();
+    }
+}
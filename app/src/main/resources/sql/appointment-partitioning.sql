@@ -0,0 +1,97 @@
+-- Smart Clinic Management System - Appointment Partitioning and Archive
+-- This script converts the appointment table to monthly range partitions on
+-- appointment_date_time and creates the compressed appointment_archive table.
+-- Run once, after the application has created the schema. Later monthly partitions
+-- are added (and emptied ones dropped) by AppointmentArchiveService.
+
+USE cms;
+
+DELIMITER //
+
+-- 1. Drop foreign keys on appointment
+-- MySQL does not support foreign keys on partitioned tables; the application enforces them
+DROP PROCEDURE IF EXISTS DropAppointmentForeignKeys//
+CREATE PROCEDURE DropAppointmentForeignKeys()
+BEGIN
+    DECLARE done INT DEFAULT 0;
+    DECLARE fkName VARCHAR(64);
+    DECLARE fkCursor CURSOR FOR
+        SELECT CONSTRAINT_NAME
+        FROM information_schema.TABLE_CONSTRAINTS
+        WHERE TABLE_SCHEMA = DATABASE()
+        AND TABLE_NAME = 'appointment'
+        AND CONSTRAINT_TYPE = 'FOREIGN KEY';
+    DECLARE CONTINUE HANDLER FOR NOT FOUND SET done = 1;
+
+    OPEN fkCursor;
+    dropLoop: LOOP
+        FETCH fkCursor INTO fkName;
+        IF done THEN
+            LEAVE dropLoop;
+        END IF;
+        SET @dropSql = CONCAT('ALTER TABLE appointment DROP FOREIGN KEY `', fkName, '`');
+        PREPARE stmt FROM @dropSql;
+        EXECUTE stmt;
+        DEALLOCATE PREPARE stmt;
+    END LOOP;
+    CLOSE fkCursor;
+END//
+
+DELIMITER ;
+
+CALL DropAppointmentForeignKeys();
+DROP PROCEDURE DropAppointmentForeignKeys;
+
+-- 2. Include the partitioning column in the primary key
+ALTER TABLE appointment
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (id, appointment_date_time);
+
+-- 3. Partition by month; p_history holds everything before the first monthly partition
+ALTER TABLE appointment
+PARTITION BY RANGE COLUMNS (appointment_date_time) (
+    PARTITION p_history VALUES LESS THAN ('2025-01-01'),
+    PARTITION p202501 VALUES LESS THAN ('2025-02-01'),
+    PARTITION p202502 VALUES LESS THAN ('2025-03-01'),
+    PARTITION p202503 VALUES LESS THAN ('2025-04-01'),
+    PARTITION p202504 VALUES LESS THAN ('2025-05-01'),
+    PARTITION p202505 VALUES LESS THAN ('2025-06-01'),
+    PARTITION p202506 VALUES LESS THAN ('2025-07-01'),
+    PARTITION p202507 VALUES LESS THAN ('2025-08-01'),
+    PARTITION p202508 VALUES LESS THAN ('2025-09-01'),
+    PARTITION p202509 VALUES LESS THAN ('2025-10-01'),
+    PARTITION p202510 VALUES LESS THAN ('2025-11-01'),
+    PARTITION p202511 VALUES LESS THAN ('2025-12-01'),
+    PARTITION p202512 VALUES LESS THAN ('2026-01-01'),
+    PARTITION p202601 VALUES LESS THAN ('2026-02-01'),
+    PARTITION p202602 VALUES LESS THAN ('2026-03-01'),
+    PARTITION p202603 VALUES LESS THAN ('2026-04-01'),
+    PARTITION p202604 VALUES LESS THAN ('2026-05-01'),
+    PARTITION p202605 VALUES LESS THAN ('2026-06-01'),
+    PARTITION p202606 VALUES LESS THAN ('2026-07-01'),
+    PARTITION p202607 VALUES LESS THAN ('2026-08-01'),
+    PARTITION p202608 VALUES LESS THAN ('2026-09-01'),
+    PARTITION p202609 VALUES LESS THAN ('2026-10-01'),
+    PARTITION p202610 VALUES LESS THAN ('2026-11-01'),
+    PARTITION p202611 VALUES LESS THAN ('2026-12-01'),
+    PARTITION p202612 VALUES LESS THAN ('2027-01-01'),
+    PARTITION pmax VALUES LESS THAN (MAXVALUE)
+);
+
+-- 4. Compressed archive for appointments from closed years
+CREATE TABLE IF NOT EXISTS appointment_archive (
+    id BIGINT NOT NULL,
+    doctor_id BIGINT NOT NULL,
+    patient_id BIGINT NOT NULL,
+    appointment_date_time DATETIME(6) NOT NULL,
+    duration_minutes INT,
+    status VARCHAR(20),
+    reason TEXT,
+    notes TEXT,
+    clinic_id BIGINT,
+    created_at DATETIME(6),
+    archived_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    KEY idx_archive_doctor_date_time (doctor_id, appointment_date_time),
+    KEY idx_archive_patient_date_time (patient_id, appointment_date_time)
+) ENGINE = InnoDB ROW_FORMAT = COMPRESSED KEY_BLOCK_SIZE = 8;
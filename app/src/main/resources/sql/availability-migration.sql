@@ -0,0 +1,21 @@
+-- Smart Clinic Management System - Doctor Availability Migration
+-- This script converts the free-text doctor_available_times slots ("HH:mm-HH:mm") into
+-- doctor_availability rules and drops the old table.
+-- The old slots carried no day, so each becomes a Monday-to-Friday rule with 30-minute slots.
+-- Run once, after the application has created the doctor_availability table.
+
+USE cms;
+
+INSERT INTO doctor_availability (doctor_id, day_of_week, start_time, end_time, slot_minutes)
+SELECT t.doctor_id, d.day_of_week,
+       CAST(TRIM(SUBSTRING_INDEX(t.time_slot, '-', 1)) AS TIME),
+       CAST(TRIM(SUBSTRING_INDEX(t.time_slot, '-', -1)) AS TIME),
+       30
+FROM doctor_available_times t
+CROSS JOIN (SELECT 1 AS day_of_week UNION ALL SELECT 2 UNION ALL SELECT 3
+            UNION ALL SELECT 4 UNION ALL SELECT 5) d
+WHERE t.time_slot REGEXP '^ *[0-9]{1,2}:[0-9]{2} *- *[0-9]{1,2}:[0-9]{2} *$'
+AND CAST(TRIM(SUBSTRING_INDEX(t.time_slot, '-', 1)) AS TIME)
+    < CAST(TRIM(SUBSTRING_INDEX(t.time_slot, '-', -1)) AS TIME);
+
+DROP TABLE doctor_available_times;
@@ -19,16 +19,48 @@ INSERT INTO doctor (name, specialty, email, phone, qualifications, experience_ye
 ('Dr. Robert Wilson', 'General Medicine', 'robert.wilson@smartclinic.com', '1234567896', 'MBBS, MD', 7, 'drwilson', 'doctor123', 80.00, 1),
 ('Dr. Jennifer Moore', 'Psychiatry', 'jennifer.moore@smartclinic.com', '1234567897', 'MD, Psychiatry', 11, 'drmoore', 'doctor123', 140.00, 1);
 
--- Insert Doctor Available Times
-INSERT INTO doctor_available_times (doctor_id, time_slot) VALUES
-(1, '09:00-10:00'), (1, '10:00-11:00'), (1, '14:00-15:00'), (1, '15:00-16:00'),
-(2, '08:00-09:00'), (2, '09:00-10:00'), (2, '11:00-12:00'), (2, '13:00-14:00'),
-(3, '10:00-11:00'), (3, '11:00-12:00'), (3, '15:00-16:00'), (3, '16:00-17:00'),
-(4, '09:00-10:00'), (4, '10:00-11:00'), (4, '14:00-15:00'), (4, '15:00-16:00'),
-(5, '08:00-09:00'), (5, '11:00-12:00'), (5, '14:00-15:00'), (5, '16:00-17:00'),
-(6, '09:00-10:00'), (6, '10:00-11:00'), (6, '13:00-14:00'), (6, '14:00-15:00'),
-(7, '08:00-09:00'), (7, '09:00-10:00'), (7, '10:00-11:00'), (7, '11:00-12:00'),
-(8, '10:00-11:00'), (8, '14:00-15:00'), (8, '15:00-16:00'), (8, '16:00-17:00');
+-- Insert Doctor Availability (day_of_week 1 = Monday; weekdays only)
+INSERT INTO doctor_availability (doctor_id, day_of_week, start_time, end_time, slot_minutes) VALUES
+(1, 1, '09:00', '11:00', 30), (1, 1, '14:00', '16:00', 30),
+(1, 2, '09:00', '11:00', 30), (1, 2, '14:00', '16:00', 30),
+(1, 3, '09:00', '11:00', 30), (1, 3, '14:00', '16:00', 30),
+(1, 4, '09:00', '11:00', 30), (1, 4, '14:00', '16:00', 30),
+(1, 5, '09:00', '11:00', 30), (1, 5, '14:00', '16:00', 30),
+(2, 1, '08:00', '10:00', 30), (2, 1, '11:00', '12:00', 30), (2, 1, '13:00', '14:00', 30),
+(2, 2, '08:00', '10:00', 30), (2, 2, '11:00', '12:00', 30), (2, 2, '13:00', '14:00', 30),
+(2, 3, '08:00', '10:00', 30), (2, 3, '11:00', '12:00', 30), (2, 3, '13:00', '14:00', 30),
+(2, 4, '08:00', '10:00', 30), (2, 4, '11:00', '12:00', 30), (2, 4, '13:00', '14:00', 30),
+(2, 5, '08:00', '10:00', 30), (2, 5, '11:00', '12:00', 30), (2, 5, '13:00', '14:00', 30),
+(3, 1, '10:00', '12:00', 30), (3, 1, '15:00', '17:00', 30),
+(3, 2, '10:00', '12:00', 30), (3, 2, '15:00', '17:00', 30),
+(3, 3, '10:00', '12:00', 30), (3, 3, '15:00', '17:00', 30),
+(3, 4, '10:00', '12:00', 30), (3, 4, '15:00', '17:00', 30),
+(3, 5, '10:00', '12:00', 30), (3, 5, '15:00', '17:00', 30),
+(4, 1, '09:00', '11:00', 30), (4, 1, '14:00', '16:00', 30),
+(4, 2, '09:00', '11:00', 30), (4, 2, '14:00', '16:00', 30),
+(4, 3, '09:00', '11:00', 30), (4, 3, '14:00', '16:00', 30),
+(4, 4, '09:00', '11:00', 30), (4, 4, '14:00', '16:00', 30),
+(4, 5, '09:00', '11:00', 30), (4, 5, '14:00', '16:00', 30),
+(5, 1, '08:00', '09:00', 30), (5, 1, '11:00', '12:00', 30), (5, 1, '14:00', '15:00', 30), (5, 1, '16:00', '17:00', 30),
+(5, 2, '08:00', '09:00', 30), (5, 2, '11:00', '12:00', 30), (5, 2, '14:00', '15:00', 30), (5, 2, '16:00', '17:00', 30),
+(5, 3, '08:00', '09:00', 30), (5, 3, '11:00', '12:00', 30), (5, 3, '14:00', '15:00', 30), (5, 3, '16:00', '17:00', 30),
+(5, 4, '08:00', '09:00', 30), (5, 4, '11:00', '12:00', 30), (5, 4, '14:00', '15:00', 30), (5, 4, '16:00', '17:00', 30),
+(5, 5, '08:00', '09:00', 30), (5, 5, '11:00', '12:00', 30), (5, 5, '14:00', '15:00', 30), (5, 5, '16:00', '17:00', 30),
+(6, 1, '09:00', '11:00', 30), (6, 1, '13:00', '15:00', 30),
+(6, 2, '09:00', '11:00', 30), (6, 2, '13:00', '15:00', 30),
+(6, 3, '09:00', '11:00', 30), (6, 3, '13:00', '15:00', 30),
+(6, 4, '09:00', '11:00', 30), (6, 4, '13:00', '15:00', 30),
+(6, 5, '09:00', '11:00', 30), (6, 5, '13:00', '15:00', 30),
+(7, 1, '08:00', '12:00', 30),
+(7, 2, '08:00', '12:00', 30),
+(7, 3, '08:00', '12:00', 30),
+(7, 4, '08:00', '12:00', 30),
+(7, 5, '08:00', '12:00', 30),
+(8, 1, '10:00', '11:00', 30), (8, 1, '14:00', '17:00', 30),
+(8, 2, '10:00', '11:00', 30), (8, 2, '14:00', '17:00', 30),
+(8, 3, '10:00', '11:00', 30), (8, 3, '14:00', '17:00', 30),
+(8, 4, '10:00', '11:00', 30), (8, 4, '14:00', '17:00', 30),
+(8, 5, '10:00', '11:00', 30), (8, 5, '14:00', '17:00', 30);
 
 -- Insert Patient Data
 INSERT INTO patient (name, email, phone, date_of_birth, gender, address, blood_group, medical_history, username, password, emergency_contact, is_active) VALUES
@@ -107,7 +107,6 @@ async function handleAddDoctor(e) {
         qualifications: document.getElementById('doctorQualifications').value,
         experienceYears: parseInt(document.getElementById('doctorExperience').value) || 0,
         consultationFee: parseFloat(document.getElementById('doctorFee').value) || 0,
-        availableTimes: [],
         isActive: true
     };
 
@@ -143,7 +142,8 @@ async function filterDoctors() {
     const specialty = document.getElementById('specialtyFilter').value;
     const timeSlot = document.getElementById('timeFilter').value;
 
-    let filtered = currentDoctors;
+    // Availability is matched on the server against the doctors' weekly schedules
+    let filtered = timeSlot ? await doctorService.filterDoctors(specialty, timeSlot) : currentDoctors;
 
     if (searchTerm) {
         filtered = filtered.filter(d => d.name.toLowerCase().includes(searchTerm));
@@ -153,10 +153,6 @@ async function filterDoctors() {
         filtered = filtered.filter(d => d.specialty === specialty);
     }
 
-    if (timeSlot) {
-        filtered = filtered.filter(d => d.availableTimes && d.availableTimes.includes(timeSlot));
-    }
-
     displayDoctors(filtered);
 }
 
@@ -198,8 +194,9 @@ async function loadAppointments() {
 
 async function loadStatistics() {
     try {
-        const doctors = await doctorService.getAllDoctors();
-        const patients = await patientService.getAllPatients();
+        // Only the counts are shown, so request just the IDs
+        const doctors = await doctorService.getAllDoctors('id');
+        const patients = await patientService.getAllPatients('id');
 
         document.getElementById('totalDoctors').textContent = doctors.length;
         document.getElementById('totalPatients').textContent = patients.length;
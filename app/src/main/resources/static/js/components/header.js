@@ -20,7 +20,21 @@ function createHeader() {
     }
 }
 
-function logout() {
+async function logout() {
+    const token = localStorage.getItem('token');
+    if (token) {
+        try {
+            // Revoke the token on the server; log out locally even if that fails
+            await fetch(`${API_BASE_URL}/auth/logout`, {
+                method: 'POST',
+                headers: {
+                    'Authorization': `Bearer ${token}`
+                }
+            });
+        } catch (error) {
+            console.error('Error revoking token:', error);
+        }
+    }
     localStorage.clear();
     window.location.href = '/';
 }
@@ -1,5 +1,9 @@
 // Doctor Dashboard JavaScript
 
+// Appointments currently shown, kept up to date by the server-sent event stream
+let appointmentsCache = [];
+let appointmentStream = null;
+
 document.addEventListener('DOMContentLoaded', function() {
     // Check authentication
     const token = localStorage.getItem('token');
@@ -42,7 +46,8 @@ function switchSection(sectionName) {
     // Load section data
     switch(sectionName) {
         case 'appointments':
-            loadAppointments();
+            // Kept current by the event stream, no need to refetch
+            displayAppointments(appointmentsCache);
             break;
         case 'prescriptions':
             loadPrescriptions();
@@ -55,6 +60,57 @@ function switchSection(sectionName) {
 
 async function initializeDashboard() {
     await loadAppointments();
+    subscribeToAppointmentStream();
+}
+
+function subscribeToAppointmentStream() {
+    const userId = localStorage.getItem('userId');
+    const token = localStorage.getItem('token');
+
+    // EventSource reconnects by itself; reload once after a reconnect to catch missed changes
+    let reconnecting = false;
+    appointmentStream = new EventSource(
+        `http://localhost:8080/api/appointments/doctor/${userId}/stream?token=${encodeURIComponent(token)}`);
+    appointmentStream.addEventListener('appointment', function(e) {
+        applyAppointmentEvent(JSON.parse(e.data));
+    });
+    appointmentStream.onerror = function() {
+        reconnecting = true;
+    };
+    appointmentStream.onopen = function() {
+        if (reconnecting) {
+            reconnecting = false;
+            loadAppointments();
+        }
+    };
+}
+
+function applyAppointmentEvent(event) {
+    const index = appointmentsCache.findIndex(apt => apt.id === event.appointmentId);
+
+    if (event.type === 'DELETED') {
+        if (index >= 0) {
+            appointmentsCache.splice(index, 1);
+        }
+    } else {
+        const appointment = {
+            id: event.appointmentId,
+            doctorId: event.doctorId,
+            patientId: event.patientId,
+            patientName: event.patientName,
+            appointmentDateTime: event.appointmentDateTime,
+            durationMinutes: event.durationMinutes,
+            status: event.status
+        };
+        // Events never carry the reason; a reason already loaded through Details is kept
+        if (index >= 0) {
+            appointmentsCache[index] = { ...appointmentsCache[index], ...appointment };
+        } else {
+            appointmentsCache.push(appointment);
+        }
+    }
+
+    displayAppointments(appointmentsCache);
 }
 
 async function loadAppointments() {
@@ -69,8 +125,8 @@ async function loadAppointments() {
         });
 
         if (response.ok) {
-            const appointments = await response.json();
-            displayAppointments(appointments);
+            appointmentsCache = await response.json();
+            displayAppointments(appointmentsCache);
         }
     } catch (error) {
         console.error('Error loading appointments:', error);
@@ -90,11 +146,72 @@ function displayAppointments(appointments) {
             <div class="patient-name">${apt.patientName}</div>
             <div class="datetime">${new Date(apt.appointmentDateTime).toLocaleString()}</div>
             <div class="status ${apt.status.toLowerCase()}">${apt.status}</div>
-            <div class="reason">${apt.reason || 'No reason specified'}</div>
+            ${apt.status === 'SCHEDULED'
+                ? (apt.checkedInAt
+                    ? '<div class="checked-in">Checked in</div>'
+                    : `<button class="btn-primary" onclick="checkInAppointment(${apt.id})">Check in</button>`)
+                : ''}
+            <div class="reason" id="reason-${apt.id}">
+                ${apt.reason !== undefined
+                    ? (apt.reason || 'No reason specified')
+                    : `<button class="btn-secondary" onclick="showAppointmentReason(${apt.id})">Details</button>`}
+            </div>
         </div>
     `).join('');
 }
 
+async function checkInAppointment(appointmentId) {
+    const token = localStorage.getItem('token');
+
+    try {
+        // Appointments left without a check-in are marked NO_SHOW once they are over
+        const response = await fetch(`http://localhost:8080/api/appointments/${appointmentId}/check-in`, {
+            method: 'POST',
+            headers: {
+                'Authorization': `Bearer ${token}`
+            }
+        });
+
+        if (response.ok) {
+            const checkedIn = await response.json();
+            const appointment = appointmentsCache.find(apt => apt.id === appointmentId);
+            if (appointment) {
+                appointment.checkedInAt = checkedIn.checkedInAt;
+                appointment.status = checkedIn.status;
+            }
+            displayAppointments(appointmentsCache);
+        } else {
+            alert('Could not check the patient in: ' + await response.text());
+        }
+    } catch (error) {
+        console.error('Error checking appointment in:', error);
+    }
+}
+
+async function showAppointmentReason(appointmentId) {
+    const token = localStorage.getItem('token');
+
+    try {
+        // Reason is not part of the list response, load it on demand
+        const response = await fetch(`http://localhost:8080/api/appointments/${appointmentId}/details`, {
+            headers: {
+                'Authorization': `Bearer ${token}`
+            }
+        });
+
+        if (response.ok) {
+            const details = await response.json();
+            const appointment = appointmentsCache.find(apt => apt.id === appointmentId);
+            if (appointment) {
+                appointment.reason = details.reason;
+            }
+            displayAppointments(appointmentsCache);
+        }
+    } catch (error) {
+        console.error('Error loading appointment details:', error);
+    }
+}
+
 async function loadPrescriptions() {
     const container = document.getElementById('prescriptionsTableBody');
     container.innerHTML = '<tr><td colspan="5">Loading prescriptions...</td></tr>';
@@ -63,6 +63,8 @@ function switchSection(sectionName) {
 }
 
 let currentDoctors = [];
+// One key per booking attempt, reused by every submit of the open booking modal
+let bookingIdempotencyKey = null;
 
 async function initializeDashboard() {
     await loadDoctors();
@@ -108,6 +110,7 @@ async function filterDoctors() {
 function bookAppointment(doctorId, doctorName) {
     document.getElementById('selectedDoctorId').value = doctorId;
     document.getElementById('selectedDoctorName').value = doctorName;
+    bookingIdempotencyKey = crypto.randomUUID();
     openModal('bookAppointmentModal');
 }
 
@@ -129,7 +132,8 @@ async function handleBookAppointment(e) {
     };
 
     try {
-        await patientService.createAppointment(appointmentData);
+        await patientService.createAppointment(appointmentData, bookingIdempotencyKey);
+        bookingIdempotencyKey = null;
         closeModal('bookAppointmentModal');
         document.getElementById('bookAppointmentForm').reset();
         alert('Appointment booked successfully!');
@@ -164,11 +168,21 @@ function displayMyAppointments(appointments) {
             <div class="specialty">${apt.doctorSpecialty}</div>
             <div class="datetime">${new Date(apt.appointmentDateTime).toLocaleString()}</div>
             <div class="status ${apt.status.toLowerCase()}">${apt.status}</div>
-            ${apt.reason ? `<div class="reason">Reason: ${apt.reason}</div>` : ''}
+            <div class="reason" id="reason-${apt.id}">
+                <button class="btn-secondary" onclick="showAppointmentReason(${apt.id})">Details</button>
+            </div>
         </div>
     `).join('');
 }
 
+async function showAppointmentReason(appointmentId) {
+    const details = await patientService.getAppointmentDetails(appointmentId);
+    const container = document.getElementById(`reason-${appointmentId}`);
+    if (details && container) {
+        container.textContent = details.reason ? `Reason: ${details.reason}` : 'No reason specified';
+    }
+}
+
 async function loadMyPrescriptions() {
     const patientId = localStorage.getItem('userId');
 
@@ -203,9 +217,12 @@ async function loadProfile() {
     const patientId = localStorage.getItem('userId');
 
     try {
-        const patient = await patientService.getPatientById(patientId);
+        const [patient, details] = await Promise.all([
+            patientService.getPatientById(patientId),
+            patientService.getPatientDetails(patientId)
+        ]);
         if (patient) {
-            displayProfile(patient);
+            displayProfile({ ...patient, ...details });
         }
     } catch (error) {
         console.error('Error loading profile:', error);
@@ -3,9 +3,10 @@
 const API_BASE_URL = 'http://localhost:8080/api';
 
 const doctorService = {
-    async getAllDoctors() {
+    async getAllDoctors(fields) {
         try {
-            const response = await fetch(`${API_BASE_URL}/doctors`);
+            const query = fields ? `?fields=${encodeURIComponent(fields)}` : '';
+            const response = await fetch(`${API_BASE_URL}/doctors${query}`);
             if (response.ok) {
                 return await response.json();
             }
@@ -85,8 +86,11 @@ const doctorService = {
     async filterDoctors(specialty, timeSlot) {
         try {
             let url = `${API_BASE_URL}/doctors`;
-            if (specialty && timeSlot) {
-                url = `${API_BASE_URL}/doctors/filter?specialty=${encodeURIComponent(specialty)}&timeSlot=${encodeURIComponent(timeSlot)}`;
+            if (timeSlot) {
+                url = `${API_BASE_URL}/doctors/filter?timeSlot=${encodeURIComponent(timeSlot)}`;
+                if (specialty) {
+                    url += `&specialty=${encodeURIComponent(specialty)}`;
+                }
             } else if (specialty) {
                 url = `${API_BASE_URL}/doctors/specialty/${encodeURIComponent(specialty)}`;
             }
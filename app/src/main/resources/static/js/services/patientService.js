@@ -3,9 +3,10 @@
 const API_BASE_URL = 'http://localhost:8080/api';
 
 const patientService = {
-    async getAllPatients() {
+    async getAllPatients(fields) {
         try {
-            const response = await fetch(`${API_BASE_URL}/patients`);
+            const query = fields ? `?fields=${encodeURIComponent(fields)}` : '';
+            const response = await fetch(`${API_BASE_URL}/patients${query}`);
             if (response.ok) {
                 return await response.json();
             }
@@ -29,6 +30,46 @@ const patientService = {
         }
     },
 
+    // Address and medical history are not part of the patient response
+    async getPatientDetails(id) {
+        const token = localStorage.getItem('token');
+        try {
+            const response = await fetch(`${API_BASE_URL}/patients/${id}/details`, {
+                headers: {
+                    'Authorization': `Bearer ${token}`
+                }
+            });
+
+            if (response.ok) {
+                return await response.json();
+            }
+            return null;
+        } catch (error) {
+            console.error('Error fetching patient details:', error);
+            return null;
+        }
+    },
+
+    // Reason and notes are not part of appointment list responses
+    async getAppointmentDetails(id) {
+        const token = localStorage.getItem('token');
+        try {
+            const response = await fetch(`${API_BASE_URL}/appointments/${id}/details`, {
+                headers: {
+                    'Authorization': `Bearer ${token}`
+                }
+            });
+
+            if (response.ok) {
+                return await response.json();
+            }
+            return null;
+        } catch (error) {
+            console.error('Error fetching appointment details:', error);
+            return null;
+        }
+    },
+
     async getAppointmentsByPatient(patientId) {
         const token = localStorage.getItem('token');
         try {
@@ -48,15 +89,20 @@ const patientService = {
         }
     },
 
-    async createAppointment(appointmentData) {
+    // Pass the same idempotencyKey when retrying a booking so the server books it only once
+    async createAppointment(appointmentData, idempotencyKey) {
         const token = localStorage.getItem('token');
+        const headers = {
+            'Content-Type': 'application/json',
+            'Authorization': `Bearer ${token}`
+        };
+        if (idempotencyKey) {
+            headers['Idempotency-Key'] = idempotencyKey;
+        }
         try {
             const response = await fetch(`${API_BASE_URL}/appointments`, {
                 method: 'POST',
-                headers: {
-                    'Content-Type': 'application/json',
-                    'Authorization': `Bearer ${token}`
-                },
+                headers: headers,
                 body: JSON.stringify(appointmentData)
             });
 
@@ -0,0 +1,99 @@
+package com.project.back_end.repository;
+
+import com.project.back_end.model.Doctor;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests that the cached doctor list queries are answered from the Hibernate second-level
+ * and query cache, and that saving a doctor invalidates the cached results.
+ * Each repository call runs in its own transaction so the persistence context cannot
+ * answer repeat calls on the cache's behalf.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class DoctorRepositoryCacheTest {
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        doctorRepository.save(doctor("Alice Smith", "Cardiology", "asmith"));
+        doctorRepository.save(doctor("Bob Jones", "Neurology", "bjones"));
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+    }
+
+    @AfterEach
+    void tearDown() {
+        doctorRepository.deleteAll();
+    }
+
+    @Test
+    void findBySpecialtyIssuesNoSqlOnRepeatCall() {
+        assertThat(doctorRepository.findBySpecialty("Cardiology")).hasSize(1);
+        long statements = statistics.getPrepareStatementCount();
+
+        List<Doctor> repeat = doctorRepository.findBySpecialty("Cardiology");
+
+        assertThat(repeat).extracting(Doctor::getUsername).containsExactly("asmith");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(statements);
+    }
+
+    @Test
+    void findByIsActiveIssuesNoSqlOnRepeatCall() {
+        assertThat(doctorRepository.findByIsActive(true)).hasSize(2);
+        long statements = statistics.getPrepareStatementCount();
+
+        List<Doctor> repeat = doctorRepository.findByIsActive(true);
+
+        assertThat(repeat).hasSize(2);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(statements);
+    }
+
+    @Test
+    void savingDoctorInvalidatesCachedResults() {
+        assertThat(doctorRepository.findBySpecialty("Cardiology")).hasSize(1);
+        assertThat(doctorRepository.findByIsActive(true)).hasSize(2);
+
+        doctorRepository.save(doctor("Carol White", "Cardiology", "cwhite"));
+        long statements = statistics.getPrepareStatementCount();
+
+        assertThat(doctorRepository.findBySpecialty("Cardiology")).extracting(Doctor::getUsername)
+                .containsExactlyInAnyOrder("asmith", "cwhite");
+        assertThat(doctorRepository.findByIsActive(true)).hasSize(3);
+        assertThat(statistics.getPrepareStatementCount()).isGreaterThan(statements);
+    }
+
+    private static Doctor doctor(String name, String specialty, String username) {
+        Doctor doctor = new Doctor();
+        doctor.setName(name);
+        doctor.setSpecialty(specialty);
+        doctor.setEmail(username + "@clinic.com");
+        doctor.setPhone("5551234567");
+        doctor.setUsername(username);
+        doctor.setPassword("secret123");
+        doctor.setIsActive(true);
+        return doctor;
+    }
+}